@@ -26,9 +26,9 @@ public class BaseClassUtil {
 	 */
 	public static final Map<String, Class<?>> PRIMITIVE_TYPE_NAME_MAP;
 	/**
-	 * java公用class的name与class的映射集合
+	 * java公用class的name与class的映射集合【静态初始化完成后不可修改，可以在多线程中直接读取】
 	 */
-	public static final Map<String, Class<?>> COMMON_CLASS_CACHE = new HashMap<>(64);
+	public static final Map<String, Class<?>> COMMON_CLASS_CACHE;
 
 	static {
 		PRIMITIVE_WRAPPER_TYPE_MAP.put(Boolean.class, Boolean.TYPE);
@@ -39,9 +39,10 @@ public class BaseClassUtil {
 		PRIMITIVE_WRAPPER_TYPE_MAP.put(Integer.class, Integer.TYPE);
 		PRIMITIVE_WRAPPER_TYPE_MAP.put(Long.class, Long.TYPE);
 		PRIMITIVE_WRAPPER_TYPE_MAP.put(Short.class, Short.TYPE);
+		Map<String, Class<?>> commonClasses = new HashMap<>(64);
 		PRIMITIVE_WRAPPER_TYPE_MAP.forEach((key, value) -> {
 			PRIMITIVE_TYPE_WRAPPER_MAP.put(value, key);
-			registerCommonClasses(key);
+			registerCommonClasses(commonClasses, key);
 		});
 		// 原始类型数据集合【包含基本数据类型以及基本数据类型的数组类型】
 		Set<Class<?>> primitiveTypes = new HashSet<>(32);
@@ -52,24 +53,26 @@ public class BaseClassUtil {
 		// 将空类型添加到集合中
 		primitiveTypes.add(Void.TYPE);
 
-		PRIMITIVE_TYPE_NAME_MAP = primitiveTypes.stream().collect(Collectors.toMap(Class::getName, type -> type));
+		PRIMITIVE_TYPE_NAME_MAP = Collections.unmodifiableMap(primitiveTypes.stream().collect(Collectors.toMap(Class::getName, type -> type)));
 
-		registerCommonClasses(Boolean[].class, Byte[].class, Character[].class, Double[].class, Float[].class, Integer[].class, Long[].class, Short[].class);
-		registerCommonClasses(Number.class, Number[].class, String.class, String[].class, Class.class, Class[].class, Object.class, Object[].class);
-		registerCommonClasses(Throwable.class, Exception.class, RuntimeException.class, Error.class, StackTraceElement.class, StackTraceElement[].class);
-		registerCommonClasses(Enum.class, Iterable.class, Iterator.class, Enumeration.class, Collection.class, List.class, Set.class, Map.class, Map.Entry.class, Optional.class);
+		registerCommonClasses(commonClasses, Boolean[].class, Byte[].class, Character[].class, Double[].class, Float[].class, Integer[].class, Long[].class, Short[].class);
+		registerCommonClasses(commonClasses, Number.class, Number[].class, String.class, String[].class, Class.class, Class[].class, Object.class, Object[].class);
+		registerCommonClasses(commonClasses, Throwable.class, Exception.class, RuntimeException.class, Error.class, StackTraceElement.class, StackTraceElement[].class);
+		registerCommonClasses(commonClasses, Enum.class, Iterable.class, Iterator.class, Enumeration.class, Collection.class, List.class, Set.class, Map.class, Map.Entry.class, Optional.class);
 		Class<?>[] javaLanguageInterfaceArray = new Class[]{Serializable.class, Externalizable.class, Closeable.class, AutoCloseable.class, Cloneable.class, Comparable.class};
-		registerCommonClasses(javaLanguageInterfaceArray);
+		registerCommonClasses(commonClasses, javaLanguageInterfaceArray);
+		COMMON_CLASS_CACHE = Collections.unmodifiableMap(commonClasses);
 	}
 
 	/**
 	 * 将java常用的公用类存放到集合中
 	 *
-	 * @param commonClasses 常用的类型类
+	 * @param commonClassMap 类名与类的映射集合
+	 * @param commonClasses  常用的类型类
 	 */
-	private static void registerCommonClasses(Class<?>... commonClasses) {
+	private static void registerCommonClasses(Map<String, Class<?>> commonClassMap, Class<?>... commonClasses) {
 		for (Class<?> clazz : commonClasses) {
-			COMMON_CLASS_CACHE.put(clazz.getName(), clazz);
+			commonClassMap.put(clazz.getName(), clazz);
 		}
 	}
 
@@ -125,6 +128,34 @@ public class BaseClassUtil {
 		return clazz.isArray() && isPrimitiveWrapper(clazz.getComponentType());
 	}
 
+	/**
+	 * 获取基本数据类型对应的包装类
+	 *
+	 * @param clazz 类
+	 * @return 基本数据类型返回对应的包装类，其他类型返回自身
+	 */
+	public static Class<?> getWrapperType(Class<?> clazz) {
+		if (null == clazz || !clazz.isPrimitive()) {
+			return clazz;
+		}
+		Class<?> wrapperType = PRIMITIVE_TYPE_WRAPPER_MAP.get(clazz);
+		return null == wrapperType ? clazz : wrapperType;
+	}
+
+	/**
+	 * 获取包装类对应的基本数据类型
+	 *
+	 * @param clazz 类
+	 * @return 包装类返回对应的基本数据类型，其他类型返回自身
+	 */
+	public static Class<?> getPrimitiveType(Class<?> clazz) {
+		if (null == clazz || clazz.isPrimitive()) {
+			return clazz;
+		}
+		Class<?> primitiveType = PRIMITIVE_WRAPPER_TYPE_MAP.get(clazz);
+		return null == primitiveType ? clazz : primitiveType;
+	}
+
 	public static void main(String[] args) {
 		System.out.println(isPrimitiveOrWrapper(int.class));
 		System.out.println(isPrimitiveOrWrapper(void.class));
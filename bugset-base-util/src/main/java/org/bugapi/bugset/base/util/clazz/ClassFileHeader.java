@@ -0,0 +1,493 @@
+package org.bugapi.bugset.base.util.clazz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * class文件的头信息【直接解析字节码，不加载类】
+ * <pre>
+ * 1、解析常量池、访问标志、类名、父类名、接口名以及类上运行时可见的注解（RuntimeVisibleAnnotations）
+ * 2、用于扫描类时先按字节码过滤，只有满足条件的类才调用Class.forName加载，减少元空间的占用
+ * 3、类名均为Java的二进制名称（以.分隔），例如：java.util.Map$Entry
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class ClassFileHeader {
+
+	/**
+	 * class文件的魔数
+	 */
+	private static final int MAGIC = 0xCAFEBABE;
+
+	/**
+	 * 类上运行时可见的注解的属性名
+	 */
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+	/**
+	 * 读取输入流时的缓冲区大小
+	 */
+	private static final int READ_BUFFER_SIZE = 4096;
+
+	/**
+	 * 空的名称数组
+	 */
+	private static final String[] EMPTY_NAMES = new String[0];
+
+	/**
+	 * 访问标志
+	 */
+	private final int accessFlags;
+
+	/**
+	 * 类名
+	 */
+	private final String className;
+
+	/**
+	 * 父类名，java.lang.Object和module-info没有父类时为null
+	 */
+	private final String superClassName;
+
+	/**
+	 * 直接实现的接口名
+	 */
+	private final String[] interfaceNames;
+
+	/**
+	 * 类上运行时可见的注解的类名
+	 */
+	private final String[] annotationNames;
+
+	ClassFileHeader(int accessFlags, String className, String superClassName, String[] interfaceNames,
+					String[] annotationNames) {
+		this.accessFlags = accessFlags;
+		this.className = className;
+		this.superClassName = superClassName;
+		this.interfaceNames = interfaceNames;
+		this.annotationNames = annotationNames;
+	}
+
+	/**
+	 * 从输入流中读取class文件的头信息【不会关闭输入流】
+	 *
+	 * @param in class文件的输入流
+	 * @return ClassFileHeader 头信息
+	 * @throws IOException IO异常或者不是合法的class文件
+	 */
+	public static ClassFileHeader read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(READ_BUFFER_SIZE);
+		byte[] buffer = new byte[READ_BUFFER_SIZE];
+		int count;
+		while ((count = in.read(buffer)) != -1) {
+			out.write(buffer, 0, count);
+		}
+		return read(out.toByteArray());
+	}
+
+	/**
+	 * 从字节数组中读取class文件的头信息
+	 *
+	 * @param bytes class文件的字节
+	 * @return ClassFileHeader 头信息
+	 * @throws IOException 不是合法的class文件
+	 */
+	public static ClassFileHeader read(byte[] bytes) throws IOException {
+		try {
+			return new Parser(bytes).parse();
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("class文件不完整", e);
+		}
+	}
+
+	/**
+	 * 获取访问标志
+	 *
+	 * @return int 访问标志，参照{@link Modifier}
+	 */
+	public int getAccessFlags() {
+		return accessFlags;
+	}
+
+	/**
+	 * 获取类名
+	 *
+	 * @return String 类名
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * 获取父类名
+	 *
+	 * @return String 父类名，没有父类返回null
+	 */
+	public String getSuperClassName() {
+		return superClassName;
+	}
+
+	/**
+	 * 获取直接实现的接口名
+	 *
+	 * @return String[] 接口名
+	 */
+	public String[] getInterfaceNames() {
+		return interfaceNames.clone();
+	}
+
+	/**
+	 * 获取类上运行时可见的注解的类名
+	 *
+	 * @return String[] 注解的类名
+	 */
+	public String[] getAnnotationNames() {
+		return annotationNames.clone();
+	}
+
+	/**
+	 * 类上是否直接标注了指定的注解
+	 *
+	 * @param annotationName 注解的类名
+	 * @return boolean 【true：标注了该注解】
+	 */
+	public boolean hasAnnotation(String annotationName) {
+		for (String name : annotationNames) {
+			if (name.equals(annotationName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 是否直接实现了指定的接口
+	 *
+	 * @param interfaceName 接口名
+	 * @return boolean 【true：直接实现了该接口】
+	 */
+	public boolean hasInterface(String interfaceName) {
+		for (String name : interfaceNames) {
+			if (name.equals(interfaceName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 是否为接口（包括注解）
+	 *
+	 * @return boolean 【true：接口】
+	 */
+	public boolean isInterface() {
+		return Modifier.isInterface(accessFlags);
+	}
+
+	@Override
+	public String toString() {
+		return "ClassFileHeader[" + className + " extends " + superClassName + " implements "
+				+ Arrays.toString(interfaceNames) + ", annotations " + Arrays.toString(annotationNames) + "]";
+	}
+
+	/**
+	 * class文件的解析器【按JVM规范第4章的结构顺序读取，常量池中的字符串只在用到时解码】
+	 */
+	private static final class Parser {
+		/**
+		 * 常量类型：Utf8
+		 */
+		private static final int CONSTANT_UTF8 = 1;
+		/**
+		 * 常量类型：Class
+		 */
+		private static final int CONSTANT_CLASS = 7;
+
+		/**
+		 * class文件的字节
+		 */
+		private final byte[] bytes;
+		/**
+		 * 当前读取位置
+		 */
+		private int position;
+		/**
+		 * 常量池中每一项的开始位置（tag之后）
+		 */
+		private int[] offsets;
+		/**
+		 * 常量池中每一项的类型
+		 */
+		private byte[] tags;
+		/**
+		 * 已解码的Utf8常量
+		 */
+		private String[] strings;
+
+		private Parser(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		private ClassFileHeader parse() throws IOException {
+			if (readInt() != MAGIC) {
+				throw new IOException("不是合法的class文件");
+			}
+			// minor_version、major_version
+			position += 4;
+			readConstantPool();
+			int accessFlags = readUnsignedShort();
+			String className = classNameAt(readUnsignedShort());
+			int superIndex = readUnsignedShort();
+			String superClassName = superIndex == 0 ? null : classNameAt(superIndex);
+			int interfaceCount = readUnsignedShort();
+			String[] interfaceNames = interfaceCount == 0 ? EMPTY_NAMES : new String[interfaceCount];
+			for (int i = 0; i < interfaceCount; i++) {
+				interfaceNames[i] = classNameAt(readUnsignedShort());
+			}
+			// fields、methods
+			skipMembers();
+			skipMembers();
+			String[] annotationNames = EMPTY_NAMES;
+			for (int i = 0, attributeCount = readUnsignedShort(); i < attributeCount; i++) {
+				String attributeName = utf8At(readUnsignedShort());
+				int length = readInt();
+				int end = position + length;
+				if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+					annotationNames = readAnnotationNames();
+				}
+				position = end;
+			}
+			return new ClassFileHeader(accessFlags, className, superClassName, interfaceNames, annotationNames);
+		}
+
+		/**
+		 * 读取常量池，只记录每一项的位置
+		 *
+		 * @throws IOException 常量类型不合法
+		 */
+		private void readConstantPool() throws IOException {
+			int count = readUnsignedShort();
+			offsets = new int[count];
+			tags = new byte[count];
+			strings = new String[count];
+			for (int i = 1; i < count; i++) {
+				int tag = bytes[position++];
+				tags[i] = (byte) tag;
+				offsets[i] = position;
+				switch (tag) {
+					case CONSTANT_UTF8:
+						position += 2 + readUnsignedShort(position);
+						break;
+					case CONSTANT_CLASS:
+					case 8:
+					case 16:
+					case 19:
+					case 20:
+						// String、MethodType、Module、Package
+						position += 2;
+						break;
+					case 15:
+						// MethodHandle
+						position += 3;
+						break;
+					case 3:
+					case 4:
+					case 9:
+					case 10:
+					case 11:
+					case 12:
+					case 17:
+					case 18:
+						// Integer、Float、Fieldref、Methodref、InterfaceMethodref、NameAndType、Dynamic、InvokeDynamic
+						position += 4;
+						break;
+					case 5:
+					case 6:
+						// Long、Double占用两个常量池位置
+						position += 8;
+						i++;
+						break;
+					default:
+						throw new IOException("不支持的常量类型：" + tag);
+				}
+			}
+		}
+
+		/**
+		 * 跳过属性或方法表
+		 */
+		private void skipMembers() {
+			for (int i = 0, count = readUnsignedShort(); i < count; i++) {
+				// access_flags、name_index、descriptor_index
+				position += 6;
+				skipAttributes();
+			}
+		}
+
+		/**
+		 * 跳过属性表
+		 */
+		private void skipAttributes() {
+			for (int i = 0, count = readUnsignedShort(); i < count; i++) {
+				position += 2;
+				int length = readInt();
+				position += length;
+			}
+		}
+
+		/**
+		 * 读取RuntimeVisibleAnnotations中每个注解的类名
+		 *
+		 * @return String[] 注解的类名
+		 */
+		private String[] readAnnotationNames() {
+			int count = readUnsignedShort();
+			String[] names = new String[count];
+			for (int i = 0; i < count; i++) {
+				names[i] = descriptorToName(utf8At(readUnsignedShort()));
+				skipElementValuePairs();
+			}
+			return names;
+		}
+
+		/**
+		 * 跳过注解的属性值
+		 */
+		private void skipElementValuePairs() {
+			for (int i = 0, count = readUnsignedShort(); i < count; i++) {
+				position += 2;
+				skipElementValue();
+			}
+		}
+
+		/**
+		 * 跳过一个注解属性值
+		 */
+		private void skipElementValue() {
+			int tag = bytes[position++];
+			switch (tag) {
+				case 'e':
+					position += 4;
+					break;
+				case '@':
+					position += 2;
+					skipElementValuePairs();
+					break;
+				case '[':
+					for (int i = 0, count = readUnsignedShort(); i < count; i++) {
+						skipElementValue();
+					}
+					break;
+				default:
+					// B C D F I J S Z s c
+					position += 2;
+					break;
+			}
+		}
+
+		/**
+		 * 获取Class常量对应的类名
+		 *
+		 * @param index 常量池索引
+		 * @return String 类名
+		 * @throws IOException 常量类型不合法
+		 */
+		private String classNameAt(int index) throws IOException {
+			if (tags[index] != CONSTANT_CLASS) {
+				throw new IOException("常量池第" + index + "项不是Class常量");
+			}
+			return utf8At(readUnsignedShort(offsets[index])).replace('/', '.');
+		}
+
+		/**
+		 * 获取Utf8常量
+		 *
+		 * @param index 常量池索引
+		 * @return String 字符串
+		 */
+		private String utf8At(int index) {
+			String value = strings[index];
+			if (null == value) {
+				int offset = offsets[index];
+				value = decodeModifiedUtf8(offset + 2, readUnsignedShort(offset));
+				strings[index] = value;
+			}
+			return value;
+		}
+
+		/**
+		 * 解码class文件中的modified UTF-8字符串【类名、描述符通常都是ASCII，按ASCII快速解码】
+		 *
+		 * @param offset 开始位置
+		 * @param length 字节长度
+		 * @return String 字符串
+		 */
+		private String decodeModifiedUtf8(int offset, int length) {
+			for (int i = offset, end = offset + length; i < end; i++) {
+				if (bytes[i] <= 0) {
+					return decodeNonAscii(offset, length);
+				}
+			}
+			return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+		}
+
+		/**
+		 * 解码包含非ASCII字符的modified UTF-8字符串
+		 *
+		 * @param offset 开始位置
+		 * @param length 字节长度
+		 * @return String 字符串
+		 */
+		private String decodeNonAscii(int offset, int length) {
+			char[] chars = new char[length];
+			int count = 0;
+			for (int i = offset, end = offset + length; i < end; ) {
+				int b = bytes[i++] & 0xFF;
+				if (b < 0x80) {
+					chars[count++] = (char) b;
+				} else if ((b & 0xE0) == 0xC0) {
+					chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[i++] & 0x3F));
+				} else {
+					chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[i++] & 0x3F) << 6) | (bytes[i++] & 0x3F));
+				}
+			}
+			return new String(chars, 0, count);
+		}
+
+		/**
+		 * 类型描述符转成类名 eg：Lcom/abc/Foo; 转成 com.abc.Foo
+		 *
+		 * @param descriptor 类型描述符
+		 * @return String 类名
+		 */
+		private static String descriptorToName(String descriptor) {
+			if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.charAt(descriptor.length() - 1) == ';') {
+				return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+			}
+			return descriptor;
+		}
+
+		private int readUnsignedShort() {
+			int value = readUnsignedShort(position);
+			position += 2;
+			return value;
+		}
+
+		private int readUnsignedShort(int offset) {
+			return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+		}
+
+		private int readInt() {
+			int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+					| ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+			position += 4;
+			return value;
+		}
+	}
+}
@@ -4,13 +4,45 @@ import org.bugapi.bugset.base.constant.SymbolType;
 import org.bugapi.bugset.base.util.array.ArrayUtil;
 import org.bugapi.bugset.base.util.string.StringUtil;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * 类加载工具类
+ * <pre>
+ * 1、按类加载器缓存类名的加载结果，找不到的类名同样缓存，重复加载同一个类名时不再调用Class.forName
+ * 2、缓存的类使用弱引用保存，类加载器作为弱引用的key，不会因为缓存导致类加载器无法卸载
+ * 3、动态定义了之前找不到的类时，需要调用{@link #clearCache(ClassLoader)}清除缓存
+ * </pre>
  *
  * @author zhangxw
  * @since 0.0.1
  */
 public class ClassLoaderUtil {
+
+	/**
+	 * 类找不到的标记
+	 */
+	private static final Object MISSING = new Object();
+
+	/**
+	 * 每个类加载器缓存的找不到的类名的最大个数，超过后不再缓存找不到的类名，避免外部输入的类名撑满内存
+	 */
+	private static final int MAX_MISSING_SIZE = 4096;
+
+	/**
+	 * 类加载器与类名加载结果的映射【key为类加载器的弱引用】
+	 */
+	private static final Map<ClassLoader, ConcurrentMap<String, Object>> RESOLUTION_CACHE = new WeakHashMap<>();
+
+	/**
+	 * 最近一次使用的类加载器的缓存，同一个类加载器重复加载时不需要加锁
+	 */
+	private static volatile LoaderCache lastCache;
+
 	/**
 	 * 获取类加载器
 	 * 按照获取当前线程上下文类加载器-->获取当前类类加载器-->获取系统启动类加载器的顺序来获取
@@ -79,36 +111,200 @@ public class ClassLoaderUtil {
 		if (clazz != null) {
 			return clazz;
 		}
+		if (classLoader == null) {
+			classLoader = getDefaultClassLoader();
+		}
+
+		ConcurrentMap<String, Object> cache = getResolutionCache(classLoader);
+		Object cached = cache.get(className);
+		if (cached == MISSING) {
+			return classNotFound(className);
+		}
+		if (cached != null) {
+			Resolved resolved = (Resolved) cached;
+			clazz = resolved.get();
+			// 之前没有初始化的类需要初始化时重新加载一次
+			if (clazz != null && (resolved.initialized || !isInitialized)) {
+				return clazz;
+			}
+		}
+
+		try {
+			clazz = isArrayName(className) ? loadArrayClass(className, isInitialized, classLoader)
+					: loadNamedClass(className, isInitialized, classLoader);
+		} catch (ClassNotFoundException exception) {
+			if (cache.size() < MAX_MISSING_SIZE) {
+				cache.put(className, MISSING);
+			}
+			throw exception;
+		}
+		if (clazz == null) {
+			if (cache.size() < MAX_MISSING_SIZE) {
+				cache.put(className, MISSING);
+			}
+			return null;
+		}
+		cache.put(className, new Resolved(clazz, isInitialized));
+		return clazz;
+	}
 
-		Class elementClass;
-		String elementName;
+	/**
+	 * 清除所有类加载器的类名加载结果的缓存
+	 */
+	public static void clearCache() {
+		synchronized (RESOLUTION_CACHE) {
+			RESOLUTION_CACHE.clear();
+			lastCache = null;
+		}
+	}
+
+	/**
+	 * 清除指定类加载器的类名加载结果的缓存【例如动态定义了之前找不到的类之后】
+	 *
+	 * @param classLoader 类加载器
+	 */
+	public static void clearCache(ClassLoader classLoader) {
+		synchronized (RESOLUTION_CACHE) {
+			RESOLUTION_CACHE.remove(classLoader);
+			LoaderCache last = lastCache;
+			if (last != null && last.get() == classLoader) {
+				lastCache = null;
+			}
+		}
+	}
+
+	/**
+	 * 获取类加载器对应的类名加载结果的缓存
+	 *
+	 * @param classLoader 类加载器
+	 * @return 类名与加载结果的映射
+	 */
+	private static ConcurrentMap<String, Object> getResolutionCache(ClassLoader classLoader) {
+		LoaderCache last = lastCache;
+		if (last != null && last.get() == classLoader) {
+			return last.classes;
+		}
+		synchronized (RESOLUTION_CACHE) {
+			ConcurrentMap<String, Object> classes = RESOLUTION_CACHE.computeIfAbsent(classLoader, loader -> new ConcurrentHashMap<>(64));
+			lastCache = new LoaderCache(classLoader, classes);
+			return classes;
+		}
+	}
+
+	/**
+	 * 加载普通类，找不到时尝试作为内部类加载
+	 *
+	 * @param className     限定类名 字符串
+	 * @param isInitialized 是否初始化类（调用static模块内容和初始化static属性）
+	 * @param classLoader   类加载器
+	 * @return 类，类名中没有.并且找不到时为null
+	 * @throws ClassNotFoundException 类找不到异常
+	 */
+	private static Class<?> loadNamedClass(String className, boolean isInitialized, ClassLoader classLoader) throws ClassNotFoundException {
+		try {
+			return Class.forName(className, isInitialized, classLoader);
+		} catch (ClassNotFoundException exception) {
+			// 尝试获取内部类，例如java.lang.Thread.State =》java.lang.Thread$State
+			return tryLoadInnerClass(className, isInitialized, classLoader);
+		}
+	}
+
+	/**
+	 * 直接解析数组类型的类名，不经过Class.forName
+	 * <pre>
+	 * 1、java.lang.String[][]、int[] 风格
+	 * 2、[[Ljava.lang.String;、[[I 风格
+	 * </pre>
+	 *
+	 * @param className     数组类型的类名
+	 * @param isInitialized 是否初始化元素类
+	 * @param classLoader   类加载器
+	 * @return 数组类
+	 * @throws ClassNotFoundException 元素类找不到或者类名格式不正确
+	 */
+	private static Class<?> loadArrayClass(String className, boolean isInitialized, ClassLoader classLoader) throws ClassNotFoundException {
+		int dimensions = 0;
+		Class<?> elementClass;
 		if (className.endsWith(SymbolType.ARRAY_SUFFIX)) {
-			// 对象数组 java.lang.String[] 风格
-			elementName = className.substring(0, className.length() - SymbolType.ARRAY_SUFFIX.length());
-			elementClass = loadClass(elementName, isInitialized, classLoader);
-			return ArrayUtil.getArrayClass(elementClass);
-		} else if (className.startsWith(SymbolType.NON_PRIMITIVE_ARRAY_PREFIX) && className.endsWith(SymbolType.SEMICOLON)) {
-			// [Ljava.lang.String; 风格
-			elementName = className.substring(SymbolType.NON_PRIMITIVE_ARRAY_PREFIX.length(), className.length() - 1);
-			elementClass = loadClass(elementName, isInitialized, classLoader);
-			return ArrayUtil.getArrayClass(elementClass);
-		} else if (className.startsWith(SymbolType.PRIMITIVE_ARRAY_PREFIX)) {
-			// [[I 或 [[Ljava.lang.String; 风格
-			elementName = className.substring(SymbolType.PRIMITIVE_ARRAY_PREFIX.length());
-			elementClass = loadClass(elementName, isInitialized, classLoader);
-			return ArrayUtil.getArrayClass(elementClass);
+			int end = className.length();
+			while (className.startsWith(SymbolType.ARRAY_SUFFIX, end - SymbolType.ARRAY_SUFFIX.length())) {
+				end -= SymbolType.ARRAY_SUFFIX.length();
+				dimensions++;
+			}
+			elementClass = end == 0 ? null : loadClass(className.substring(0, end), isInitialized, classLoader);
 		} else {
-			// 加载普通类
-			if (classLoader == null) {
-				classLoader = getDefaultClassLoader();
+			while (dimensions < className.length() && className.charAt(dimensions) == '[') {
+				dimensions++;
 			}
-			try {
-				return Class.forName(className, isInitialized, classLoader);
-			} catch (ClassNotFoundException exception) {
-				// 尝试获取内部类，例如java.lang.Thread.State =》java.lang.Thread$State
-				return tryLoadInnerClass(className, isInitialized, classLoader);
+			int remaining = className.length() - dimensions;
+			if (remaining == 1) {
+				elementClass = getDescriptorPrimitiveClass(className.charAt(dimensions));
+			} else if (remaining > 2 && className.charAt(dimensions) == 'L' && className.endsWith(SymbolType.SEMICOLON)) {
+				elementClass = loadClass(className.substring(dimensions + 1, className.length() - 1), isInitialized, classLoader);
+			} else {
+				elementClass = null;
 			}
 		}
+		if (elementClass == null || elementClass == void.class) {
+			throw new ClassNotFoundException(className);
+		}
+		for (int i = 0; i < dimensions; i++) {
+			elementClass = ArrayUtil.getArrayClass(elementClass);
+		}
+		return elementClass;
+	}
+
+	/**
+	 * 是否是数组类型的类名
+	 *
+	 * @param className 类名
+	 * @return 是否是数组类型的类名
+	 */
+	private static boolean isArrayName(String className) {
+		return className.endsWith(SymbolType.ARRAY_SUFFIX) || className.startsWith(SymbolType.PRIMITIVE_ARRAY_PREFIX);
+	}
+
+	/**
+	 * 获取类型描述符对应的基本数据类型
+	 *
+	 * @param descriptor 类型描述符，例如：I
+	 * @return 基本数据类型，不是基本数据类型的描述符时为null
+	 */
+	private static Class<?> getDescriptorPrimitiveClass(char descriptor) {
+		switch (descriptor) {
+			case 'Z':
+				return boolean.class;
+			case 'B':
+				return byte.class;
+			case 'C':
+				return char.class;
+			case 'S':
+				return short.class;
+			case 'I':
+				return int.class;
+			case 'J':
+				return long.class;
+			case 'F':
+				return float.class;
+			case 'D':
+				return double.class;
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * 缓存中记录为找不到的类名的处理【和直接加载时的结果一致：类名中没有.时返回null，否则抛出异常】
+	 *
+	 * @param className 类名
+	 * @return null
+	 * @throws ClassNotFoundException 类找不到异常
+	 */
+	private static Class<?> classNotFound(String className) throws ClassNotFoundException {
+		if (!isArrayName(className) && className.lastIndexOf(SymbolType.DOT) == -1) {
+			return null;
+		}
+		throw new ClassNotFoundException(className);
 	}
 
 	/**
@@ -160,6 +356,36 @@ public class ClassLoaderUtil {
 		return null;
 	}
 
+	/**
+	 * 已加载的类【弱引用，记录加载时是否初始化】
+	 */
+	private static final class Resolved extends WeakReference<Class<?>> {
+		/**
+		 * 是否已经初始化
+		 */
+		private final boolean initialized;
+
+		private Resolved(Class<?> clazz, boolean initialized) {
+			super(clazz);
+			this.initialized = initialized;
+		}
+	}
+
+	/**
+	 * 类加载器与其类名加载结果的缓存【类加载器为弱引用】
+	 */
+	private static final class LoaderCache extends WeakReference<ClassLoader> {
+		/**
+		 * 类名与加载结果的映射
+		 */
+		private final ConcurrentMap<String, Object> classes;
+
+		private LoaderCache(ClassLoader classLoader, ConcurrentMap<String, Object> classes) {
+			super(classLoader);
+			this.classes = classes;
+		}
+	}
+
 	public static void main(String[] args) throws ClassNotFoundException {
 		System.out.println(loadClass("int[]"));
 		System.out.println(loadClass("java.lang.String[]"));
@@ -0,0 +1,669 @@
+package org.bugapi.bugset.base.util.clazz;
+
+import org.bugapi.bugset.base.constant.FileType;
+import org.bugapi.bugset.base.constant.SymbolType;
+import org.bugapi.bugset.base.util.string.StringUtil;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * classpath根路径（目录或jar包）的类索引
+ * <pre>
+ * 1、索引中保存根路径下每个类的头信息，提供注解-类、父类型-子类型、包-类三种查询
+ * 2、索引的来源依次为：内存缓存、jar包中构建时写入的{@link #INDEX_RESOURCE}、本地缓存目录中的索引文件，都没有时扫描根路径构建
+ * 3、本地缓存的索引按根路径的指纹（jar包：路径+大小+修改时间；目录：每个class文件的路径+大小+修改时间）失效，
+ *    只有指纹变化的根路径才重新扫描
+ * 4、目录的指纹需要读取每个class文件的属性，内存中的索引在检查间隔内不再计算指纹，
+ *    间隔默认为1秒，可以通过系统属性 bugset.scan.index.check.interval（毫秒）修改，小于等于0时每次都检查
+ * 5、本地缓存目录默认为 ${java.io.tmpdir}/bugset-scan-index-${user.name}，可以通过系统属性 bugset.scan.index.dir 修改；
+ *    目录不存在时创建为只有当前用户可以访问，目录不属于当前用户或者其他用户可以写入时（可能被篡改）不使用本地缓存
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class ClassScanIndex {
+
+	/**
+	 * jar包中构建时写入的索引资源
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/bugset-scan.idx";
+
+	/**
+	 * 本地缓存目录的系统属性
+	 */
+	public static final String INDEX_DIR_PROPERTY = "bugset.scan.index.dir";
+
+	/**
+	 * 内存中的索引的检查间隔（毫秒）的系统属性
+	 */
+	public static final String CHECK_INTERVAL_PROPERTY = "bugset.scan.index.check.interval";
+
+	/**
+	 * 默认的检查间隔（毫秒）
+	 */
+	private static final long DEFAULT_CHECK_INTERVAL = 1000L;
+
+	/**
+	 * 索引文件的第一行（格式版本）【版本2起只包含路径与类名一致的class文件，旧版本的索引重新扫描】
+	 */
+	private static final String FORMAT_HEADER = "# bugset-scan-index 2";
+
+	/**
+	 * 指纹行的前缀
+	 */
+	private static final String FINGERPRINT_PREFIX = "fingerprint=";
+
+	/**
+	 * 根路径行的前缀
+	 */
+	private static final String ROOT_PREFIX = "root=";
+
+	/**
+	 * 字段之间的分隔符
+	 */
+	private static final char FIELD_SEPARATOR = '\t';
+
+	/**
+	 * 多个类名之间的分隔符
+	 */
+	private static final String NAME_SEPARATOR = ",";
+
+	/**
+	 * 没有父类时的占位符
+	 */
+	private static final String NONE = "-";
+
+	/**
+	 * 根路径与索引的内存缓存
+	 */
+	private static final ConcurrentMap<String, ClassScanIndex> INDEX_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 根路径（绝对路径）
+	 */
+	private final String root;
+
+	/**
+	 * 根路径的指纹，从构建时写入的索引读取时为null
+	 */
+	private final String fingerprint;
+
+	/**
+	 * 类名与头信息的映射
+	 */
+	private final Map<String, ClassFileHeader> headers;
+
+	/**
+	 * 注解类名与类名的映射
+	 */
+	private final Map<String, List<String>> annotatedClasses = new HashMap<>();
+
+	/**
+	 * 父类、接口名与直接子类型名的映射
+	 */
+	private final Map<String, List<String>> subClasses = new HashMap<>();
+
+	/**
+	 * 包名与类名的映射
+	 */
+	private final Map<String, List<String>> packageClasses = new HashMap<>();
+
+	/**
+	 * 最近一次确认指纹没有变化的时间（{@link System#nanoTime()}）
+	 */
+	private volatile long checkedAt;
+
+	private ClassScanIndex(String root, String fingerprint, Map<String, ClassFileHeader> headers) {
+		this.root = root;
+		this.fingerprint = fingerprint;
+		this.headers = headers;
+		for (ClassFileHeader header : headers.values()) {
+			String className = header.getClassName();
+			for (String annotationName : header.getAnnotationNames()) {
+				annotatedClasses.computeIfAbsent(annotationName, key -> new ArrayList<>()).add(className);
+			}
+			if (null != header.getSuperClassName()) {
+				subClasses.computeIfAbsent(header.getSuperClassName(), key -> new ArrayList<>()).add(className);
+			}
+			for (String interfaceName : header.getInterfaceNames()) {
+				subClasses.computeIfAbsent(interfaceName, key -> new ArrayList<>()).add(className);
+			}
+			packageClasses.computeIfAbsent(packageOf(className), key -> new ArrayList<>()).add(className);
+		}
+	}
+
+	/**
+	 * 获取根路径的索引【指纹没有变化时直接使用缓存的索引，变化时重新扫描并写入本地缓存；内存中的索引在检查间隔内直接使用】
+	 *
+	 * @param root classpath根路径（目录或jar包）
+	 * @return ClassScanIndex 索引
+	 * @throws IOException IO异常
+	 */
+	public static ClassScanIndex forRoot(File root) throws IOException {
+		String rootPath = root.getAbsolutePath();
+		ClassScanIndex cached = INDEX_CACHE.get(rootPath);
+		long now = System.nanoTime();
+		if (null != cached && now - cached.checkedAt < checkInterval()) {
+			return cached;
+		}
+		String fingerprint = fingerprint(root);
+		if (null != cached && fingerprint.equals(cached.fingerprint)) {
+			cached.checkedAt = now;
+			return cached;
+		}
+		ClassScanIndex index = root.isFile() ? readEmbedded(root, fingerprint) : null;
+		if (null == index) {
+			index = load(root, fingerprint);
+		}
+		index.checkedAt = now;
+		INDEX_CACHE.put(rootPath, index);
+		return index;
+	}
+
+	/**
+	 * 扫描根路径并写出索引【用于构建时把索引写入jar包的{@link #INDEX_RESOURCE}】
+	 *
+	 * @param root classpath根路径（目录或jar包）
+	 * @param out  输出流（不会关闭）
+	 * @throws IOException IO异常
+	 */
+	public static void write(File root, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		write(build(root), root.getAbsolutePath(), null, writer);
+		writer.flush();
+	}
+
+	/**
+	 * 清空内存中缓存的索引
+	 */
+	public static void clearCache() {
+		INDEX_CACHE.clear();
+	}
+
+	/**
+	 * 获取根路径
+	 *
+	 * @return String 根路径
+	 */
+	public String getRoot() {
+		return root;
+	}
+
+	/**
+	 * 获取类的头信息
+	 *
+	 * @param className 类名
+	 * @return 头信息，不在该根路径下返回null
+	 */
+	public ClassFileHeader getHeader(String className) {
+		return headers.get(className);
+	}
+
+	/**
+	 * 获取包（包括子包）下所有类的头信息
+	 *
+	 * @param packageName 包名，也可以是类名
+	 * @return List 头信息
+	 */
+	public List<ClassFileHeader> getHeaders(String packageName) {
+		List<ClassFileHeader> result = new ArrayList<>();
+		String prefix = packageName + SymbolType.DOT;
+		packageClasses.forEach((name, classNames) -> {
+			if (name.equals(packageName) || name.startsWith(prefix)) {
+				for (String className : classNames) {
+					result.add(headers.get(className));
+				}
+			}
+		});
+		ClassFileHeader header = headers.get(packageName);
+		if (null != header) {
+			result.add(header);
+		}
+		return result;
+	}
+
+	/**
+	 * 获取直接标注了指定注解的类名
+	 *
+	 * @param annotationName 注解类名
+	 * @return List 类名
+	 */
+	public List<String> getAnnotatedClassNames(String annotationName) {
+		return Collections.unmodifiableList(annotatedClasses.getOrDefault(annotationName, Collections.emptyList()));
+	}
+
+	/**
+	 * 获取直接继承指定父类或者直接实现指定接口的类名
+	 *
+	 * @param superName 父类或接口名
+	 * @return List 类名
+	 */
+	public List<String> getSubClassNames(String superName) {
+		return Collections.unmodifiableList(subClasses.getOrDefault(superName, Collections.emptyList()));
+	}
+
+	/**
+	 * 获取指定包（不包括子包）下的类名
+	 *
+	 * @param packageName 包名
+	 * @return List 类名
+	 */
+	public List<String> getPackageClassNames(String packageName) {
+		return Collections.unmodifiableList(packageClasses.getOrDefault(packageName, Collections.emptyList()));
+	}
+
+	/**
+	 * 类的个数
+	 *
+	 * @return int 类的个数
+	 */
+	public int size() {
+		return headers.size();
+	}
+
+	@Override
+	public String toString() {
+		return "ClassScanIndex[" + root + ", " + headers.size() + " classes]";
+	}
+
+	/**
+	 * 从本地缓存中读取索引，不存在或者指纹不一致时重新扫描并写入本地缓存
+	 *
+	 * @param root        根路径
+	 * @param fingerprint 根路径的指纹
+	 * @return ClassScanIndex 索引
+	 * @throws IOException IO异常
+	 */
+	private static ClassScanIndex load(File root, String fingerprint) throws IOException {
+		String rootPath = root.getAbsolutePath();
+		Path indexFile = indexFile(rootPath);
+		ClassScanIndex index = null;
+		if (null != indexFile && Files.isRegularFile(indexFile, LinkOption.NOFOLLOW_LINKS)) {
+			try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+				index = read(reader);
+			} catch (IOException | RuntimeException e) {
+				// 索引文件损坏，重新扫描
+				index = null;
+			}
+		}
+		if (null == index || !rootPath.equals(index.root) || !fingerprint.equals(index.fingerprint)) {
+			index = new ClassScanIndex(rootPath, fingerprint, build(root));
+			if (null != indexFile) {
+				store(index, indexFile);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * 读取jar包中构建时写入的索引
+	 *
+	 * @param jar         jar包
+	 * @param fingerprint jar包的指纹
+	 * @return 索引，不存在或者格式不正确（例如旧版本）返回null
+	 * @throws IOException IO异常
+	 */
+	private static ClassScanIndex readEmbedded(File jar, String fingerprint) throws IOException {
+		try (JarFile jarFile = new JarFile(jar)) {
+			JarEntry entry = jarFile.getJarEntry(INDEX_RESOURCE);
+			if (null == entry) {
+				return null;
+			}
+			try (InputStream in = jarFile.getInputStream(entry)) {
+				ClassScanIndex index;
+				try {
+					index = read(new InputStreamReader(in, StandardCharsets.UTF_8));
+				} catch (IOException | RuntimeException e) {
+					// 格式不正确，重新扫描jar包
+					return null;
+				}
+				return new ClassScanIndex(jar.getAbsolutePath(), fingerprint, index.headers);
+			}
+		}
+	}
+
+	/**
+	 * 将索引写入本地缓存【先写临时文件再替换，并发写入时不会读到不完整的文件；临时文件只有当前用户可以读写】
+	 *
+	 * @param index     索引
+	 * @param indexFile 索引文件
+	 */
+	private static void store(ClassScanIndex index, Path indexFile) {
+		try {
+			Path temp = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+			try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				write(index.headers, index.root, index.fingerprint, writer);
+			}
+			try {
+				Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			// 本地缓存只用于加速，写入失败不影响扫描结果
+		}
+	}
+
+	/**
+	 * 扫描根路径下所有class文件的头信息【只包含路径与类名一致的class文件，
+	 * BOOT-INF/classes/、WEB-INF/classes/、META-INF/versions/N/、重定位的前缀等目录下的class文件类加载器不能按类名加载】
+	 *
+	 * @param root 根路径
+	 * @return Map 类名与头信息的映射
+	 * @throws IOException IO异常
+	 */
+	private static Map<String, ClassFileHeader> build(File root) throws IOException {
+		Map<String, ClassFileHeader> headers = new LinkedHashMap<>();
+		if (root.isDirectory()) {
+			buildDirectory(root, "", headers);
+		} else if (root.isFile()) {
+			try (JarFile jarFile = new JarFile(root)) {
+				Enumeration<JarEntry> entries = jarFile.entries();
+				while (entries.hasMoreElements()) {
+					JarEntry entry = entries.nextElement();
+					if (!entry.isDirectory() && entry.getName().endsWith(FileType.CLASS_EXT)) {
+						try (InputStream in = jarFile.getInputStream(entry)) {
+							addHeader(StringUtil.removePrefix(entry.getName(), SymbolType.SLASH), in, headers);
+						}
+					}
+				}
+			}
+		}
+		return headers;
+	}
+
+	/**
+	 * 递归扫描目录下所有class文件的头信息
+	 *
+	 * @param directory 目录
+	 * @param path      目录相对根路径的路径（以/结尾，根路径为空字符串）
+	 * @param headers   类名与头信息的映射
+	 * @throws IOException IO异常
+	 */
+	private static void buildDirectory(File directory, String path, Map<String, ClassFileHeader> headers) throws IOException {
+		File[] files = directory.listFiles();
+		if (null == files) {
+			return;
+		}
+		for (File file : files) {
+			if (file.isDirectory()) {
+				buildDirectory(file, path + file.getName() + SymbolType.SLASH, headers);
+			} else if (file.getName().endsWith(FileType.CLASS_EXT)) {
+				try (InputStream in = Files.newInputStream(file.toPath())) {
+					addHeader(path + file.getName(), in, headers);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 解析class文件的头信息并加入映射，无法解析的class文件（例如损坏的文件）和路径与类名不一致的class文件忽略
+	 *
+	 * @param path    class文件相对根路径的路径，例如：com/abc/A.class
+	 * @param in      class文件的输入流
+	 * @param headers 类名与头信息的映射
+	 */
+	private static void addHeader(String path, InputStream in, Map<String, ClassFileHeader> headers) {
+		try {
+			ClassFileHeader header = ClassFileHeader.read(in);
+			String className = header.getClassName();
+			if (path.length() == className.length() + FileType.CLASS_EXT.length()
+					&& path.startsWith(className.replace(SymbolType.DOT, SymbolType.SLASH))) {
+				headers.putIfAbsent(className, header);
+			}
+		} catch (IOException e) {
+			// 无法解析的class文件不进入索引
+		}
+	}
+
+	/**
+	 * 写出索引：第一行为格式版本，第二行为根路径，第三行为指纹，之后每行一个类【类名 访问标志 父类 接口 注解】
+	 *
+	 * @param headers     类名与头信息的映射
+	 * @param rootPath    根路径
+	 * @param fingerprint 指纹，可以为null
+	 * @param writer      输出
+	 * @throws IOException IO异常
+	 */
+	private static void write(Map<String, ClassFileHeader> headers, String rootPath, String fingerprint, Writer writer) throws IOException {
+		writer.write(FORMAT_HEADER);
+		writer.write('\n');
+		writer.write(ROOT_PREFIX);
+		writer.write(rootPath);
+		writer.write('\n');
+		writer.write(FINGERPRINT_PREFIX);
+		writer.write(null == fingerprint ? "" : fingerprint);
+		writer.write('\n');
+		for (ClassFileHeader header : headers.values()) {
+			writer.write(header.getClassName());
+			writer.write(FIELD_SEPARATOR);
+			writer.write(Integer.toString(header.getAccessFlags()));
+			writer.write(FIELD_SEPARATOR);
+			writer.write(null == header.getSuperClassName() ? NONE : header.getSuperClassName());
+			writer.write(FIELD_SEPARATOR);
+			writer.write(String.join(NAME_SEPARATOR, header.getInterfaceNames()));
+			writer.write(FIELD_SEPARATOR);
+			writer.write(String.join(NAME_SEPARATOR, header.getAnnotationNames()));
+			writer.write('\n');
+		}
+	}
+
+	/**
+	 * 读取索引
+	 *
+	 * @param reader 输入
+	 * @return ClassScanIndex 索引
+	 * @throws IOException IO异常或者格式不正确
+	 */
+	private static ClassScanIndex read(Reader reader) throws IOException {
+		BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		if (!FORMAT_HEADER.equals(lines.readLine())) {
+			throw new IOException("索引格式不正确");
+		}
+		String rootLine = lines.readLine();
+		if (null == rootLine || !rootLine.startsWith(ROOT_PREFIX)) {
+			throw new IOException("索引格式不正确");
+		}
+		String rootPath = rootLine.substring(ROOT_PREFIX.length());
+		String fingerprintLine = lines.readLine();
+		if (null == fingerprintLine || !fingerprintLine.startsWith(FINGERPRINT_PREFIX)) {
+			throw new IOException("索引格式不正确");
+		}
+		String fingerprint = fingerprintLine.substring(FINGERPRINT_PREFIX.length());
+		Map<String, ClassFileHeader> headers = new LinkedHashMap<>();
+		String line;
+		while (null != (line = lines.readLine())) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), -1);
+			if (fields.length != 5) {
+				throw new IOException("索引格式不正确：" + line);
+			}
+			headers.put(fields[0], new ClassFileHeader(Integer.parseInt(fields[1]), fields[0],
+					NONE.equals(fields[2]) ? null : fields[2], splitNames(fields[3]), splitNames(fields[4])));
+		}
+		return new ClassScanIndex(rootPath, fingerprint.isEmpty() ? null : fingerprint, headers);
+	}
+
+	/**
+	 * 拆分以逗号拼接的类名
+	 *
+	 * @param names 以逗号拼接的类名
+	 * @return String[] 类名
+	 */
+	private static String[] splitNames(String names) {
+		return names.isEmpty() ? new String[0] : names.split(NAME_SEPARATOR);
+	}
+
+	/**
+	 * 计算根路径的指纹
+	 *
+	 * @param root 根路径
+	 * @return String 指纹
+	 */
+	private static String fingerprint(File root) {
+		if (root.isFile()) {
+			return "jar:" + root.length() + ":" + root.lastModified();
+		}
+		long[] hash = {0xcbf29ce484222325L, 0L};
+		fingerprintDirectory(root, root.getAbsolutePath().length(), hash);
+		return "dir:" + hash[1] + ":" + Long.toHexString(hash[0]);
+	}
+
+	/**
+	 * 累加目录下每个class文件的路径、大小、修改时间的哈希值
+	 *
+	 * @param directory  目录
+	 * @param rootLength 根路径的长度
+	 * @param hash       哈希值与文件个数
+	 */
+	private static void fingerprintDirectory(File directory, int rootLength, long[] hash) {
+		File[] files = directory.listFiles();
+		if (null == files) {
+			return;
+		}
+		for (File file : files) {
+			if (file.isDirectory()) {
+				fingerprintDirectory(file, rootLength, hash);
+			} else if (file.getName().endsWith(FileType.CLASS_EXT)) {
+				// 文件的顺序不固定，每个文件单独哈希后相加，结果与顺序无关
+				long h = 0xcbf29ce484222325L;
+				h = fnv(h, file.getAbsolutePath().substring(rootLength).hashCode());
+				h = fnv(h, file.length());
+				h = fnv(h, file.lastModified());
+				hash[0] += h;
+				hash[1]++;
+			}
+		}
+	}
+
+	/**
+	 * FNV-1a哈希
+	 *
+	 * @param hash  当前哈希值
+	 * @param value 加入的值
+	 * @return long 哈希值
+	 */
+	private static long fnv(long hash, long value) {
+		for (int i = 0; i < 8; i++) {
+			hash ^= (value >>> (i * 8)) & 0xFF;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * 内存中的索引的检查间隔
+	 *
+	 * @return long 检查间隔（纳秒）
+	 */
+	private static long checkInterval() {
+		return TimeUnit.MILLISECONDS.toNanos(Long.getLong(CHECK_INTERVAL_PROPERTY, DEFAULT_CHECK_INTERVAL));
+	}
+
+	/**
+	 * 根路径对应的本地缓存文件
+	 *
+	 * @param rootPath 根路径
+	 * @return Path 索引文件，本地缓存目录不可用时返回null
+	 */
+	private static Path indexFile(String rootPath) {
+		Path directory = indexDirectory();
+		if (null == directory) {
+			return null;
+		}
+		long h = fnv(0xcbf29ce484222325L, rootPath.hashCode());
+		String name = new File(rootPath).getName().replaceAll("[^A-Za-z0-9._-]", "_");
+		return directory.resolve(name + "-" + Long.toHexString(fnv(h, rootPath.length())) + ".idx");
+	}
+
+	/**
+	 * 获取本地缓存目录，不存在时创建为只有当前用户可以访问
+	 *
+	 * @return Path 本地缓存目录，目录不是当前用户私有的（可能被其他用户篡改）或者无法创建时返回null
+	 */
+	private static Path indexDirectory() {
+		String directory = System.getProperty(INDEX_DIR_PROPERTY);
+		if (null == directory || directory.isEmpty()) {
+			String user = System.getProperty("user.name", "").replaceAll("[^A-Za-z0-9._-]", "_");
+			directory = System.getProperty("java.io.tmpdir") + File.separator + "bugset-scan-index-" + user;
+		}
+		Path path = new File(directory).toPath();
+		boolean posix = path.getFileSystem().supportedFileAttributeViews().contains("posix");
+		try {
+			if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+				Files.createDirectories(path.toAbsolutePath().getParent());
+				try {
+					if (posix) {
+						Files.createDirectory(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+					} else {
+						Files.createDirectory(path);
+					}
+				} catch (FileAlreadyExistsException e) {
+					// 其他线程或进程已经创建，下面检查是否是私有的
+				}
+			}
+			if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+				return null;
+			}
+			if (posix) {
+				UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+						.lookupPrincipalByName(System.getProperty("user.name"));
+				Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+				if (!user.equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS))
+						|| permissions.contains(PosixFilePermission.GROUP_WRITE)
+						|| permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+					return null;
+				}
+			}
+			return path;
+		} catch (IOException | UnsupportedOperationException | SecurityException e) {
+			// 本地缓存只用于加速，不可用时每次扫描根路径
+			return null;
+		}
+	}
+
+	/**
+	 * 获取类所在的包名
+	 *
+	 * @param className 类名
+	 * @return String 包名，默认包返回空字符串
+	 */
+	private static String packageOf(String className) {
+		int index = className.lastIndexOf('.');
+		return index < 0 ? "" : className.substring(0, index);
+	}
+}
@@ -11,14 +11,32 @@ import org.bugapi.bugset.base.util.string.StringUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.zip.ZipException;
 
 /**
  * 类扫描器
@@ -28,7 +46,22 @@ import java.util.jar.JarFile;
 public class ClassScanerUtil{
 
 	/**
-	 * 扫描指定包路径下所有包含指定注解的类
+	 * jar协议URL中jar包和条目的分隔符
+	 */
+	private static final String JAR_SEPARATOR = "!/";
+
+	/**
+	 * 本地文件URL的前缀
+	 */
+	private static final String FILE_URL_PREFIX = "file:";
+
+	/**
+	 * 可执行jar包和war包中类目录的前缀
+	 */
+	private static final String[] NESTED_CLASSES_DIRS = {"BOOT-INF/classes/", "WEB-INF/classes/"};
+
+	/**
+	 * 扫描指定包路径下所有包含指定注解的类【先按字节码中的注解过滤，只加载满足条件的类】
 	 *
 	 * @param packageName 包路径
 	 * @param annotationClass 注解类
@@ -36,28 +69,18 @@ public class ClassScanerUtil{
 	 */
 	public static Set<Class<?>> scanPackageByAnnotation(String packageName, boolean isInitialized, Class<?
 			extends Annotation> annotationClass) throws IOException {
-		return scanPackage(packageName, isInitialized, new Filter<Class<?>>() {
-			@Override
-			public boolean accept(Class<?> clazz) {
-				return clazz.isAnnotationPresent(annotationClass);
-			}
-		});
+		return scanPackage(packageName, isInitialized, new AnnotationFilter(annotationClass));
 	}
 
 	/**
-	 * 扫描指定包路径下所有指定类或接口的子类或实现类
+	 * 扫描指定包路径下所有指定类或接口的子类或实现类【先按字节码中的父类、接口过滤，只加载满足条件的类】
 	 *
 	 * @param packageName 包路径
 	 * @param superClass 父类或接口
 	 * @return 类集合
 	 */
 	public static Set<Class<?>> scanPackageBySuper(String packageName, boolean isInitialized, Class<?> superClass) throws IOException {
-		return scanPackage(packageName, isInitialized, new Filter<Class<?>>() {
-			@Override
-			public boolean accept(Class<?> clazz) {
-				return superClass.isAssignableFrom(clazz) && !superClass.equals(clazz);
-			}
-		});
+		return scanPackage(packageName, isInitialized, new SuperClassFilter(superClass));
 	}
 
 	/**
@@ -93,35 +116,290 @@ public class ClassScanerUtil{
 		if(StringUtil.isEmpty(packageName)){
 			return classes;
 		}
+		ClassLoader classLoader = ClassLoaderUtil.getDefaultClassLoader();
 		for (URL url : ResourceUtil.getResources(packageName)) {
 			if ("jar".equals(url.getProtocol())) {
-				scanJar(packageName, UrlUtil.getJarFile(url), isInitialized, classFilter, classes);
+				scanJarUrl(packageName, url, isInitialized, classLoader, classFilter, classes);
 			} else {// 默认协议是：file
-				scanFile(packageName, new File(UrlUtil.decode(url.getFile())), null, isInitialized,
+				scanFile(packageName, new File(UrlUtil.decode(url.getFile())), null, isInitialized, classLoader,
 						classFilter, classes);
 			}
 		}
 
 		if(CollectionUtil.isEmpty(classes)) {
-			scanJavaClassPaths(packageName,isInitialized, classFilter, classes);
+			scanJavaClassPaths(packageName,isInitialized, classLoader, classFilter, classes);
 		}
 
 		return Collections.unmodifiableSet(classes);
 	}
 
+	/**
+	 * 并行扫描指定包路径下所有包含指定注解的类
+	 *
+	 * @param packageName 包路径
+	 * @param annotationClass 注解类
+	 * @return 类集合
+	 */
+	public static Set<Class<?>> scanPackageByAnnotationParallel(String packageName, boolean isInitialized, Class<?
+			extends Annotation> annotationClass) throws IOException {
+		return scanParallel(packageName, isInitialized, new AnnotationFilter(annotationClass), null, null);
+	}
+
+	/**
+	 * 并行扫描指定包路径下所有指定类或接口的子类或实现类
+	 *
+	 * @param packageName 包路径
+	 * @param superClass 父类或接口
+	 * @return 类集合
+	 */
+	public static Set<Class<?>> scanPackageBySuperParallel(String packageName, boolean isInitialized, Class<?> superClass) throws IOException {
+		return scanParallel(packageName, isInitialized, new SuperClassFilter(superClass), null, null);
+	}
+
+	/**
+	 * 并行扫描该包路径下所有class文件
+	 *
+	 * @param packageName 包路径 com | com. | com.abs | com.abs.
+	 * @return 类集合
+	 */
+	public static Set<Class<?>> scanPackageParallel(String packageName) throws IOException {
+		return scanParallel(packageName, false, null, null, null);
+	}
+
+	/**
+	 * 并行扫描包路径下满足class过滤器条件的所有class文件【与{@link #scan}的结果一致】
+	 * 每个classpath根路径（目录或jar包）是一个fork-join任务，目录下的子目录和jar包继续拆分成子任务，
+	 * 扫描结果汇总到并发的集合中，打开的jar包在扫描后关闭
+	 * 类加载器在调用线程中取得后传给每个任务；工作线程中只加载不初始化类（避免类的初始化在多个线程中互相等待），
+	 * 需要初始化时扫描结束后在调用线程中初始化
+	 *
+	 * @param packageName    包路径
+	 * @param isInitialized  是否初始化类
+	 * @param classFilter    class过滤器，为null时不过滤
+	 * @param pool           fork-join线程池，为null时使用公共线程池
+	 * @param timingConsumer 每个根路径的扫描耗时的消费函数（在调用线程中按根路径的顺序调用），可以为null
+	 * @return 类集合
+	 * @throws IOException IO异常
+	 */
+	public static Set<Class<?>> scanParallel(String packageName, boolean isInitialized, Filter<Class<?>> classFilter,
+											 ForkJoinPool pool, Consumer<RootTiming> timingConsumer) throws IOException {
+		if (StringUtil.isEmpty(packageName)) {
+			return new HashSet<>();
+		}
+		ForkJoinPool executor = null == pool ? ForkJoinPool.commonPool() : pool;
+		ClassLoader classLoader = ClassLoaderUtil.getDefaultClassLoader();
+		if (classFilter instanceof BytecodeFilter) {
+			((BytecodeFilter) classFilter).classLoader = classLoader;
+		}
+		Set<Class<?>> classes = ConcurrentHashMap.newKeySet();
+		List<RootTask> roots = new ArrayList<>();
+		for (URL url : ResourceUtil.getResources(packageName)) {
+			if ("jar".equals(url.getProtocol())) {
+				roots.add(new RootTask(url.toString(), null, url, packageName, classLoader, classFilter));
+			} else {
+				roots.add(new RootTask(url.toString(), new File(UrlUtil.decode(url.getFile())), null, packageName,
+						classLoader, classFilter));
+			}
+		}
+		runRoots(executor, roots, classes, timingConsumer);
+
+		if (classes.isEmpty()) {
+			roots.clear();
+			for (String classPath : ClassUtil.getJavaClassPaths()) {
+				classPath = UrlUtil.decode(classPath, CharsetUtil.defaultCharsetName());
+				roots.add(new RootTask(classPath, new File(classPath), null, packageName, classLoader, classFilter));
+			}
+			runRoots(executor, roots, classes, timingConsumer);
+		}
+		if (isInitialized) {
+			for (Class<?> clazz : classes) {
+				loadClass(clazz.getName(), true, classLoader);
+			}
+		}
+		return Collections.unmodifiableSet(classes);
+	}
+
+	/**
+	 * 通过类索引扫描指定包路径下所有包含指定注解的类
+	 *
+	 * @param packageName 包路径
+	 * @param annotationClass 注解类
+	 * @return 类集合
+	 * @see ClassScanIndex
+	 */
+	public static Set<Class<?>> scanPackageByAnnotationIndexed(String packageName, boolean isInitialized, Class<?
+			extends Annotation> annotationClass) throws IOException {
+		return scanIndexed(packageName, isInitialized, new AnnotationFilter(annotationClass));
+	}
+
+	/**
+	 * 通过类索引扫描指定包路径下所有指定类或接口的子类或实现类
+	 *
+	 * @param packageName 包路径
+	 * @param superClass 父类或接口
+	 * @return 类集合
+	 * @see ClassScanIndex
+	 */
+	public static Set<Class<?>> scanPackageBySuperIndexed(String packageName, boolean isInitialized, Class<?> superClass) throws IOException {
+		return scanIndexed(packageName, isInitialized, new SuperClassFilter(superClass));
+	}
+
+	/**
+	 * 通过类索引扫描该包路径下所有class文件
+	 *
+	 * @param packageName 包路径 com | com. | com.abs | com.abs.
+	 * @return 类集合
+	 * @see ClassScanIndex
+	 */
+	public static Set<Class<?>> scanPackageIndexed(String packageName) throws IOException {
+		return scanIndexed(packageName, false, null);
+	}
+
+	/**
+	 * 通过每个根路径（目录或jar包）的类索引扫描包路径下满足class过滤器条件的类
+	 * 根路径与{@link #scan}一致，从类加载器中包含该包的资源得到，找不到时使用java.class.path；
+	 * 不能建立索引的资源（例如嵌套的jar包）按{@link #scan}的方式扫描。
+	 * 索引没有变化的根路径不再读取class文件，只加载按索引中的头信息过滤后的类
+	 *
+	 * @param packageName   包路径
+	 * @param isInitialized 是否初始化类
+	 * @param classFilter   class过滤器，为null时不过滤
+	 * @return 类集合
+	 * @throws IOException IO异常
+	 */
+	public static Set<Class<?>> scanIndexed(String packageName, boolean isInitialized, Filter<Class<?>> classFilter) throws IOException {
+		Set<Class<?>> classes = new HashSet<>();
+		if (StringUtil.isEmpty(packageName)) {
+			return classes;
+		}
+		String name = packageName.endsWith(SymbolType.DOT) ? packageName.substring(0, packageName.length() - 1) : packageName;
+		ClassLoader classLoader = ClassLoaderUtil.getDefaultClassLoader();
+		Set<File> roots = new LinkedHashSet<>();
+		List<URL> unindexed = new ArrayList<>();
+		for (URL url : ResourceUtil.getResources(packageName)) {
+			File root = indexRoot(name, url);
+			if (null != root) {
+				roots.add(root);
+			} else {
+				unindexed.add(url);
+			}
+		}
+		if (roots.isEmpty() && unindexed.isEmpty()) {
+			for (String classPath : ClassUtil.getJavaClassPaths()) {
+				File root = new File(UrlUtil.decode(classPath, CharsetUtil.defaultCharsetName())).getAbsoluteFile();
+				if (root.isDirectory() || (root.isFile() && root.getName().endsWith(FileType.JAR_FILE_EXT))) {
+					roots.add(root);
+				}
+			}
+		}
+		List<ClassScanIndex> indexes = new ArrayList<>();
+		for (File root : roots) {
+			indexes.add(ClassScanIndex.forRoot(root));
+		}
+		BytecodeFilter bytecodeFilter = classFilter instanceof BytecodeFilter ? (BytecodeFilter) classFilter : null;
+		if (null != bytecodeFilter) {
+			bytecodeFilter.indexes = indexes;
+			bytecodeFilter.classLoader = classLoader;
+		}
+		for (URL url : unindexed) {
+			scanJarUrl(packageName, url, isInitialized, classLoader, classFilter, classes);
+		}
+		for (ClassScanIndex index : indexes) {
+			for (ClassFileHeader header : index.getHeaders(name)) {
+				// 索引中的根路径可能来自java.class.path，类加载器不一定能加载
+				String resource = header.getClassName().replace(SymbolType.DOT, SymbolType.SLASH) + FileType.CLASS_EXT;
+				if ((null == bytecodeFilter || bytecodeFilter.accept(header)) && isResolvable(classLoader, resource)) {
+					addIfAccept(loadClass(header.getClassName(), isInitialized, classLoader), classFilter, classes);
+				}
+			}
+		}
+		return Collections.unmodifiableSet(classes);
+	}
+
+	/**
+	 * 类加载器中包含该包的资源所在的根路径
+	 *
+	 * @param packageName 包名（结尾没有.）
+	 * @param url         包的资源
+	 * @return File 根路径（目录或者本地的jar包），不能建立索引时（例如嵌套的jar包、jar包中的类目录）返回null
+	 * @throws IOException 解码URL异常
+	 */
+	private static File indexRoot(String packageName, URL url) throws IOException {
+		String path = UrlUtil.decode(url.getFile());
+		if ("jar".equals(url.getProtocol())) {
+			int separator = path.indexOf(JAR_SEPARATOR);
+			if (!path.startsWith(FILE_URL_PREFIX) || separator < 0 || path.indexOf(JAR_SEPARATOR, separator + 1) >= 0
+					|| !StringUtil.removePrefix(path.substring(separator + JAR_SEPARATOR.length()), SymbolType.SLASH)
+					.startsWith(packageName.replace(SymbolType.DOT, SymbolType.SLASH))) {
+				return null;
+			}
+			return new File(path.substring(FILE_URL_PREFIX.length(), separator)).getAbsoluteFile();
+		}
+		File directory = new File(path);
+		if (!directory.isDirectory()) {
+			return null;
+		}
+		// 包的目录去掉包路径即为根路径
+		File root = directory.getAbsoluteFile();
+		for (int i = packageName.split("\\.").length; i > 0 && null != root; i--) {
+			root = root.getParentFile();
+		}
+		return root;
+	}
+
+	/**
+	 * 在线程池中执行所有根路径的扫描任务，并汇总结果
+	 *
+	 * @param executor       线程池
+	 * @param roots          根路径的扫描任务
+	 * @param classes        扫描结果
+	 * @param timingConsumer 扫描耗时的消费函数
+	 * @throws IOException IO异常
+	 */
+	private static void runRoots(ForkJoinPool executor, List<RootTask> roots, Set<Class<?>> classes,
+								 Consumer<RootTiming> timingConsumer) throws IOException {
+		if (roots.isEmpty()) {
+			return;
+		}
+		try {
+			executor.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(roots)));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		for (RootTask root : roots) {
+			classes.addAll(root.classes);
+			if (null != timingConsumer) {
+				timingConsumer.accept(new RootTiming(root.root, root.classes.size(), root.elapsedNanos));
+			}
+		}
+	}
+
+	/**
+	 * 打开jar协议的URL对应的jar包【不使用URL连接的缓存，调用方负责关闭】
+	 *
+	 * @param url jar协议的URL
+	 * @return JarFile jar包
+	 * @throws IOException IO异常
+	 */
+	private static JarFile openJarFile(URL url) throws IOException {
+		JarURLConnection connection = (JarURLConnection) url.openConnection();
+		connection.setUseCaches(false);
+		return connection.getJarFile();
+	}
+
 	/**
 	 * 扫描Java指定的ClassPath路径
 	 *
 	 * @return 扫描到的类
 	 */
-	private static void scanJavaClassPaths(String packageName,boolean isInitialized, Filter<Class<?>> classFilter,
-									Set<Class<?>> classes) throws IOException {
+	private static void scanJavaClassPaths(String packageName,boolean isInitialized, ClassLoader classLoader,
+									Filter<Class<?>> classFilter, Set<Class<?>> classes) throws IOException {
 		final String[] javaClassPaths = ClassUtil.getJavaClassPaths();
 		for (String classPath : javaClassPaths) {
 			// bug修复，由于路径中空格和中文导致的Jar找不到
 			classPath = UrlUtil.decode(classPath, CharsetUtil.defaultCharsetName());
 
-			scanFile(packageName, new File(classPath), null, isInitialized, classFilter, classes);
+			scanFile(packageName, new File(classPath), null, isInitialized, classLoader, classFilter, classes);
 		}
 	}
 
@@ -134,7 +412,7 @@ public class ClassScanerUtil{
 	 * @param file 文件或目录
 	 * @param rootDir 包名对应classpath绝对路径
 	 */
-	private static void scanFile(String packageName, File file, String rootDir, boolean isInitialized,
+	private static void scanFile(String packageName, File file, String rootDir, boolean isInitialized, ClassLoader classLoader,
 								 Filter<Class<?>> classFilter, Set<Class<?>> classes) throws IOException {
 		if (file.isFile()) {
 			String fileName = file.getAbsolutePath();
@@ -144,9 +422,10 @@ public class ClassScanerUtil{
 						.substring(rootDir.length(), fileName.length() - 6)
 						.replace(File.separator, SymbolType.DOT);
 				//加入满足条件的类
-				addIfAccept(packageName, className, isInitialized, classFilter, classes);
+				addIfAccept(packageName, className, () -> Files.newInputStream(file.toPath()), isInitialized, classLoader,
+						classFilter, classes);
 			} else if (fileName.endsWith(FileType.JAR_FILE_EXT)) {
-				scanJar(packageName, new JarFile(file), isInitialized, classFilter, classes);
+				scanJarFile(packageName, file, isInitialized, classLoader, classFilter, classes);
 			}
 		} else if (file.isDirectory()) {
 			File[] files = file.listFiles();
@@ -155,19 +434,134 @@ public class ClassScanerUtil{
 			}
 			for (File subFile : files) {
 				scanFile(packageName, subFile, (null == rootDir) ? subPathBeforePackage(packageName, file) : rootDir,
-						isInitialized
-						, classFilter, classes);
+						isInitialized, classLoader, classFilter, classes);
 			}
 		}
 	}
 
+	/**
+	 * 扫描jar协议的URL对应的jar包
+	 * 本地文件中的jar包按内存映射读取，并进入URL中的嵌套jar包，例如：jar:file:/app.jar!/BOOT-INF/lib/a.jar!/com/abc
+	 * 其他情况或者不支持的zip格式通过URL连接读取
+	 *
+	 * @param url jar协议的URL
+	 */
+	private static void scanJarUrl(String packageName, URL url, boolean isInitialized, ClassLoader classLoader,
+								   Filter<Class<?>> classFilter, Set<Class<?>> classes) throws IOException {
+		String path = UrlUtil.decode(url.getFile());
+		int separator = path.indexOf(JAR_SEPARATOR);
+		if (path.startsWith(FILE_URL_PREFIX) && separator > 0) {
+			ZipArchive archive = openArchive(new File(path.substring(FILE_URL_PREFIX.length(), separator)));
+			if (null != archive) {
+				int start = separator + JAR_SEPARATOR.length();
+				int next;
+				while ((next = path.indexOf(JAR_SEPARATOR, start)) > 0) {
+					ZipArchive.Entry entry = archive.getEntry(path.substring(start, next));
+					if (null == entry || !entry.getName().endsWith(FileType.JAR_FILE_EXT)) {
+						break;
+					}
+					archive = archive.openNested(entry);
+					start = next + JAR_SEPARATOR.length();
+				}
+				// 类加载器对每个包含该包的jar包都会返回一个URL，这里不再进入其他嵌套的jar包
+				scanArchive(packageName, archive, false, isInitialized, classLoader, classFilter, classes);
+				return;
+			}
+		}
+		try (JarFile jar = openJarFile(url)) {
+			scanJar(packageName, jar, false, isInitialized, classLoader, classFilter, classes);
+		}
+	}
+
+	/**
+	 * 扫描jar包文件【按内存映射读取并进入嵌套的jar包，不支持的zip格式通过JarFile读取】
+	 *
+	 * @param file jar包文件
+	 */
+	private static void scanJarFile(String packageName, File file, boolean isInitialized, ClassLoader classLoader,
+									Filter<Class<?>> classFilter, Set<Class<?>> classes) throws IOException {
+		ZipArchive archive = openArchive(file);
+		if (null != archive) {
+			scanArchive(packageName, archive, true, isInitialized, classLoader, classFilter, classes);
+			return;
+		}
+		try (JarFile jar = new JarFile(file)) {
+			scanJar(packageName, jar, true, isInitialized, classLoader, classFilter, classes);
+		}
+	}
+
+	/**
+	 * 以内存映射的方式打开jar包
+	 *
+	 * @param file jar包文件
+	 * @return ZipArchive，zip64格式或者超过2G等不支持的情况返回null
+	 * @throws IOException IO异常
+	 */
+	private static ZipArchive openArchive(File file) throws IOException {
+		try {
+			return ZipArchive.open(file);
+		} catch (ZipException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 扫描内存映射的jar包
+	 * Spring Boot和war包的类目录（BOOT-INF/classes/、WEB-INF/classes/）下的类去掉目录前缀作为类名
+	 * 去掉了目录前缀的类，以及不是通过类加载器的URL找到的jar包（可能是嵌套的jar包或者目录中的jar包）中的类，
+	 * 只有类加载器能找到对应的资源时才加载【普通的类加载器不能加载这些类，加载会失败】
+	 *
+	 * @param archive jar包
+	 * @param nested  是否进入嵌套的jar包，同时表示jar包不是通过类加载器的URL找到的
+	 */
+	private static void scanArchive(String packageName, ZipArchive archive, boolean nested, boolean isInitialized,
+									ClassLoader classLoader, Filter<Class<?>> classFilter, Set<Class<?>> classes) throws IOException {
+		String packagePath = packageName.replace(SymbolType.DOT, SymbolType.SLASH);
+		for (ZipArchive.Entry entry : archive.getEntries()) {
+			if (entry.isDirectory()) {
+				continue;
+			}
+			String name = StringUtil.removePrefix(entry.getName(), SymbolType.SLASH);
+			if (name.endsWith(FileType.CLASS_EXT)) {
+				boolean stripped = false;
+				for (String classesDir : NESTED_CLASSES_DIRS) {
+					if (name.startsWith(classesDir)) {
+						name = name.substring(classesDir.length());
+						stripped = true;
+						break;
+					}
+				}
+				if (name.startsWith(packagePath) && (!(nested || stripped) || isResolvable(classLoader, name))) {
+					String className = name
+							.substring(0, name.length() - 6)
+							.replace(SymbolType.SLASH, SymbolType.DOT);
+					loadIfAccept(className, () -> archive.getInputStream(entry), isInitialized, classLoader, classFilter, classes);
+				}
+			} else if (nested && name.endsWith(FileType.JAR_FILE_EXT)) {
+				scanArchive(packageName, archive.openNested(entry), true, isInitialized, classLoader, classFilter, classes);
+			}
+		}
+	}
+
+	/**
+	 * 类加载器能否找到class文件对应的资源
+	 *
+	 * @param classLoader 类加载器
+	 * @param resource    class文件的资源路径，例如：com/abc/A.class
+	 * @return 【true：能找到】
+	 */
+	private static boolean isResolvable(ClassLoader classLoader, String resource) {
+		return null == classLoader ? null != ClassLoader.getSystemResource(resource) : null != classLoader.getResource(resource);
+	}
+
 	/**
 	 * 扫描jar包
 	 *
-	 * @param jar jar包
+	 * @param jar   jar包
+	 * @param probe 是否只加载类加载器能找到对应资源的类（jar包不是通过类加载器的URL找到时为true）
 	 */
-	private static void scanJar(String packageName, JarFile jar, boolean isInitialized, Filter<Class<?>> classFilter,
-								Set<Class<?>> classes) {
+	private static void scanJar(String packageName, JarFile jar, boolean probe, boolean isInitialized, ClassLoader classLoader,
+								Filter<Class<?>> classFilter, Set<Class<?>> classes) {
 		String name;
 		Enumeration<JarEntry> entries = jar.entries();
 		JarEntry entry = null;
@@ -177,11 +571,12 @@ public class ClassScanerUtil{
 			entry = entries.nextElement();
 			name = StringUtil.removePrefix(entry.getName(), SymbolType.SLASH);
 			if (name.startsWith(packagePath)) {
-				if (name.endsWith(FileType.CLASS_EXT) && !entry.isDirectory()) {
+				if (name.endsWith(FileType.CLASS_EXT) && !entry.isDirectory() && (!probe || isResolvable(classLoader, name))) {
 					final String className = name
 							.substring(0, name.length() - 6)
 							.replace(SymbolType.SLASH, SymbolType.DOT);
-					addIfAccept(loadClass(className, isInitialized), classFilter, classes);
+					final JarEntry classEntry = entry;
+					loadIfAccept(className, () -> jar.getInputStream(classEntry), isInitialized, classLoader, classFilter, classes);
 				}
 			}
 		}
@@ -190,13 +585,14 @@ public class ClassScanerUtil{
 	/**
 	 * 加载类
 	 *
-	 * @param className 类名
+	 * @param className   类名
+	 * @param classLoader 类加载器【扫描开始时在调用线程中取得，fork-join的工作线程中取得的上下文类加载器可能不是调用方的】
 	 * @return 加载的类
 	 */
-	private static Class<?> loadClass(String className, boolean isInitialized) {
+	private static Class<?> loadClass(String className, boolean isInitialized, ClassLoader classLoader) {
 		Class<?> clazz = null;
 		try {
-			clazz = Class.forName(className, isInitialized, ClassLoaderUtil.getDefaultClassLoader());
+			clazz = Class.forName(className, isInitialized, classLoader);
 		} catch (NoClassDefFoundError e) {
 			// 由于依赖库导致的类无法加载，直接跳过此类
 		} catch (UnsupportedClassVersionError e) {
@@ -212,7 +608,7 @@ public class ClassScanerUtil{
 	 *
 	 * @return 是否接受
 	 */
-	private static void addIfAccept(String packageName, String className, boolean isInitialized,
+	private static void addIfAccept(String packageName, String className, ClassBytes classBytes, boolean isInitialized, ClassLoader classLoader,
 									Filter<Class<?>> classFilter, Set<Class<?>> classes) {
 		if(StringUtil.isBlank(className)) {
 			return;
@@ -222,16 +618,31 @@ public class ClassScanerUtil{
 		if(classLen == packageLen) {
 			//类名和包名长度一致，用户可能传入的包名是类名
 			if(className.equals(packageName)) {
-				addIfAccept(loadClass(className, isInitialized), classFilter, classes);
+				loadIfAccept(className, classBytes, isInitialized, classLoader, classFilter, classes);
 			}
 		} else if(classLen > packageLen){
 			//检查类名是否以指定包名为前缀，包名后加.（避免类似于cn.hutool.A和cn.hutool.ATest这类类名引起的歧义）
 			if(className.startsWith(StringUtil.addSuffixIfNot(packageName, SymbolType.DOT))) {
-				addIfAccept(loadClass(className, isInitialized), classFilter, classes);
+				loadIfAccept(className, classBytes, isInitialized, classLoader, classFilter, classes);
 			}
 		}
 	}
 
+	/**
+	 * 过滤器支持按字节码过滤时，先读取class文件的头信息过滤，满足条件后才加载类
+	 *
+	 * @param className   类名
+	 * @param classBytes  class文件的字节来源
+	 * @param classFilter class过滤器
+	 */
+	private static void loadIfAccept(String className, ClassBytes classBytes, boolean isInitialized, ClassLoader classLoader,
+									 Filter<Class<?>> classFilter, Set<Class<?>> classes) {
+		if (classFilter instanceof BytecodeFilter && !((BytecodeFilter) classFilter).accept(classBytes)) {
+			return;
+		}
+		addIfAccept(loadClass(className, isInitialized, classLoader), classFilter, classes);
+	}
+
 	/**
 	 * 通过过滤器，是否满足接受此类的条件
 	 *
@@ -262,6 +673,384 @@ public class ClassScanerUtil{
 		return StringUtil.addSuffixIfNot(filePath, File.separator);
 	}
 
+	/**
+	 * 一个classpath根路径的扫描任务，记录扫描到的类和耗时
+	 */
+	private static final class RootTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * 根路径的描述（URL或者classpath路径）
+		 */
+		private final String root;
+		/**
+		 * 根路径对应的文件或目录，jar协议的URL时为null
+		 */
+		private final File file;
+		/**
+		 * jar协议的URL
+		 */
+		private final URL jarUrl;
+		/**
+		 * 包路径
+		 */
+		private final String packageName;
+		/**
+		 * 加载类的类加载器【调用线程中取得】
+		 */
+		private final ClassLoader classLoader;
+		/**
+		 * class过滤器
+		 */
+		private final Filter<Class<?>> classFilter;
+		/**
+		 * 当前根路径下扫描到的类
+		 */
+		private final Set<Class<?>> classes = ConcurrentHashMap.newKeySet();
+		/**
+		 * 扫描耗时（纳秒）
+		 */
+		private long elapsedNanos;
+
+		private RootTask(String root, File file, URL jarUrl, String packageName, ClassLoader classLoader,
+						 Filter<Class<?>> classFilter) {
+			this.root = root;
+			this.file = file;
+			this.jarUrl = jarUrl;
+			this.packageName = packageName;
+			this.classLoader = classLoader;
+			this.classFilter = classFilter;
+		}
+
+		@Override
+		protected void compute() {
+			long start = System.nanoTime();
+			try {
+				if (null != jarUrl) {
+					scanJarUrl(packageName, jarUrl, false, classLoader, classFilter, classes);
+				} else {
+					new FileTask(this, file, null).compute();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				elapsedNanos = System.nanoTime() - start;
+			}
+		}
+	}
+
+	/**
+	 * 文件或目录的扫描任务【子目录和jar包拆分成子任务，class文件在当前任务中处理】
+	 */
+	private static final class FileTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * 所属的根路径任务
+		 */
+		private final RootTask rootTask;
+		/**
+		 * 文件或目录
+		 */
+		private final File file;
+		/**
+		 * 包名对应classpath绝对路径
+		 */
+		private final String rootDir;
+
+		private FileTask(RootTask rootTask, File file, String rootDir) {
+			this.rootTask = rootTask;
+			this.file = file;
+			this.rootDir = rootDir;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if (!file.isDirectory()) {
+					scanFile(rootTask.packageName, file, rootDir, false, rootTask.classLoader, rootTask.classFilter,
+							rootTask.classes);
+					return;
+				}
+				File[] files = file.listFiles();
+				if (ArrayUtil.isEmpty(files)) {
+					return;
+				}
+				String subRootDir = (null == rootDir) ? subPathBeforePackage(rootTask.packageName, file) : rootDir;
+				List<FileTask> subTasks = new ArrayList<>();
+				for (File subFile : files) {
+					if (subFile.isDirectory() || subFile.getName().endsWith(FileType.JAR_FILE_EXT)) {
+						subTasks.add(new FileTask(rootTask, subFile, subRootDir));
+					} else {
+						scanFile(rootTask.packageName, subFile, subRootDir, false, rootTask.classLoader,
+								rootTask.classFilter, rootTask.classes);
+					}
+				}
+				invokeAll(subTasks);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * 一个classpath根路径的扫描耗时
+	 */
+	public static final class RootTiming {
+		/**
+		 * 根路径（URL或者classpath路径）
+		 */
+		private final String root;
+		/**
+		 * 扫描到的类的个数
+		 */
+		private final int classCount;
+		/**
+		 * 扫描耗时（纳秒）
+		 */
+		private final long elapsedNanos;
+
+		private RootTiming(String root, int classCount, long elapsedNanos) {
+			this.root = root;
+			this.classCount = classCount;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		public String getRoot() {
+			return root;
+		}
+
+		public int getClassCount() {
+			return classCount;
+		}
+
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		public long getElapsedMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+		}
+
+		@Override
+		public String toString() {
+			return root + " : " + classCount + " classes, " + getElapsedMillis() + " ms";
+		}
+	}
+
+	/**
+	 * class文件的字节来源
+	 */
+	@FunctionalInterface
+	private interface ClassBytes {
+		/**
+		 * 打开class文件的输入流
+		 * @return 输入流
+		 * @throws IOException IO异常
+		 */
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * 可以先按class文件的头信息过滤的过滤器【头信息的过滤只排除一定不满足条件的类，加载后仍然按类过滤】
+	 * 需要父类、接口的头信息时从类加载器的资源中读取，同一次扫描中缓存
+	 */
+	private abstract static class BytecodeFilter implements Filter<Class<?>> {
+		/**
+		 * 找不到class文件的标记
+		 */
+		private static final Object MISSING = new Object();
+		/**
+		 * Object类的类名
+		 */
+		private static final String OBJECT_CLASS_NAME = Object.class.getName();
+		/**
+		 * 类名与头信息的缓存
+		 */
+		private final ConcurrentMap<String, Object> headers = new ConcurrentHashMap<>();
+		/**
+		 * 通过类索引扫描时的索引，查找父类型的头信息时优先使用
+		 */
+		private List<ClassScanIndex> indexes = Collections.emptyList();
+		/**
+		 * 读取父类型头信息的类加载器【扫描开始时在调用线程中取得，为null时使用默认的类加载器】
+		 */
+		private ClassLoader classLoader;
+
+		/**
+		 * 按class文件的头信息判断类是否可能满足条件
+		 * @param header 头信息
+		 * @return 【false：一定不满足条件】
+		 */
+		abstract boolean accept(ClassFileHeader header);
+
+		/**
+		 * 读取class文件的头信息并判断，无法读取或解析时交给加载后的过滤
+		 * @param classBytes class文件的字节来源
+		 * @return 【false：一定不满足条件】
+		 */
+		boolean accept(ClassBytes classBytes) {
+			try (InputStream in = classBytes.open()) {
+				return accept(ClassFileHeader.read(in));
+			} catch (IOException e) {
+				return true;
+			}
+		}
+
+		/**
+		 * 从类加载器的资源中读取类的头信息
+		 * @param className 类名
+		 * @return 头信息，不存在或无法解析返回null
+		 */
+		ClassFileHeader resolve(String className) {
+			for (ClassScanIndex index : indexes) {
+				ClassFileHeader indexed = index.getHeader(className);
+				if (null != indexed) {
+					return indexed;
+				}
+			}
+			Object header = headers.get(className);
+			if (null == header) {
+				header = MISSING;
+				ClassLoader classLoader = null == this.classLoader ? ClassLoaderUtil.getDefaultClassLoader() : this.classLoader;
+				String resource = className.replace(SymbolType.DOT, SymbolType.SLASH) + FileType.CLASS_EXT;
+				try (InputStream in = null == classLoader ? null : classLoader.getResourceAsStream(resource)) {
+					if (null != in) {
+						header = ClassFileHeader.read(in);
+					}
+				} catch (IOException e) {
+					// 无法解析，按不存在处理
+				}
+				headers.putIfAbsent(className, header);
+			}
+			return header == MISSING ? null : (ClassFileHeader) header;
+		}
+
+		/**
+		 * JDK中的类不会继承或实现JDK以外的类型，查找JDK以外的父类型时可以跳过
+		 * @param className 类名
+		 * @param targetName 要查找的类型名
+		 * @return 【true：可以跳过】
+		 */
+		static boolean isJdkOnly(String className, String targetName) {
+			return OBJECT_CLASS_NAME.equals(className) || (className.startsWith("java.") && !targetName.startsWith("java."));
+		}
+	}
+
+	/**
+	 * 包含指定注解的过滤器，与{@link Class#isAnnotationPresent}一致（包括父类上@Inherited的注解）
+	 */
+	private static final class AnnotationFilter extends BytecodeFilter {
+		/**
+		 * 注解类
+		 */
+		private final Class<? extends Annotation> annotationClass;
+		/**
+		 * 注解类名
+		 */
+		private final String annotationName;
+		/**
+		 * 注解是否可以被子类继承
+		 */
+		private final boolean inherited;
+
+		private AnnotationFilter(Class<? extends Annotation> annotationClass) {
+			this.annotationClass = annotationClass;
+			this.annotationName = annotationClass.getName();
+			this.inherited = annotationClass.isAnnotationPresent(Inherited.class);
+		}
+
+		@Override
+		public boolean accept(Class<?> clazz) {
+			return clazz.isAnnotationPresent(annotationClass);
+		}
+
+		@Override
+		boolean accept(ClassFileHeader header) {
+			if (header.hasAnnotation(annotationName)) {
+				return true;
+			}
+			if (!inherited || header.isInterface()) {
+				return false;
+			}
+			// @Inherited只对父类有效
+			String superClassName = header.getSuperClassName();
+			while (null != superClassName && !isJdkOnly(superClassName, annotationName)) {
+				ClassFileHeader superHeader = resolve(superClassName);
+				if (null == superHeader || superHeader.hasAnnotation(annotationName)) {
+					return true;
+				}
+				superClassName = superHeader.getSuperClassName();
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * 指定类或接口的子类或实现类的过滤器
+	 */
+	private static final class SuperClassFilter extends BytecodeFilter {
+		/**
+		 * 父类或接口
+		 */
+		private final Class<?> superClass;
+		/**
+		 * 父类或接口的类名
+		 */
+		private final String superClassName;
+
+		private SuperClassFilter(Class<?> superClass) {
+			this.superClass = superClass;
+			this.superClassName = superClass.getName();
+		}
+
+		@Override
+		public boolean accept(Class<?> clazz) {
+			return superClass.isAssignableFrom(clazz) && !superClass.equals(clazz);
+		}
+
+		@Override
+		boolean accept(ClassFileHeader header) {
+			if (superClass == Object.class || superClass.isPrimitive() || superClass.isArray()) {
+				// 所有类都是Object的子类；基本数据类型与数组交给加载后的过滤
+				return true;
+			}
+			Deque<String> pending = new ArrayDeque<>();
+			Set<String> visited = new HashSet<>();
+			addSuperTypes(header, pending);
+			while (!pending.isEmpty()) {
+				String name = pending.poll();
+				if (superClassName.equals(name)) {
+					return true;
+				}
+				if (!visited.add(name) || isJdkOnly(name, superClassName)) {
+					continue;
+				}
+				ClassFileHeader superHeader = resolve(name);
+				if (null == superHeader) {
+					// 找不到父类型的class文件，无法判断
+					return true;
+				}
+				addSuperTypes(superHeader, pending);
+			}
+			return false;
+		}
+
+		/**
+		 * 将父类与直接实现的接口放入待检查的队列
+		 * @param header 头信息
+		 * @param pending 待检查的队列
+		 */
+		private static void addSuperTypes(ClassFileHeader header, Deque<String> pending) {
+			if (null != header.getSuperClassName()) {
+				pending.add(header.getSuperClassName());
+			}
+			Collections.addAll(pending, header.getInterfaceNames());
+		}
+	}
+
 	/**
 	 * 过滤器
 	 * @param <T> 对象类型
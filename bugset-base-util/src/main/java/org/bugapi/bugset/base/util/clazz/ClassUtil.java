@@ -5,8 +5,6 @@ import static org.bugapi.bugset.base.constant.UrlType.URL_PROTOCOL_JAR;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -17,6 +15,7 @@ import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import org.bugapi.bugset.base.util.array.ArrayUtil;
+import org.bugapi.bugset.base.util.reflect.ClassMetadata;
 
 /**
  * Class工具类
@@ -45,20 +44,8 @@ public class ClassUtil {
 		if ((null == clazz || index < 0)) {
 			return null;
 		}
-		// 获得目标类继承的父类所对应的Type对象
-		Type type = clazz.getGenericSuperclass();
-		// 如果没有实现ParameterizedType接口，即不支持泛型，直接返回null。
-		if (type instanceof ParameterizedType) {
-			// 返回表示此类型实际类型参数的Type对象的数组,数组里放的都是对应类型的Class, 如BuyerServiceBean extends DaoSupport<Buyer,Contact>就返回Buyer和Contact类型
-			// 返回表示此类型实际类型参数的Type对象的数组
-			Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
-			if (null != typeArguments && typeArguments.length > index) {
-				if (typeArguments[index] instanceof Class) {
-					return (Class<?>) typeArguments[index];
-				}
-			}
-		}
-		return null;
+		// 父类的泛型参数在类的元数据中只解析一次，如BuyerServiceBean extends DaoSupport<Buyer,Contact>就返回Buyer和Contact类型
+		return ClassMetadata.of(clazz).getSuperClassGenericsClass(index);
 	}
 
 
@@ -74,25 +61,8 @@ public class ClassUtil {
 		if ((null == clazz || iindex < 0 || pindex < 0)) {
 			return null;
 		}
-		// 获得目标类实现的接口对应的Type对象
-		Type[] interfaces = clazz.getGenericInterfaces();
-		Type type = null;
-		if (null != interfaces && interfaces.length > iindex) {
-			type = interfaces[iindex];
-		} else {
-			return null;
-		}
-		// 如果没有实现ParameterizedType接口，即不支持泛型，直接返回null。
-		if (type instanceof ParameterizedType) {
-			// 返回表示此类型实际类型参数的Type对象的数组
-			Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
-			if (null != typeArguments && typeArguments.length > pindex) {
-				if (typeArguments[pindex] instanceof Class) {
-					return (Class<?>) typeArguments[pindex];
-				}
-			}
-		}
-		return null;
+		// 接口的泛型参数在类的元数据中只解析一次
+		return ClassMetadata.of(clazz).getInterfaceGenericsClass(iindex, pindex);
 	}
 
 	/**
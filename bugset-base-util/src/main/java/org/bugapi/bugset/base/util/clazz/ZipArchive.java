@@ -0,0 +1,518 @@
+package org.bugapi.bugset.base.util.clazz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * 基于内存映射的zip（jar）包读取器【直接解析中央目录，不经过JarFile】
+ * <pre>
+ * 1、整个文件只读映射到内存，条目的数据按偏移量切片读取，不复制文件内容
+ * 2、支持嵌套的jar包（例如Spring Boot的BOOT-INF/lib/*.jar），存储方式（STORED）的嵌套jar包直接切片，
+ *    压缩方式（DEFLATED）的嵌套jar包在内存中解压，都不会解压到磁盘
+ * 3、支持文件前面带有启动脚本的可执行jar包
+ * 4、不支持zip64格式和超过2G的文件，此时抛出ZipException，调用方可以改用JarFile读取
+ * 5、映射的内存在对象被回收后释放，不需要关闭
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class ZipArchive {
+
+	/**
+	 * 中央目录结束记录的签名
+	 */
+	private static final int END_SIGNATURE = 0x06054b50;
+
+	/**
+	 * 中央目录条目的签名
+	 */
+	private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+	/**
+	 * 本地文件头的签名
+	 */
+	private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+	/**
+	 * 中央目录结束记录的长度（不含注释）
+	 */
+	private static final int END_HEADER_SIZE = 22;
+
+	/**
+	 * 中央目录条目的长度（不含文件名、扩展字段和注释）
+	 */
+	private static final int CENTRAL_HEADER_SIZE = 46;
+
+	/**
+	 * 本地文件头的长度（不含文件名和扩展字段）
+	 */
+	private static final int LOCAL_HEADER_SIZE = 30;
+
+	/**
+	 * zip注释的最大长度
+	 */
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+	/**
+	 * zip64格式中表示字段放在扩展字段中的标记值
+	 */
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+	/**
+	 * 存储方式：不压缩
+	 */
+	public static final int STORED = 0;
+
+	/**
+	 * 存储方式：deflate压缩
+	 */
+	public static final int DEFLATED = 8;
+
+	/**
+	 * 描述（文件路径，嵌套的jar包为外层路径!/条目名称）
+	 */
+	private final String name;
+
+	/**
+	 * 整个zip包的数据【小端字节序】
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * 条目
+	 */
+	private final List<Entry> entries;
+
+	private ZipArchive(String name, ByteBuffer buffer) throws IOException {
+		this.name = name;
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		this.entries = Collections.unmodifiableList(readCentralDirectory());
+	}
+
+	/**
+	 * 以内存映射的方式打开zip（jar）包
+	 *
+	 * @param file zip（jar）包
+	 * @return ZipArchive
+	 * @throws IOException 文件不是合法的zip包或者超过2G时抛出ZipException
+	 */
+	public static ZipArchive open(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new ZipException("不支持超过2G的文件：" + file);
+			}
+			return new ZipArchive(file.getPath(), channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+		}
+	}
+
+	/**
+	 * 读取内存中的zip（jar）包【不复制数据】
+	 *
+	 * @param name   描述
+	 * @param buffer zip包的数据，从position到limit
+	 * @return ZipArchive
+	 * @throws IOException 数据不是合法的zip包时抛出ZipException
+	 */
+	public static ZipArchive of(String name, ByteBuffer buffer) throws IOException {
+		return new ZipArchive(name, buffer.slice());
+	}
+
+	/**
+	 * 打开嵌套的zip（jar）包
+	 *
+	 * @param entry 嵌套的jar包的条目
+	 * @return ZipArchive
+	 * @throws IOException IO异常
+	 */
+	public ZipArchive openNested(Entry entry) throws IOException {
+		String nestedName = name + "!/" + entry.name;
+		if (entry.method == STORED) {
+			return new ZipArchive(nestedName, slice(entry.getDataOffset(), entry.compressedSize));
+		}
+		if (entry.size > Integer.MAX_VALUE) {
+			throw new ZipException("不支持超过2G的嵌套jar包：" + nestedName);
+		}
+		byte[] data = new byte[(int) entry.size];
+		try (InputStream in = getInputStream(entry)) {
+			int offset = 0;
+			int count;
+			while (offset < data.length && (count = in.read(data, offset, data.length - offset)) > 0) {
+				offset += count;
+			}
+			if (offset < data.length) {
+				throw new ZipException("嵌套jar包的数据不完整：" + nestedName);
+			}
+		}
+		return new ZipArchive(nestedName, ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * 获取条目的输入流
+	 *
+	 * @param entry 条目
+	 * @return 输入流
+	 * @throws IOException 不支持的存储方式时抛出ZipException
+	 */
+	public InputStream getInputStream(Entry entry) throws IOException {
+		int offset = entry.getDataOffset();
+		if (entry.method == STORED) {
+			return new BufferInputStream(slice(offset, entry.compressedSize));
+		}
+		if (entry.method == DEFLATED) {
+			// nowrap模式的Inflater需要在数据后面多一个字节，后面总有中央目录，直接多切一个字节
+			int length = (int) Math.min(entry.compressedSize + 1, buffer.limit() - offset);
+			Inflater inflater = new Inflater(true);
+			return new InflaterInputStream(new BufferInputStream(slice(offset, length)), inflater) {
+				private boolean closed;
+
+				@Override
+				public void close() throws IOException {
+					if (!closed) {
+						closed = true;
+						super.close();
+						inflater.end();
+					}
+				}
+			};
+		}
+		throw new ZipException("不支持的存储方式：" + entry.method + "，条目：" + entry.name);
+	}
+
+	/**
+	 * 读取条目的全部数据
+	 *
+	 * @param entry 条目
+	 * @return 数据
+	 * @throws IOException IO异常
+	 */
+	public byte[] readAllBytes(Entry entry) throws IOException {
+		try (InputStream in = getInputStream(entry)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(entry.size, Integer.MAX_VALUE - 8));
+			byte[] chunk = new byte[8192];
+			int count;
+			while ((count = in.read(chunk)) > 0) {
+				out.write(chunk, 0, count);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * 获取描述
+	 *
+	 * @return 文件路径，嵌套的jar包为外层路径!/条目名称
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 获取所有条目【按中央目录中的顺序】
+	 *
+	 * @return List 条目
+	 */
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * 获取指定名称的条目
+	 *
+	 * @param entryName 条目名称
+	 * @return 条目，不存在时为null
+	 */
+	public Entry getEntry(String entryName) {
+		for (Entry entry : entries) {
+			if (entry.name.equals(entryName)) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * 解析中央目录
+	 *
+	 * @return List 条目
+	 * @throws IOException 不是合法的zip包时抛出ZipException
+	 */
+	private List<Entry> readCentralDirectory() throws IOException {
+		int end = findEndRecord();
+		int total = buffer.getShort(end + 10) & 0xFFFF;
+		long centralSize = buffer.getInt(end + 12) & ZIP64_MAGIC;
+		long centralOffset = buffer.getInt(end + 16) & ZIP64_MAGIC;
+		if (total == 0xFFFF || centralSize == ZIP64_MAGIC || centralOffset == ZIP64_MAGIC) {
+			throw new ZipException("不支持zip64格式：" + name);
+		}
+		// 中央目录实际的位置，和记录的偏移量之差为文件前面附加的内容（例如启动脚本）的长度
+		int position = (int) (end - centralSize);
+		if (position < 0) {
+			throw new ZipException("中央目录的位置不正确：" + name);
+		}
+		int base = (int) (position - centralOffset);
+		List<Entry> result = new ArrayList<>(total);
+		for (int i = 0; i < total; i++) {
+			if (position + CENTRAL_HEADER_SIZE > end || buffer.getInt(position) != CENTRAL_SIGNATURE) {
+				throw new ZipException("中央目录的条目不正确：" + name);
+			}
+			int method = buffer.getShort(position + 10) & 0xFFFF;
+			long compressedSize = buffer.getInt(position + 20) & ZIP64_MAGIC;
+			long size = buffer.getInt(position + 24) & ZIP64_MAGIC;
+			int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+			int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+			int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+			long localOffset = buffer.getInt(position + 42) & ZIP64_MAGIC;
+			if (compressedSize == ZIP64_MAGIC || size == ZIP64_MAGIC || localOffset == ZIP64_MAGIC) {
+				throw new ZipException("不支持zip64格式：" + name);
+			}
+			String entryName = decodeName(position + CENTRAL_HEADER_SIZE, nameLength);
+			result.add(new Entry(entryName, method, compressedSize, size, (int) (base + localOffset)));
+			position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+		}
+		return result;
+	}
+
+	/**
+	 * 从文件末尾向前查找中央目录结束记录
+	 *
+	 * @return 中央目录结束记录的位置
+	 * @throws IOException 找不到时抛出ZipException
+	 */
+	private int findEndRecord() throws IOException {
+		int limit = buffer.limit();
+		int stop = Math.max(0, limit - END_HEADER_SIZE - MAX_COMMENT_SIZE);
+		for (int position = limit - END_HEADER_SIZE; position >= stop; position--) {
+			if (buffer.getInt(position) == END_SIGNATURE
+					&& position + END_HEADER_SIZE + (buffer.getShort(position + 20) & 0xFFFF) == limit) {
+				return position;
+			}
+		}
+		throw new ZipException("不是合法的zip文件：" + name);
+	}
+
+	/**
+	 * 按UTF-8解码条目名称【纯ASCII的名称直接按字节构造，不经过解码器】
+	 *
+	 * @param offset 名称的位置
+	 * @param length 名称的长度
+	 * @return 条目名称
+	 */
+	private String decodeName(int offset, int length) {
+		byte[] bytes = new byte[length];
+		boolean ascii = true;
+		for (int i = 0; i < length; i++) {
+			byte b = buffer.get(offset + i);
+			bytes[i] = b;
+			ascii &= b >= 0;
+		}
+		return new String(bytes, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 切出指定范围的数据
+	 *
+	 * @param offset 开始位置
+	 * @param length 长度
+	 * @return ByteBuffer
+	 * @throws IOException 范围超出zip包时抛出ZipException
+	 */
+	private ByteBuffer slice(int offset, long length) throws IOException {
+		if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+			throw new ZipException("条目的数据超出zip包的范围：" + name);
+		}
+		ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(offset);
+		duplicate.limit((int) (offset + length));
+		return duplicate.slice();
+	}
+
+	/**
+	 * zip包中的条目
+	 */
+	public final class Entry {
+
+		/**
+		 * 条目名称
+		 */
+		private final String name;
+
+		/**
+		 * 存储方式
+		 */
+		private final int method;
+
+		/**
+		 * 压缩后的长度
+		 */
+		private final long compressedSize;
+
+		/**
+		 * 原始长度
+		 */
+		private final long size;
+
+		/**
+		 * 本地文件头的位置
+		 */
+		private final int localOffset;
+
+		/**
+		 * 数据的位置，第一次读取时从本地文件头中解析
+		 */
+		private int dataOffset = -1;
+
+		private Entry(String name, int method, long compressedSize, long size, int localOffset) {
+			this.name = name;
+			this.method = method;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.localOffset = localOffset;
+		}
+
+		/**
+		 * 获取条目名称
+		 *
+		 * @return 条目名称，例如：com/abc/A.class
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * 是否是目录
+		 *
+		 * @return 是否是目录
+		 */
+		public boolean isDirectory() {
+			return name.endsWith("/");
+		}
+
+		/**
+		 * 获取存储方式
+		 *
+		 * @return STORED或DEFLATED
+		 */
+		public int getMethod() {
+			return method;
+		}
+
+		/**
+		 * 获取压缩后的长度
+		 *
+		 * @return 压缩后的长度
+		 */
+		public long getCompressedSize() {
+			return compressedSize;
+		}
+
+		/**
+		 * 获取原始长度
+		 *
+		 * @return 原始长度
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * 获取所属的zip包
+		 *
+		 * @return ZipArchive
+		 */
+		public ZipArchive getArchive() {
+			return ZipArchive.this;
+		}
+
+		/**
+		 * 获取数据的位置【本地文件头的扩展字段长度可能和中央目录中的不同，需要从本地文件头读取】
+		 *
+		 * @return 数据的位置
+		 * @throws IOException 本地文件头不正确时抛出ZipException
+		 */
+		private int getDataOffset() throws IOException {
+			int offset = dataOffset;
+			if (offset < 0) {
+				if (localOffset < 0 || localOffset + LOCAL_HEADER_SIZE > buffer.limit()
+						|| buffer.getInt(localOffset) != LOCAL_SIGNATURE) {
+					throw new ZipException("本地文件头不正确：" + ZipArchive.this.name + "!/" + name);
+				}
+				int nameLength = buffer.getShort(localOffset + 26) & 0xFFFF;
+				int extraLength = buffer.getShort(localOffset + 28) & 0xFFFF;
+				offset = localOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+				dataOffset = offset;
+			}
+			return offset;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * 读取ByteBuffer的输入流
+	 */
+	private static final class BufferInputStream extends InputStream {
+
+		/**
+		 * 数据
+		 */
+		private final ByteBuffer data;
+
+		private BufferInputStream(ByteBuffer data) {
+			this.data = data;
+		}
+
+		@Override
+		public int read() {
+			return data.hasRemaining() ? data.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			int remaining = data.remaining();
+			if (remaining == 0) {
+				return -1;
+			}
+			int count = Math.min(length, remaining);
+			data.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long n) {
+			int count = (int) Math.max(0, Math.min(n, data.remaining()));
+			data.position(data.position() + count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return data.remaining();
+		}
+	}
+}
@@ -0,0 +1,304 @@
+package org.bugapi.bugset.base.util.collection;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * int基本数据类型的动态数组【元素不装箱，内存占用约为List&lt;Integer&gt;的五分之一】
+ * 非线程安全
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public class IntArrayList {
+
+	/**
+	 * 默认的初始容量
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * 数组允许的最大长度【部分虚拟机会在数组中保留一些头信息】
+	 */
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * 存放元素的数组
+	 */
+	private int[] elements;
+
+	/**
+	 * 元素的个数
+	 */
+	private int size;
+
+	/**
+	 * 构造器
+	 */
+	public IntArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造器
+	 *
+	 * @param initialCapacity 初始容量
+	 */
+	public IntArrayList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+		}
+		this.elements = new int[initialCapacity];
+	}
+
+	/**
+	 * 根据数组创建动态数组（会复制一份数组）
+	 *
+	 * @param values 元素数组
+	 * @return IntArrayList 动态数组
+	 */
+	public static IntArrayList of(int... values) {
+		IntArrayList list = new IntArrayList(null == values ? 0 : values.length);
+		list.addAll(values);
+		return list;
+	}
+
+	/**
+	 * 追加元素
+	 *
+	 * @param value 元素
+	 */
+	public void add(int value) {
+		if (size == elements.length) {
+			grow(size + 1);
+		}
+		elements[size++] = value;
+	}
+
+	/**
+	 * 追加多个元素
+	 *
+	 * @param values 元素数组
+	 */
+	public void addAll(int... values) {
+		if (null == values || values.length == 0) {
+			return;
+		}
+		ensureCapacity(size + values.length);
+		System.arraycopy(values, 0, elements, size, values.length);
+		size += values.length;
+	}
+
+	/**
+	 * 获取指定位置的元素
+	 *
+	 * @param index 位置
+	 * @return int 元素
+	 */
+	public int get(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	/**
+	 * 替换指定位置的元素
+	 *
+	 * @param index 位置
+	 * @param value 新元素
+	 * @return int 原来的元素
+	 */
+	public int set(int index, int value) {
+		checkIndex(index);
+		int old = elements[index];
+		elements[index] = value;
+		return old;
+	}
+
+	/**
+	 * 删除指定位置的元素
+	 *
+	 * @param index 位置
+	 * @return int 被删除的元素
+	 */
+	public int removeAt(int index) {
+		checkIndex(index);
+		int old = elements[index];
+		int moved = size - index - 1;
+		if (moved > 0) {
+			System.arraycopy(elements, index + 1, elements, index, moved);
+		}
+		size--;
+		return old;
+	}
+
+	/**
+	 * 查找元素第一次出现的位置
+	 *
+	 * @param value 元素
+	 * @return int 位置，不存在返回-1
+	 */
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 是否包含元素
+	 *
+	 * @param value 元素
+	 * @return boolean 【true：包含】
+	 */
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * 元素个数
+	 *
+	 * @return int 元素个数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 是否为空
+	 *
+	 * @return boolean 【true：没有元素】
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * 清空元素（保留已分配的容量，便于复用）
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * 确保容量不小于指定值
+	 *
+	 * @param minCapacity 最小容量
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length) {
+			grow(minCapacity);
+		}
+	}
+
+	/**
+	 * 将容量缩小到元素个数
+	 */
+	public void trimToSize() {
+		if (size < elements.length) {
+			elements = Arrays.copyOf(elements, size);
+		}
+	}
+
+	/**
+	 * 遍历元素
+	 *
+	 * @param action 元素的消费函数
+	 */
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(elements[i]);
+		}
+	}
+
+	/**
+	 * 转成int数组（复制）
+	 *
+	 * @return int[] 数组
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * 转成IntStream
+	 *
+	 * @return IntStream 流
+	 */
+	public IntStream stream() {
+		return Arrays.stream(elements, 0, size);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntArrayList)) {
+			return false;
+		}
+		IntArrayList other = (IntArrayList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (elements[i] != other.elements[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + elements[i];
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		if (size == 0) {
+			return "[]";
+		}
+		StringBuilder builder = new StringBuilder(size * 4).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(elements[i]);
+		}
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * 扩容，每次扩大为原来的1.5倍
+	 *
+	 * @param minCapacity 最小容量
+	 */
+	private void grow(int minCapacity) {
+		if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+			throw new OutOfMemoryError("Required array size too large");
+		}
+		int newCapacity = elements.length + (elements.length >> 1);
+		if (newCapacity < minCapacity || newCapacity > MAX_ARRAY_SIZE) {
+			newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+		}
+		elements = Arrays.copyOf(elements, newCapacity);
+	}
+
+	/**
+	 * 检查位置是否越界
+	 *
+	 * @param index 位置
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
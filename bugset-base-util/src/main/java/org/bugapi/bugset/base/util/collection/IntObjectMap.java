@@ -0,0 +1,419 @@
+package org.bugapi.bugset.base.util.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * key为int基本数据类型的Map【开放寻址（线性探测）实现，key不装箱，也没有HashMap的Node对象】
+ * 非线程安全，value允许为null
+ *
+ * @param <V> value的类型
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public class IntObjectMap<V> {
+
+	/**
+	 * 默认的初始容量
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * 最大容量
+	 */
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	/**
+	 * 负载因子
+	 */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/**
+	 * 空槽位的标记值，key为该值的元素单独存放
+	 */
+	private static final int EMPTY_KEY = 0;
+
+	/**
+	 * key数组
+	 */
+	private int[] keys;
+
+	/**
+	 * value数组，与key数组下标一一对应
+	 */
+	private Object[] values;
+
+	/**
+	 * 槽位掩码（容量-1）
+	 */
+	private int mask;
+
+	/**
+	 * 扩容阈值
+	 */
+	private int threshold;
+
+	/**
+	 * 槽位数组中元素的个数（不包括key为0的元素）
+	 */
+	private int assigned;
+
+	/**
+	 * 是否包含key为0的元素
+	 */
+	private boolean hasEmptyKey;
+
+	/**
+	 * key为0的元素的value
+	 */
+	private V emptyKeyValue;
+
+	/**
+	 * 构造器
+	 */
+	public IntObjectMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造器
+	 *
+	 * @param expectedSize 预计存放的元素个数（放入这么多元素之前不会扩容）
+	 */
+	public IntObjectMap(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Illegal expectedSize: " + expectedSize);
+		}
+		allocate(tableSizeFor((int) Math.min(MAX_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1)));
+	}
+
+	/**
+	 * 获取key对应的value
+	 *
+	 * @param key 键
+	 * @return V 值，不存在返回null
+	 */
+	public V get(int key) {
+		return getOrDefault(key, null);
+	}
+
+	/**
+	 * 获取key对应的value
+	 *
+	 * @param key          键
+	 * @param defaultValue 默认值
+	 * @return V 值，不存在返回默认值
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(int key, V defaultValue) {
+		if (key == EMPTY_KEY) {
+			return hasEmptyKey ? emptyKeyValue : defaultValue;
+		}
+		int slot = indexOf(key);
+		return slot < 0 ? defaultValue : (V) values[slot];
+	}
+
+	/**
+	 * 是否包含key
+	 *
+	 * @param key 键
+	 * @return boolean 【true：包含】
+	 */
+	public boolean containsKey(int key) {
+		return key == EMPTY_KEY ? hasEmptyKey : indexOf(key) >= 0;
+	}
+
+	/**
+	 * 放入键值对
+	 *
+	 * @param key   键
+	 * @param value 值
+	 * @return V 原来的值，不存在返回null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (key == EMPTY_KEY) {
+			V old = emptyKeyValue;
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return old;
+		}
+		int slot = hash(key) & mask;
+		int existing;
+		while ((existing = keys[slot]) != EMPTY_KEY) {
+			if (existing == key) {
+				V old = (V) values[slot];
+				values[slot] = value;
+				return old;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++assigned > threshold) {
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * key不存在时通过函数计算value并放入
+	 *
+	 * @param key             键
+	 * @param mappingFunction 计算value的函数
+	 * @return V key对应的值（已存在的值或新计算的值）
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent(int key, IntFunction<? extends V> mappingFunction) {
+		if (key == EMPTY_KEY) {
+			if (!hasEmptyKey) {
+				put(key, mappingFunction.apply(key));
+			}
+			return emptyKeyValue;
+		}
+		int slot = hash(key) & mask;
+		int existing;
+		while ((existing = keys[slot]) != EMPTY_KEY) {
+			if (existing == key) {
+				return (V) values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		V value = mappingFunction.apply(key);
+		keys[slot] = key;
+		values[slot] = value;
+		if (++assigned > threshold) {
+			rehash(keys.length << 1);
+		}
+		return value;
+	}
+
+	/**
+	 * 删除key
+	 *
+	 * @param key 键
+	 * @return V 被删除的值，不存在返回null
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		if (key == EMPTY_KEY) {
+			V old = emptyKeyValue;
+			hasEmptyKey = false;
+			emptyKeyValue = null;
+			return old;
+		}
+		int slot = indexOf(key);
+		if (slot < 0) {
+			return null;
+		}
+		V old = (V) values[slot];
+		shiftConflictingKeys(slot);
+		assigned--;
+		return old;
+	}
+
+	/**
+	 * 元素个数
+	 *
+	 * @return int 元素个数
+	 */
+	public int size() {
+		return assigned + (hasEmptyKey ? 1 : 0);
+	}
+
+	/**
+	 * 是否为空
+	 *
+	 * @return boolean 【true：没有元素】
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * 清空元素（保留已分配的容量，便于复用）
+	 */
+	public void clear() {
+		Arrays.fill(keys, EMPTY_KEY);
+		Arrays.fill(values, null);
+		assigned = 0;
+		hasEmptyKey = false;
+		emptyKeyValue = null;
+	}
+
+	/**
+	 * 遍历键值对
+	 *
+	 * @param action 键值对的消费函数
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryConsumer<? super V> action) {
+		if (hasEmptyKey) {
+			action.accept(EMPTY_KEY, emptyKeyValue);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY_KEY) {
+				action.accept(keys[i], (V) values[i]);
+			}
+		}
+	}
+
+	/**
+	 * 获取所有的key
+	 *
+	 * @return int[] key数组
+	 */
+	public int[] keys() {
+		int[] result = new int[size()];
+		int index = 0;
+		if (hasEmptyKey) {
+			result[index++] = EMPTY_KEY;
+		}
+		for (int key : keys) {
+			if (key != EMPTY_KEY) {
+				result[index++] = key;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 获取所有的value
+	 *
+	 * @return List<V> value集合
+	 */
+	public List<V> values() {
+		List<V> result = new ArrayList<>(size());
+		forEach((key, value) -> result.add(value));
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(size() * 16).append('{');
+		forEach((key, value) -> {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(key).append('=').append(value);
+		});
+		return builder.append('}').toString();
+	}
+
+	/**
+	 * 查找key所在的槽位
+	 *
+	 * @param key 键（不能为0）
+	 * @return int 槽位，不存在返回-1
+	 */
+	private int indexOf(int key) {
+		int slot = hash(key) & mask;
+		int existing;
+		while ((existing = keys[slot]) != EMPTY_KEY) {
+			if (existing == key) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * 删除元素后，将后面探测链上的元素向前移动，保证线性探测的查找不会中断
+	 *
+	 * @param gap 被删除元素的槽位
+	 */
+	private void shiftConflictingKeys(int gap) {
+		int slot = (gap + 1) & mask;
+		int existing;
+		while ((existing = keys[slot]) != EMPTY_KEY) {
+			int ideal = hash(existing) & mask;
+			// 元素到理想槽位的距离不小于到空位的距离时，才可以移动到空位
+			if (((slot - ideal) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = existing;
+				values[gap] = values[slot];
+				gap = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[gap] = EMPTY_KEY;
+		values[gap] = null;
+	}
+
+	/**
+	 * 扩容并重新放入元素
+	 *
+	 * @param newCapacity 新容量
+	 */
+	private void rehash(int newCapacity) {
+		if (newCapacity > MAX_CAPACITY || newCapacity < 0) {
+			throw new IllegalStateException("IntObjectMap容量超出上限：" + MAX_CAPACITY);
+		}
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(newCapacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			int key = oldKeys[i];
+			if (key != EMPTY_KEY) {
+				int slot = hash(key) & mask;
+				while (keys[slot] != EMPTY_KEY) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * 分配槽位数组
+	 *
+	 * @param capacity 容量（2的幂）
+	 */
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+	}
+
+	/**
+	 * 计算key的哈希值【乘以黄金分割常数后高低位异或，使连续的id也能均匀分布】
+	 *
+	 * @param key 键
+	 * @return int 哈希值
+	 */
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * 返回不小于指定值的2的幂
+	 *
+	 * @param capacity 容量
+	 * @return int 2的幂
+	 */
+	private static int tableSizeFor(int capacity) {
+		int n = -1 >>> Integer.numberOfLeadingZeros(Math.max(capacity, 2) - 1);
+		return Math.min(Math.max(n + 1, DEFAULT_CAPACITY), MAX_CAPACITY);
+	}
+
+	/**
+	 * 键值对的消费函数
+	 *
+	 * @param <V> value的类型
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		/**
+		 * 消费键值对
+		 *
+		 * @param key   键
+		 * @param value 值
+		 */
+		void accept(int key, V value);
+	}
+}
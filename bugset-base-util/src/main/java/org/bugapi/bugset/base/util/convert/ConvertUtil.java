@@ -4,14 +4,21 @@ import org.bugapi.bugset.base.constant.MethodType;
 import org.bugapi.bugset.base.constant.SymbolType;
 import org.bugapi.bugset.base.util.array.ArrayUtil;
 import org.bugapi.bugset.base.util.collection.CollectionUtil;
+import org.bugapi.bugset.base.util.collection.IntArrayList;
+import org.bugapi.bugset.base.util.collection.IntObjectMap;
+import org.bugapi.bugset.base.util.collection.LongArrayList;
+import org.bugapi.bugset.base.util.collection.LongObjectMap;
 import org.bugapi.bugset.base.util.collection.MapUtil;
 import org.bugapi.bugset.base.util.object.ObjectUtil;
+import org.bugapi.bugset.base.util.reflect.AccessorUtil;
 import org.bugapi.bugset.base.util.string.StringUtil;
-import org.bugapi.bugset.base.util.validate.ValidateUtil;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -22,6 +29,11 @@ import java.util.stream.Collectors;
  */
 public class ConvertUtil {
 
+    /**
+     * 并行分组时每个子任务的最小元素个数【元素太少时拆分任务的开销大于并行的收益】
+     */
+    public static final int PARALLEL_GROUPING_MIN_LEAF_SIZE = 4096;
+
 
     /* ----------------------------------------  将对象转成基本数据类型  -------------------------------------- */
 
@@ -104,8 +116,7 @@ public class ConvertUtil {
         if (ArrayUtil.isEmpty(arr)) {
             return SymbolType.EMPTY;
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        return Arrays.stream(arr).boxed().map(String::valueOf).collect(Collectors.joining(delimiter));
+        return DelimitedNumberJoiner.join(delimiter, arr);
     }
 
     /**
@@ -129,8 +140,45 @@ public class ConvertUtil {
         if (ArrayUtil.isEmpty(arr)) {
             return SymbolType.EMPTY;
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        return Arrays.stream(arr).boxed().map(String::valueOf).collect(Collectors.joining(delimiter));
+        return DelimitedNumberJoiner.join(delimiter, arr);
+    }
+
+    /**
+     * 把数组按固定个数分块转成字符串【例如SQL的IN子句每1000个id一组】
+     *
+     * @param delimiter 字符串连接符
+     * @param chunkSize 每块的元素个数
+     * @param arr       int类型的数组
+     * @return List 每块拼接后的字符串
+     * @see DelimitedNumberJoiner#joinChunks(String, String, String, int, int[], java.util.function.Consumer)
+     */
+    public static List<String> arrayToChunkedStrings(String delimiter, int chunkSize, int... arr) {
+        DelimitedNumberJoiner.checkChunkSize(chunkSize);
+        if (ArrayUtil.isEmpty(arr)) {
+            return Collections.emptyList();
+        }
+        List<String> chunks = new ArrayList<>(arr.length / chunkSize + 1);
+        DelimitedNumberJoiner.joinChunks(SymbolType.EMPTY, delimiter, SymbolType.EMPTY, chunkSize, arr, chunks::add);
+        return chunks;
+    }
+
+    /**
+     * 把数组按固定个数分块转成字符串【例如SQL的IN子句每1000个id一组】
+     *
+     * @param delimiter 字符串连接符
+     * @param chunkSize 每块的元素个数
+     * @param arr       long类型的数组
+     * @return List 每块拼接后的字符串
+     * @see DelimitedNumberJoiner#joinChunks(String, String, String, int, long[], java.util.function.Consumer)
+     */
+    public static List<String> arrayToChunkedStrings(String delimiter, int chunkSize, long... arr) {
+        DelimitedNumberJoiner.checkChunkSize(chunkSize);
+        if (ArrayUtil.isEmpty(arr)) {
+            return Collections.emptyList();
+        }
+        List<String> chunks = new ArrayList<>(arr.length / chunkSize + 1);
+        DelimitedNumberJoiner.joinChunks(SymbolType.EMPTY, delimiter, SymbolType.EMPTY, chunkSize, arr, chunks::add);
+        return chunks;
     }
 
     /**
@@ -157,7 +205,12 @@ public class ConvertUtil {
             return SymbolType.EMPTY;
         }
         delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        return Arrays.stream(arr).filter(ObjectUtil::isNotEmpty).map(String::valueOf).collect(Collectors.joining(delimiter));
+        StringBuilder builder = new StringBuilder(arr.length * 8);
+        boolean first = true;
+        for (T element : arr) {
+            first &= !appendNotEmpty(builder, first ? SymbolType.EMPTY : delimiter, element);
+        }
+        return builder.toString();
     }
 
 
@@ -182,9 +235,7 @@ public class ConvertUtil {
         if (StringUtil.isEmpty(strIds)) {
             return new Integer[0];
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        String[] strArr = strIds.split(delimiter);
-        return Arrays.stream(strArr).filter(ObjectUtil::isNotEmpty).filter(ValidateUtil::isIntegerNumber).map(String::trim).map(Integer::valueOf).toArray(Integer[]::new);
+        return wrap(DelimitedNumberParser.parseInts(strIds, delimiter).toArray());
     }
 
     /**
@@ -208,9 +259,7 @@ public class ConvertUtil {
         if (StringUtil.isEmpty(strIds)) {
             return new int[0];
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        String[] strArr = strIds.split(delimiter);
-        return Arrays.stream(strArr).filter(ObjectUtil::isNotEmpty).filter(ValidateUtil::isIntegerNumber).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        return DelimitedNumberParser.parseInts(strIds, delimiter).toArray();
     }
 
     /**
@@ -234,10 +283,7 @@ public class ConvertUtil {
         if (StringUtil.isEmpty(strIds)) {
             return new Long[0];
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        String[] strArr = strIds.split(delimiter);
-
-        return Arrays.stream(strArr).filter(ObjectUtil::isNotEmpty).filter(ValidateUtil::isIntegerNumber).map(String::trim).map(Long::valueOf).toArray(Long[]::new);
+        return wrap(DelimitedNumberParser.parseLongs(strIds, delimiter).toArray());
     }
 
     /**
@@ -261,9 +307,7 @@ public class ConvertUtil {
         if (StringUtil.isEmpty(strIds)) {
             return new long[0];
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        String[] strArr = strIds.split(delimiter);
-        return Arrays.stream(strArr).filter(ObjectUtil::isNotEmpty).filter(ValidateUtil::isIntegerNumber).map(String::trim).mapToLong(Long::valueOf).toArray();
+        return DelimitedNumberParser.parseLongs(strIds, delimiter).toArray();
     }
 
     /* --------------------------------------  包装类型的数组与基本类型数组之间转换  ------------------------------------ */
@@ -369,9 +413,10 @@ public class ConvertUtil {
         if (StringUtil.isEmpty(arrStr)) {
             return Collections.emptyList();
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        return Arrays.stream(arrStr.split(delimiter)).filter(ObjectUtil::isNotEmpty).filter(
-                ValidateUtil::isIntegerNumber).map(Integer::parseInt).collect(Collectors.toList());
+        IntArrayList values = DelimitedNumberParser.parseInts(arrStr, delimiter);
+        List<Integer> list = new ArrayList<>(values.size());
+        values.forEach(list::add);
+        return list;
     }
 
 
@@ -396,9 +441,10 @@ public class ConvertUtil {
         if (StringUtil.isEmpty(arrStr)) {
             return new ArrayList<>();
         }
-        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        return Arrays.stream(arrStr.split(delimiter)).filter(ObjectUtil::isNotEmpty).filter(
-                ValidateUtil::isIntegerNumber).map(Long::parseLong).collect(Collectors.toList());
+        LongArrayList values = DelimitedNumberParser.parseLongs(arrStr, delimiter);
+        List<Long> list = new ArrayList<>(values.size());
+        values.forEach(list::add);
+        return list;
     }
 
 
@@ -424,7 +470,32 @@ public class ConvertUtil {
             return SymbolType.EMPTY;
         }
         delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-        return collection.stream().filter(ObjectUtil::isNotEmpty).map(String::valueOf).collect(Collectors.joining(delimiter));
+        StringBuilder builder = new StringBuilder(collection.size() * 8);
+        boolean first = true;
+        for (T element : collection) {
+            first &= !appendNotEmpty(builder, first ? SymbolType.EMPTY : delimiter, element);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 元素不为空时拼接到StringBuilder【Integer、Long直接写入数字，不生成中间字符串】
+     *
+     * @param builder   StringBuilder
+     * @param separator 元素之前的连接符
+     * @param element   元素
+     * @return boolean 【true：已拼接】
+     */
+    private static boolean appendNotEmpty(StringBuilder builder, String separator, Object element) {
+        if (element instanceof Integer || element instanceof Long) {
+            builder.append(separator).append(((Number) element).longValue());
+            return true;
+        }
+        if (ObjectUtil.isNotEmpty(element)) {
+            builder.append(separator).append(element);
+            return true;
+        }
+        return false;
     }
 
     /* ----------------------------------------  集合与数组之间的转换  -------------------------------------- */
@@ -491,13 +562,8 @@ public class ConvertUtil {
         if (CollectionUtil.isEmpty(list)) {
             return Collections.emptyList();
         }
-        return list.stream().filter(ObjectUtil::isNotEmpty).mapToInt(obj -> {
-            try {
-                return (int) obj.getClass().getMethod(method).invoke(obj);
-            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                return 0;
-            }
-        }).boxed().collect(Collectors.toList());
+        return list.stream().filter(ObjectUtil::isNotEmpty).mapToInt(AccessorUtil.toIntFunction(method, 0))
+                .boxed().collect(Collectors.toList());
     }
 
     /**
@@ -520,13 +586,8 @@ public class ConvertUtil {
         if (CollectionUtil.isEmpty(list)) {
             return Collections.emptyList();
         }
-        return list.stream().filter(ObjectUtil::isNotEmpty).mapToLong(obj -> {
-            try {
-                return (long) obj.getClass().getMethod(method).invoke(obj);
-            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                return 0L;
-            }
-        }).boxed().collect(Collectors.toList());
+        return list.stream().filter(ObjectUtil::isNotEmpty).mapToLong(AccessorUtil.toLongFunction(method, 0L))
+                .boxed().collect(Collectors.toList());
     }
 
     /**
@@ -549,13 +610,71 @@ public class ConvertUtil {
         if (CollectionUtil.isEmpty(list)) {
             return Collections.emptyList();
         }
-        return list.stream().filter(ObjectUtil::isNotEmpty).map(obj -> {
-            try {
-                return (String) obj.getClass().getMethod(method).invoke(obj);
-            } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                return SymbolType.EMPTY;
+        Function<T, String> idGetter = AccessorUtil.toFunction(method, String.class, SymbolType.EMPTY);
+        return list.stream().filter(ObjectUtil::isNotEmpty).map(idGetter).collect(Collectors.toList());
+    }
+
+
+    /**
+     * 将对象的list转换成int类型id的动态数组【id不装箱】
+     *
+     * @param list 对象List
+     * @return id动态数组
+     */
+    public static <T> IntArrayList objectListToIntIdArrayList(List<T> list) {
+        return objectListToIntIdArrayList(list, MethodType.GET_ID);
+    }
+
+    /**
+     * 将对象的list转换成int类型id的动态数组【id不装箱】
+     *
+     * @param list   对象List
+     * @param method 获取id的方法名
+     * @return id动态数组
+     */
+    public static <T> IntArrayList objectListToIntIdArrayList(List<T> list, final String method) {
+        if (CollectionUtil.isEmpty(list)) {
+            return new IntArrayList(0);
+        }
+        ToIntFunction<T> idGetter = AccessorUtil.toIntFunction(method, 0);
+        IntArrayList ids = new IntArrayList(list.size());
+        for (T obj : list) {
+            if (ObjectUtil.isNotEmpty(obj)) {
+                ids.add(idGetter.applyAsInt(obj));
             }
-        }).collect(Collectors.toList());
+        }
+        return ids;
+    }
+
+    /**
+     * 将对象的list转换成long类型id的动态数组【id不装箱】
+     *
+     * @param list 对象List
+     * @return id动态数组
+     */
+    public static <T> LongArrayList objectListToLongIdArrayList(List<T> list) {
+        return objectListToLongIdArrayList(list, MethodType.GET_ID);
+    }
+
+    /**
+     * 将对象的list转换成long类型id的动态数组【id不装箱】
+     *
+     * @param list   对象List
+     * @param method 获取id的方法名
+     * @return id动态数组
+     */
+    public static <T> LongArrayList objectListToLongIdArrayList(List<T> list, final String method) {
+        if (CollectionUtil.isEmpty(list)) {
+            return new LongArrayList(0);
+        }
+        ToLongFunction<T> idGetter = AccessorUtil.toLongFunction(method, 0L);
+        LongArrayList ids = new LongArrayList(list.size());
+        for (T obj : list) {
+            if (ObjectUtil.isNotEmpty(obj)) {
+                ids.add(idGetter.applyAsLong(obj));
+            }
+        }
+        return ids;
     }
 
 
@@ -582,14 +701,8 @@ public class ConvertUtil {
         if (CollectionUtil.isEmpty(list)) {
             return MapUtil.newHashMap();
         }
-        return list.stream().filter(ObjectUtil::isNotEmpty).collect(
-                Collectors.toMap(obj -> {
-                    try {
-                        return (Integer) obj.getClass().getMethod(method).invoke(obj);
-                    } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                        return 0;
-                    }
-                }, obj -> obj));
+        Function<T, Integer> keyGetter = AccessorUtil.toFunction(method, Integer.class, 0);
+        return list.stream().filter(ObjectUtil::isNotEmpty).collect(Collectors.toMap(keyGetter, obj -> obj));
     }
 
     /**
@@ -612,14 +725,80 @@ public class ConvertUtil {
         if (CollectionUtil.isEmpty(list)) {
             return MapUtil.newHashMap();
         }
-        return list.stream().filter(ObjectUtil::isNotEmpty).collect(
-                Collectors.toMap(obj -> {
-                    try {
-                        return (Long) obj.getClass().getMethod(method).invoke(obj);
-                    } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                        return 0L;
-                    }
-                }, obj -> obj));
+        Function<T, Long> keyGetter = AccessorUtil.toFunction(method, Long.class, 0L);
+        return list.stream().filter(ObjectUtil::isNotEmpty).collect(Collectors.toMap(keyGetter, obj -> obj));
+    }
+
+    /**
+     * 将ObjectList转成以int为key，objectList中的元素为value的map集合【key不装箱】
+     *
+     * @param list 对象List
+     * @return id与对象的map集合
+     */
+    public static <T> IntObjectMap<T> objectListToIntKeyObjectMap(List<T> list) {
+        return objectListToIntKeyObjectMap(list, MethodType.GET_ID);
+    }
+
+    /**
+     * 将ObjectList转成以int为key，objectList中的元素为value的map集合【key不装箱】
+     *
+     * @param list   对象List
+     * @param method 获取key的方法名
+     * @return id与对象的map集合
+     */
+    public static <T> IntObjectMap<T> objectListToIntKeyObjectMap(List<T> list, final String method) {
+        if (CollectionUtil.isEmpty(list)) {
+            return new IntObjectMap<>(0);
+        }
+        ToIntFunction<T> keyGetter = AccessorUtil.toIntFunction(method, 0);
+        IntObjectMap<T> map = new IntObjectMap<>(list.size());
+        int key;
+        for (T obj : list) {
+            if (ObjectUtil.isNotEmpty(obj)) {
+                key = keyGetter.applyAsInt(obj);
+                if (map.containsKey(key)) {
+                    throw new IllegalStateException(String.format("Duplicate key %s", key));
+                }
+                map.put(key, obj);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 将ObjectList转成以long为key，objectList中的元素为value的map集合【key不装箱】
+     *
+     * @param list 对象List
+     * @return id与对象的map集合
+     */
+    public static <T> LongObjectMap<T> objectListToLongKeyObjectMap(List<T> list) {
+        return objectListToLongKeyObjectMap(list, MethodType.GET_ID);
+    }
+
+    /**
+     * 将ObjectList转成以long为key，objectList中的元素为value的map集合【key不装箱】
+     *
+     * @param list   对象List
+     * @param method 获取key的方法名
+     * @return id与对象的map集合
+     */
+    public static <T> LongObjectMap<T> objectListToLongKeyObjectMap(List<T> list, final String method) {
+        if (CollectionUtil.isEmpty(list)) {
+            return new LongObjectMap<>(0);
+        }
+        ToLongFunction<T> keyGetter = AccessorUtil.toLongFunction(method, 0L);
+        LongObjectMap<T> map = new LongObjectMap<>(list.size());
+        long key;
+        for (T obj : list) {
+            if (ObjectUtil.isNotEmpty(obj)) {
+                key = keyGetter.applyAsLong(obj);
+                if (map.containsKey(key)) {
+                    throw new IllegalStateException(String.format("Duplicate key %s", key));
+                }
+                map.put(key, obj);
+            }
+        }
+        return map;
     }
 
     /**
@@ -642,14 +821,8 @@ public class ConvertUtil {
         if (CollectionUtil.isEmpty(list)) {
             return MapUtil.newHashMap();
         }
-        return list.stream().filter(ObjectUtil::isNotEmpty).collect(
-                Collectors.toMap(obj -> {
-                    try {
-                        return (String) obj.getClass().getMethod(methodName).invoke(obj);
-                    } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                        return SymbolType.EMPTY;
-                    }
-                }, obj -> obj));
+        Function<T, String> keyGetter = AccessorUtil.toFunction(methodName, String.class, SymbolType.EMPTY);
+        return list.stream().filter(ObjectUtil::isNotEmpty).collect(Collectors.toMap(keyGetter, obj -> obj));
     }
 
 
@@ -668,17 +841,17 @@ public class ConvertUtil {
             return map;
         }
         try {
-            Method method = null;
+            AccessorUtil.Getter getter = null;
             List<T> listTemp;
             Long tempKey;
             for (T t : objectList) {
                 if (null == t) {
                     continue;
                 }
-                if (method == null) {
-                    method = t.getClass().getMethod(methodName);
+                if (getter == null || getter.getTargetClass() != t.getClass()) {
+                    getter = AccessorUtil.getGetter(t.getClass(), methodName);
                 }
-                tempKey = (Long)method.invoke(t);
+                tempKey = getter.get(t);
                 if (map.get(tempKey) != null) {
                     map.get(tempKey).add(t);
                 } else {
@@ -697,6 +870,52 @@ public class ConvertUtil {
         return map;
     }
 
+    /**
+     * 将一个ObjectList并行分组成key为：Long，value为objectList的Map集合【使用公共的ForkJoinPool】
+     * 		集合大小未达到阈值时按顺序分组；组内元素的顺序与原集合一致
+     *
+     * @param objectList        对象集合
+     * @param methodName        获取Long类型的key
+     * @param parallelThreshold 并行分组的集合大小阈值
+     * @param <T>               泛型类型
+     * @return Map<Long, List < T>> map集合
+     */
+    public static <T> Map<Long, List<T>> objectListToLongAndObjectListMap(List<T> objectList, String methodName,
+                                                                          int parallelThreshold) {
+        return objectListToLongAndObjectListMap(objectList, methodName, parallelThreshold, null);
+    }
+
+    /**
+     * 将一个ObjectList并行分组成key为：Long，value为objectList的Map集合
+     * 		集合大小未达到阈值时按顺序分组；组内元素的顺序与原集合一致
+     *
+     * @param objectList        对象集合
+     * @param methodName        获取Long类型的key
+     * @param parallelThreshold 并行分组的集合大小阈值
+     * @param pool              执行分组的线程池，为null时使用{@link ForkJoinPool#commonPool()}
+     * @param <T>               泛型类型
+     * @return Map<Long, List < T>> map集合
+     */
+    public static <T> Map<Long, List<T>> objectListToLongAndObjectListMap(List<T> objectList, String methodName,
+                                                                          int parallelThreshold, ForkJoinPool pool) {
+        if (null == objectList || objectList.size() < Math.max(parallelThreshold, PARALLEL_GROUPING_MIN_LEAF_SIZE)) {
+            return objectListToLongAndObjectListMap(objectList, methodName);
+        }
+        if (null == pool) {
+            pool = ForkJoinPool.commonPool();
+        }
+        List<T> list = objectList instanceof RandomAccess ? objectList : new ArrayList<>(objectList);
+        int leafSize = Math.max(PARALLEL_GROUPING_MIN_LEAF_SIZE, list.size() / (pool.getParallelism() * 4));
+        LongKeyGroupingTask.Groups<T> grouped = pool.invoke(new LongKeyGroupingTask<>(list, 0, list.size(), methodName,
+                leafSize));
+        Map<Long, List<T>> map = new HashMap<>((int) ((grouped.groups.size() + 1) / 0.75f) + 1);
+        grouped.groups.forEach(map::put);
+        if (null != grouped.nullGroup) {
+            map.put(null, grouped.nullGroup);
+        }
+        return map;
+    }
+
     public static void main(String[] args) {
         int[] intarr = new int[]{1, 2};
         long[] intarr1 = new long[]{1L, 4L};
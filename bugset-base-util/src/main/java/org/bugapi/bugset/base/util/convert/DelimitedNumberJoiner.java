@@ -0,0 +1,280 @@
+package org.bugapi.bugset.base.util.convert;
+
+import org.bugapi.bugset.base.util.string.StringUtil;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.function.IntToLongFunction;
+
+/**
+ * 整数拼接器【{@link DelimitedNumberParser}的逆操作】
+ * <pre>
+ * 1、先精确计算拼接后的长度，再把数字直接写入预分配容量的StringBuilder，不装箱、不生成每个元素的字符串、不扩容
+ * 2、支持写入Appendable（StringBuilder、Writer等），按块写入，不生成完整的字符串
+ * 3、支持按固定个数分块拼接，例如SQL的IN子句每1000个id一组：
+ *    joinChunks("id IN (", ",", ")", 1000, ids, sqlParts::add)
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public class DelimitedNumberJoiner {
+
+    /**
+     * 写入Appendable时的缓冲区大小
+     */
+    private static final int WRITE_BUFFER_SIZE = 1024;
+
+    /**
+     * 预分配容量的上限【与JDK中数组的最大长度一致，超过时由StringBuilder自己扩容并报错】
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * long类型数字的最大字符数（包括负号）
+     */
+    private static final int MAX_LONG_LENGTH = 20;
+
+    /**
+     * Long.MIN_VALUE的字符数，不能取反
+     */
+    private static final int MIN_LONG_LENGTH = String.valueOf(Long.MIN_VALUE).length();
+
+    /**
+     * 10的0~18次方
+     */
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * 拼接int数组
+     *
+     * @param delimiter 分隔符，为空时默认为","
+     * @param values    int数组
+     * @return String 拼接后的字符串，数组为空时返回空字符串
+     */
+    public static String join(String delimiter, int... values) {
+        return null == values ? "" : join("", delimiter, "", 0, values.length, i -> values[i]);
+    }
+
+    /**
+     * 拼接long数组
+     *
+     * @param delimiter 分隔符，为空时默认为","
+     * @param values    long数组
+     * @return String 拼接后的字符串，数组为空时返回空字符串
+     */
+    public static String join(String delimiter, long... values) {
+        return null == values ? "" : join("", delimiter, "", 0, values.length, i -> values[i]);
+    }
+
+    /**
+     * 拼接int数组的指定范围，并在前后加上前缀和后缀
+     *
+     * @param prefix    前缀
+     * @param delimiter 分隔符，为空时默认为","
+     * @param suffix    后缀
+     * @param values    int数组
+     * @param from      开始位置（包含）
+     * @param to        结束位置（不包含）
+     * @return String 拼接后的字符串
+     */
+    public static String join(String prefix, String delimiter, String suffix, int[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return join(prefix, delimiter, suffix, from, to, i -> values[i]);
+    }
+
+    /**
+     * 拼接long数组的指定范围，并在前后加上前缀和后缀
+     *
+     * @param prefix    前缀
+     * @param delimiter 分隔符，为空时默认为","
+     * @param suffix    后缀
+     * @param values    long数组
+     * @param from      开始位置（包含）
+     * @param to        结束位置（不包含）
+     * @return String 拼接后的字符串
+     */
+    public static String join(String prefix, String delimiter, String suffix, long[] values, int from, int to) {
+        checkRange(values.length, from, to);
+        return join(prefix, delimiter, suffix, from, to, i -> values[i]);
+    }
+
+    /**
+     * 按固定个数分块拼接int数组，每块拼接后交给消费函数【不生成完整的字符串】
+     *
+     * @param prefix    每块的前缀
+     * @param delimiter 分隔符，为空时默认为","
+     * @param suffix    每块的后缀
+     * @param chunkSize 每块的元素个数
+     * @param values    int数组
+     * @param consumer  每块拼接后的字符串的消费函数
+     */
+    public static void joinChunks(String prefix, String delimiter, String suffix, int chunkSize, int[] values,
+                                  Consumer<String> consumer) {
+        checkChunkSize(chunkSize);
+        // 先算剩余个数再比较，from + chunkSize 在块很大时会溢出
+        for (int from = 0, to; from < values.length; from = to) {
+            to = from + Math.min(values.length - from, chunkSize);
+            consumer.accept(join(prefix, delimiter, suffix, values, from, to));
+        }
+    }
+
+    /**
+     * 按固定个数分块拼接long数组，每块拼接后交给消费函数【不生成完整的字符串】
+     *
+     * @param prefix    每块的前缀
+     * @param delimiter 分隔符，为空时默认为","
+     * @param suffix    每块的后缀
+     * @param chunkSize 每块的元素个数
+     * @param values    long数组
+     * @param consumer  每块拼接后的字符串的消费函数
+     */
+    public static void joinChunks(String prefix, String delimiter, String suffix, int chunkSize, long[] values,
+                                  Consumer<String> consumer) {
+        checkChunkSize(chunkSize);
+        // 先算剩余个数再比较，from + chunkSize 在块很大时会溢出
+        for (int from = 0, to; from < values.length; from = to) {
+            to = from + Math.min(values.length - from, chunkSize);
+            consumer.accept(join(prefix, delimiter, suffix, values, from, to));
+        }
+    }
+
+    /**
+     * 把int数组拼接后写入Appendable
+     *
+     * @param sink      写入的目标
+     * @param delimiter 分隔符，为空时默认为","
+     * @param values    int数组
+     * @throws IOException 写入异常
+     */
+    public static void appendTo(Appendable sink, String delimiter, int... values) throws IOException {
+        if (null != values) {
+            appendTo(sink, delimiter, 0, values.length, i -> values[i]);
+        }
+    }
+
+    /**
+     * 把long数组拼接后写入Appendable
+     *
+     * @param sink      写入的目标
+     * @param delimiter 分隔符，为空时默认为","
+     * @param values    long数组
+     * @throws IOException 写入异常
+     */
+    public static void appendTo(Appendable sink, String delimiter, long... values) throws IOException {
+        if (null != values) {
+            appendTo(sink, delimiter, 0, values.length, i -> values[i]);
+        }
+    }
+
+    /**
+     * 计算long类型数字的字符数
+     *
+     * @param value 数字
+     * @return int 字符数（包括负号）
+     */
+    public static int stringSize(long value) {
+        if (value < 0) {
+            return value == Long.MIN_VALUE ? MIN_LONG_LENGTH : stringSize(-value) + 1;
+        }
+        if (value < 10) {
+            return 1;
+        }
+        // 按二进制位数估算十进制位数（log10(2) ≈ 1233 / 4096），再和10的幂比较修正
+        int digits = (64 - Long.numberOfLeadingZeros(value)) * 1233 >>> 12;
+        return value >= POWERS_OF_TEN[digits] ? digits + 1 : digits;
+    }
+
+    /**
+     * 拼接指定范围的元素
+     *
+     * @param prefix    前缀
+     * @param delimiter 分隔符
+     * @param suffix    后缀
+     * @param from      开始位置（包含）
+     * @param to        结束位置（不包含）
+     * @param values    元素的取值函数
+     * @return String 拼接后的字符串
+     */
+    private static String join(String prefix, String delimiter, String suffix, int from, int to,
+                               IntToLongFunction values) {
+        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
+        // 按long计算，元素多、分隔符长时int会溢出成负数
+        long length = prefix.length() + suffix.length() + (long) Math.max(0, to - from - 1) * delimiter.length();
+        for (int i = from; i < to; i++) {
+            length += stringSize(values.applyAsLong(i));
+        }
+        StringBuilder builder = new StringBuilder((int) Math.min(length, MAX_CAPACITY)).append(prefix);
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append(delimiter);
+            }
+            builder.append(values.applyAsLong(i));
+        }
+        return builder.append(suffix).toString();
+    }
+
+    /**
+     * 把指定范围的元素拼接后写入Appendable
+     *
+     * @param sink      写入的目标
+     * @param delimiter 分隔符
+     * @param from      开始位置（包含）
+     * @param to        结束位置（不包含）
+     * @param values    元素的取值函数
+     * @throws IOException 写入异常
+     */
+    private static void appendTo(Appendable sink, String delimiter, int from, int to, IntToLongFunction values)
+            throws IOException {
+        delimiter = StringUtil.getDefaultStrSeparator(delimiter);
+        if (sink instanceof StringBuilder) {
+            // StringBuilder直接写入数字，不经过缓冲区
+            StringBuilder builder = (StringBuilder) sink;
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    builder.append(delimiter);
+                }
+                builder.append(values.applyAsLong(i));
+            }
+            return;
+        }
+        // 其他Appendable（例如Writer）先写入缓冲区，缓冲区满了再整块写入
+        StringBuilder buffer = new StringBuilder(WRITE_BUFFER_SIZE + delimiter.length() + MAX_LONG_LENGTH);
+        for (int i = from; i < to; i++) {
+            if (buffer.length() >= WRITE_BUFFER_SIZE) {
+                sink.append(buffer);
+                buffer.setLength(0);
+            }
+            if (i > from) {
+                buffer.append(delimiter);
+            }
+            buffer.append(values.applyAsLong(i));
+        }
+        sink.append(buffer);
+    }
+
+    /**
+     * 校验范围
+     */
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + length);
+        }
+    }
+
+    /**
+     * 校验每块的元素个数
+     */
+    static void checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("每块的元素个数必须大于0：" + chunkSize);
+        }
+    }
+}
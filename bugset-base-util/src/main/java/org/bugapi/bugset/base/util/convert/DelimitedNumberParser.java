@@ -0,0 +1,403 @@
+package org.bugapi.bugset.base.util.convert;
+
+import org.bugapi.bugset.base.util.collection.IntArrayList;
+import org.bugapi.bugset.base.util.collection.LongArrayList;
+import org.bugapi.bugset.base.util.string.StringUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 分隔符拼接的整数字符串解析器
+ * <pre>
+ * 1、单次遍历字符，同时完成分割、校验与数值累加，不生成中间的String[]和子字符串
+ * 2、分隔符按字面量匹配（不是正则表达式）
+ * 3、与{@link org.bugapi.bugset.base.constant.PatternType#INTEGER_PATTERN}一致：支持0、1、100、-1、-100，
+ *    不支持-0、-01、00、09、带空白符的元素，不合法的元素和超出取值范围的元素直接跳过
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public class DelimitedNumberParser {
+
+    /**
+     * 从Reader中读取时的缓冲区大小
+     */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * 解析int类型的元素
+     *
+     * @param str       分隔符拼接的字符串 eg：1,2,3
+     * @param delimiter 分隔符，为空时默认为","
+     * @return IntArrayList 解析出的元素
+     */
+    public static IntArrayList parseInts(CharSequence str, String delimiter) {
+        IntArrayList result = new IntArrayList(estimateCount(null == str ? 0 : str.length()));
+        if (null == str) {
+            return result;
+        }
+        Scanner scanner = new Scanner(delimiter, Integer.MIN_VALUE, Integer.MAX_VALUE, value -> result.add((int) value));
+        for (int i = 0, length = str.length(); i < length; i++) {
+            scanner.feed(str.charAt(i));
+        }
+        scanner.finish();
+        return result;
+    }
+
+    /**
+     * 解析int类型的元素
+     *
+     * @param chars     字符数组
+     * @param offset    开始位置
+     * @param length    长度
+     * @param delimiter 分隔符，为空时默认为","
+     * @return IntArrayList 解析出的元素
+     */
+    public static IntArrayList parseInts(char[] chars, int offset, int length, String delimiter) {
+        IntArrayList result = new IntArrayList(estimateCount(length));
+        if (null == chars) {
+            return result;
+        }
+        Scanner scanner = new Scanner(delimiter, Integer.MIN_VALUE, Integer.MAX_VALUE, value -> result.add((int) value));
+        scanner.feed(chars, offset, length);
+        scanner.finish();
+        return result;
+    }
+
+    /**
+     * 解析long类型的元素
+     *
+     * @param str       分隔符拼接的字符串 eg：1,2,3
+     * @param delimiter 分隔符，为空时默认为","
+     * @return LongArrayList 解析出的元素
+     */
+    public static LongArrayList parseLongs(CharSequence str, String delimiter) {
+        LongArrayList result = new LongArrayList(estimateCount(null == str ? 0 : str.length()));
+        if (null == str) {
+            return result;
+        }
+        Scanner scanner = new Scanner(delimiter, Long.MIN_VALUE, Long.MAX_VALUE, result::add);
+        for (int i = 0, length = str.length(); i < length; i++) {
+            scanner.feed(str.charAt(i));
+        }
+        scanner.finish();
+        return result;
+    }
+
+    /**
+     * 解析long类型的元素
+     *
+     * @param chars     字符数组
+     * @param offset    开始位置
+     * @param length    长度
+     * @param delimiter 分隔符，为空时默认为","
+     * @return LongArrayList 解析出的元素
+     */
+    public static LongArrayList parseLongs(char[] chars, int offset, int length, String delimiter) {
+        LongArrayList result = new LongArrayList(estimateCount(length));
+        if (null == chars) {
+            return result;
+        }
+        Scanner scanner = new Scanner(delimiter, Long.MIN_VALUE, Long.MAX_VALUE, result::add);
+        scanner.feed(chars, offset, length);
+        scanner.finish();
+        return result;
+    }
+
+    /**
+     * 以流的方式解析int类型的元素【适用于很大的id文件，不需要把整个文件读入内存】
+     *
+     * @param reader    字符输入流（不会关闭）
+     * @param delimiter 分隔符，为空时默认为","
+     * @param consumer  元素的消费函数
+     * @throws IOException 流异常
+     */
+    public static void forEachInt(Reader reader, String delimiter, IntConsumer consumer) throws IOException {
+        read(reader, new Scanner(delimiter, Integer.MIN_VALUE, Integer.MAX_VALUE, value -> consumer.accept((int) value)));
+    }
+
+    /**
+     * 以流的方式解析long类型的元素【适用于很大的id文件，不需要把整个文件读入内存】
+     *
+     * @param reader    字符输入流（不会关闭）
+     * @param delimiter 分隔符，为空时默认为","
+     * @param consumer  元素的消费函数
+     * @throws IOException 流异常
+     */
+    public static void forEachLong(Reader reader, String delimiter, LongConsumer consumer) throws IOException {
+        read(reader, new Scanner(delimiter, Long.MIN_VALUE, Long.MAX_VALUE, consumer));
+    }
+
+    /**
+     * 从字符输入流中解析long类型的元素
+     *
+     * @param reader    字符输入流（不会关闭）
+     * @param delimiter 分隔符，为空时默认为","
+     * @return LongArrayList 解析出的元素
+     * @throws IOException 流异常
+     */
+    public static LongArrayList parseLongs(Reader reader, String delimiter) throws IOException {
+        LongArrayList result = new LongArrayList();
+        forEachLong(reader, delimiter, result::add);
+        return result;
+    }
+
+    /**
+     * 从字符输入流中解析int类型的元素
+     *
+     * @param reader    字符输入流（不会关闭）
+     * @param delimiter 分隔符，为空时默认为","
+     * @return IntArrayList 解析出的元素
+     * @throws IOException 流异常
+     */
+    public static IntArrayList parseInts(Reader reader, String delimiter) throws IOException {
+        IntArrayList result = new IntArrayList();
+        forEachInt(reader, delimiter, result::add);
+        return result;
+    }
+
+    /**
+     * 将字符输入流中的字符分块送入扫描器
+     *
+     * @param reader  字符输入流
+     * @param scanner 扫描器
+     * @throws IOException 流异常
+     */
+    private static void read(Reader reader, Scanner scanner) throws IOException {
+        if (null == reader) {
+            return;
+        }
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        int count;
+        while ((count = reader.read(buffer)) != -1) {
+            scanner.feed(buffer, 0, count);
+        }
+        scanner.finish();
+    }
+
+    /**
+     * 根据字符串长度估算元素个数，用于结果的初始容量
+     *
+     * @param length 字符串长度
+     * @return int 估算的元素个数
+     */
+    private static int estimateCount(int length) {
+        return Math.min(Math.max(length, 0) / 4 + 1, 1 << 16);
+    }
+
+    /**
+     * 逐字符推进的扫描器：用KMP匹配字面量分隔符，用状态机校验并累加数字
+     */
+    private static final class Scanner {
+        /**
+         * 状态：元素开始
+         */
+        private static final int START = 0;
+        /**
+         * 状态：已读到负号
+         */
+        private static final int MINUS = 1;
+        /**
+         * 状态：以0开头（后面不能再有字符）
+         */
+        private static final int ZERO = 2;
+        /**
+         * 状态：正在读取数字
+         */
+        private static final int DIGITS = 3;
+        /**
+         * 状态：元素不合法，跳到下一个分隔符
+         */
+        private static final int INVALID = 4;
+
+        /**
+         * 分隔符
+         */
+        private final char[] delimiter;
+        /**
+         * 分隔符的KMP部分匹配表
+         */
+        private final int[] failure;
+        /**
+         * 取值下限
+         */
+        private final long min;
+        /**
+         * 取值上限
+         */
+        private final long max;
+        /**
+         * 解析出的元素的消费函数
+         */
+        private final LongConsumer sink;
+        /**
+         * 分隔符已匹配的字符数
+         */
+        private int matched;
+        /**
+         * 当前元素的状态
+         */
+        private int state = START;
+        /**
+         * 当前元素是否为负数
+         */
+        private boolean negative;
+        /**
+         * 当前元素累加的值（按负数累加，才能表示最小值）
+         */
+        private long accumulator;
+
+        private Scanner(String delimiter, long min, long max, LongConsumer sink) {
+            this.delimiter = StringUtil.getDefaultStrSeparator(delimiter).toCharArray();
+            this.failure = buildFailure(this.delimiter);
+            this.min = min;
+            this.max = max;
+            this.sink = sink;
+        }
+
+        /**
+         * 推进字符数组
+         *
+         * @param chars  字符数组
+         * @param offset 开始位置
+         * @param length 长度
+         */
+        private void feed(char[] chars, int offset, int length) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                feed(chars[i]);
+            }
+        }
+
+        /**
+         * 推进一个字符
+         *
+         * @param c 字符
+         */
+        private void feed(char c) {
+            // 单字符分隔符（最常见的情况）不需要部分匹配
+            if (delimiter.length == 1) {
+                if (c == delimiter[0]) {
+                    endToken();
+                } else {
+                    accept(c);
+                }
+                return;
+            }
+            while (matched > 0 && c != delimiter[matched]) {
+                int fallback = failure[matched - 1];
+                // 回退掉的分隔符前缀不再可能构成分隔符，属于元素内容
+                for (int i = 0, released = matched - fallback; i < released; i++) {
+                    accept(delimiter[i]);
+                }
+                matched = fallback;
+            }
+            if (c == delimiter[matched]) {
+                if (++matched == delimiter.length) {
+                    matched = 0;
+                    endToken();
+                }
+            } else {
+                accept(c);
+            }
+        }
+
+        /**
+         * 输入结束
+         */
+        private void finish() {
+            for (int i = 0; i < matched; i++) {
+                accept(delimiter[i]);
+            }
+            matched = 0;
+            endToken();
+        }
+
+        /**
+         * 元素内容中的一个字符
+         *
+         * @param c 字符
+         */
+        private void accept(char c) {
+            switch (state) {
+                case START:
+                    if (c == '-') {
+                        negative = true;
+                        state = MINUS;
+                    } else if (c == '0') {
+                        state = ZERO;
+                    } else if (c >= '1' && c <= '9') {
+                        negative = false;
+                        accumulator = '0' - c;
+                        state = DIGITS;
+                    } else {
+                        state = INVALID;
+                    }
+                    break;
+                case MINUS:
+                    if (c >= '1' && c <= '9') {
+                        accumulator = '0' - c;
+                        state = DIGITS;
+                    } else {
+                        state = INVALID;
+                    }
+                    break;
+                case DIGITS:
+                    if (c >= '0' && c <= '9') {
+                        long limit = negative ? min : -max;
+                        int digit = c - '0';
+                        if (accumulator < limit / 10 || accumulator * 10 < limit + digit) {
+                            // 超出取值范围
+                            state = INVALID;
+                        } else {
+                            accumulator = accumulator * 10 - digit;
+                        }
+                    } else {
+                        state = INVALID;
+                    }
+                    break;
+                default:
+                    // ZERO 之后出现任何字符都不合法；INVALID 保持不变
+                    state = INVALID;
+                    break;
+            }
+        }
+
+        /**
+         * 元素结束，合法的元素交给消费函数
+         */
+        private void endToken() {
+            if (state == ZERO) {
+                sink.accept(0L);
+            } else if (state == DIGITS) {
+                sink.accept(negative ? accumulator : -accumulator);
+            }
+            state = START;
+            negative = false;
+            accumulator = 0L;
+        }
+
+        /**
+         * 构建KMP部分匹配表
+         *
+         * @param pattern 分隔符
+         * @return int[] 部分匹配表
+         */
+        private static int[] buildFailure(char[] pattern) {
+            int[] failure = new int[pattern.length];
+            for (int i = 1, k = 0; i < pattern.length; i++) {
+                while (k > 0 && pattern[i] != pattern[k]) {
+                    k = failure[k - 1];
+                }
+                if (pattern[i] == pattern[k]) {
+                    k++;
+                }
+                failure[i] = k;
+            }
+            return failure;
+        }
+    }
+}
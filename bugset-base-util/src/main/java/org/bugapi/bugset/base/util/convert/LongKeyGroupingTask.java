@@ -0,0 +1,136 @@
+package org.bugapi.bugset.base.util.convert;
+
+import org.bugapi.bugset.base.util.collection.LongObjectMap;
+import org.bugapi.bugset.base.util.reflect.AccessorUtil;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 按long类型的key对集合分组的fork-join任务
+ * 每个子任务分组到自己的{@link LongObjectMap}中，合并时左半部分在前、右半部分在后，保证组内元素的顺序与原集合一致
+ * 取key的方式和顺序分组一致：key为null的元素单独分为一组，返回值不是Long时抛出ClassCastException
+ *
+ * @param <T> 元素类型
+ * @author zhangxw
+ * @since 0.0.1
+ */
+class LongKeyGroupingTask<T> extends RecursiveTask<LongKeyGroupingTask.Groups<T>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 待分组的集合（需要支持随机访问）
+     */
+    private final List<T> list;
+    /**
+     * 开始位置（包含）
+     */
+    private final int from;
+    /**
+     * 结束位置（不包含）
+     */
+    private final int to;
+    /**
+     * 获取key的方法名
+     */
+    private final String methodName;
+    /**
+     * 不再拆分的子任务大小
+     */
+    private final int leafSize;
+
+    LongKeyGroupingTask(List<T> list, int from, int to, String methodName, int leafSize) {
+        this.list = list;
+        this.from = from;
+        this.to = to;
+        this.methodName = methodName;
+        this.leafSize = leafSize;
+    }
+
+    @Override
+    protected Groups<T> compute() {
+        if (to - from <= leafSize) {
+            return group();
+        }
+        int middle = (from + to) >>> 1;
+        LongKeyGroupingTask<T> left = new LongKeyGroupingTask<>(list, from, middle, methodName, leafSize);
+        LongKeyGroupingTask<T> right = new LongKeyGroupingTask<>(list, middle, to, methodName, leafSize);
+        left.fork();
+        Groups<T> rightResult = right.compute();
+        Groups<T> leftResult = left.join();
+        rightResult.groups.forEach((key, values) -> {
+            List<T> leftValues = leftResult.groups.get(key);
+            if (null == leftValues) {
+                leftResult.groups.put(key, values);
+            } else {
+                leftValues.addAll(values);
+            }
+        });
+        if (null != rightResult.nullGroup) {
+            if (null == leftResult.nullGroup) {
+                leftResult.nullGroup = rightResult.nullGroup;
+            } else {
+                leftResult.nullGroup.addAll(rightResult.nullGroup);
+            }
+        }
+        return leftResult;
+    }
+
+    /**
+     * 顺序分组当前区间的元素
+     *
+     * @return Groups 分组结果
+     */
+    private Groups<T> group() {
+        Groups<T> result = new Groups<>();
+        AccessorUtil.Getter getter = null;
+        T t;
+        Long key;
+        for (int i = from; i < to; i++) {
+            t = list.get(i);
+            if (null == t) {
+                continue;
+            }
+            try {
+                if (getter == null || getter.getTargetClass() != t.getClass()) {
+                    getter = AccessorUtil.getGetter(t.getClass(), methodName);
+                }
+                key = getter.get(t);
+                if (null == key) {
+                    if (null == result.nullGroup) {
+                        result.nullGroup = new ArrayList<>();
+                    }
+                    result.nullGroup.add(t);
+                } else {
+                    result.groups.computeIfAbsent(key, k -> new ArrayList<>()).add(t);
+                }
+            } catch (NoSuchMethodException e) {
+                throw new RuntimeException("调用objectListToLongAndObjectListMap方法时，方法" + methodName + "不存在！");
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("调用objectListToLongAndObjectListMap方法时，方法" + methodName + "访问失败！");
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException("调用objectListToLongAndObjectListMap方法时，方法" + methodName + "调用失败！");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分组结果
+     *
+     * @param <T> 元素类型
+     */
+    static final class Groups<T> {
+        /**
+         * key不为null的分组
+         */
+        final LongObjectMap<List<T>> groups = new LongObjectMap<>();
+        /**
+         * key为null的分组，没有这样的元素时为null
+         */
+        List<T> nullGroup;
+    }
+}
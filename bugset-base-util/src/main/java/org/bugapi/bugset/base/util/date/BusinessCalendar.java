@@ -0,0 +1,412 @@
+package org.bugapi.bugset.base.util.date;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 工作日日历【按年把工作日展开为位图，加减工作日和计算工作日天数不需要逐天循环】
+ * <pre>
+ * 1、默认周六、周日休息，节假日和调休上班的日期从本地文件加载，覆盖默认的周末规则
+ * 2、每年的工作日保存为366位的位图（第N位表示一年中的第N+1天），同时保存每64位之前的工作日数量
+ * 3、计算工作日天数通过前缀数量加上popcount（rank）得到，加N个工作日通过前缀数量定位再在64位中查找第K个1（select）
+ * 4、每年的位图在第一次使用时生成并缓存，跨年计算只需要累加中间年份的工作日总数
+ * </pre>
+ *
+ * 文件格式：每行一个日期或者日期范围（yyyy-MM-dd或者yyyy-MM-dd~yyyy-MM-dd），
+ * 以+开头表示调休上班的日期，其他表示节假日，空行和以#开头的行忽略，例如：
+ * <pre>
+ * # 2019年国庆节
+ * 2019-10-01~2019-10-07
+ * +2019-09-29
+ * +2019-10-12
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class BusinessCalendar {
+
+  /**
+   * 只按周六、周日休息的日历
+   */
+  public static final BusinessCalendar WEEKDAYS = new BusinessCalendar(EnumSet.of(DayOfWeek.SATURDAY,
+      DayOfWeek.SUNDAY), Collections.emptySet(), Collections.emptySet());
+
+  /**
+   * 调休上班的前缀
+   */
+  private static final char WORKDAY_PREFIX = '+';
+
+  /**
+   * 注释的前缀
+   */
+  private static final char COMMENT_PREFIX = '#';
+
+  /**
+   * 日期范围的分隔符
+   */
+  private static final char RANGE_SEPARATOR = '~';
+
+  /**
+   * 一年最多的天数对应的long数量
+   */
+  private static final int WORDS_PER_YEAR = (366 + 63) >>> 6;
+
+  /**
+   * 每周休息的日期
+   */
+  private final Set<DayOfWeek> weekend;
+
+  /**
+   * 按年分组的节假日（一年中的第几天）
+   */
+  private final Map<Integer, long[]> holidays;
+
+  /**
+   * 按年分组的调休上班的日期（一年中的第几天）
+   */
+  private final Map<Integer, long[]> workdays;
+
+  /**
+   * 已经生成的每年的工作日位图
+   */
+  private final ConcurrentMap<Integer, YearDays> years = new ConcurrentHashMap<>();
+
+  private BusinessCalendar(Set<DayOfWeek> weekend, Collection<LocalDate> holidays,
+      Collection<LocalDate> workdays) {
+    this.weekend = EnumSet.noneOf(DayOfWeek.class);
+    this.weekend.addAll(weekend);
+    this.holidays = toBits(holidays);
+    this.workdays = toBits(workdays);
+  }
+
+  /**
+   * 创建周六、周日休息的日历
+   *
+   * @param holidays 节假日
+   * @param workdays 调休上班的日期
+   * @return 日历
+   */
+  public static BusinessCalendar of(Collection<LocalDate> holidays, Collection<LocalDate> workdays) {
+    return of(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), holidays, workdays);
+  }
+
+  /**
+   * 创建日历
+   *
+   * @param weekend  每周休息的日期，不能包含一周中的所有日期
+   * @param holidays 节假日
+   * @param workdays 调休上班的日期
+   * @return 日历
+   * @throws IllegalArgumentException 每周都没有工作日
+   */
+  public static BusinessCalendar of(Set<DayOfWeek> weekend, Collection<LocalDate> holidays,
+      Collection<LocalDate> workdays) {
+    if (weekend.containsAll(EnumSet.allOf(DayOfWeek.class))) {
+      throw new IllegalArgumentException("每周休息的日期不能包含一周中的所有日期");
+    }
+    return new BusinessCalendar(weekend, holidays, workdays);
+  }
+
+  /**
+   * 从本地文件加载周六、周日休息的日历【文件编码为UTF-8】
+   *
+   * @param path 文件路径
+   * @return 日历
+   * @throws IOException IO异常或者文件格式不正确
+   */
+  public static BusinessCalendar load(Path path) throws IOException {
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return load(reader);
+    }
+  }
+
+  /**
+   * 从输入流加载周六、周日休息的日历【编码为UTF-8，不关闭输入流】
+   *
+   * @param in 输入流
+   * @return 日历
+   * @throws IOException IO异常或者格式不正确
+   */
+  public static BusinessCalendar load(InputStream in) throws IOException {
+    return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * 读取节假日和调休上班的日期
+   *
+   * @param reader 字符输入流
+   * @return 日历
+   * @throws IOException IO异常或者格式不正确
+   */
+  private static BusinessCalendar load(Reader reader) throws IOException {
+    BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    Set<LocalDate> holidays = new HashSet<>();
+    Set<LocalDate> workdays = new HashSet<>();
+    String line;
+    while (null != (line = lines.readLine())) {
+      line = line.trim();
+      if (line.isEmpty() || line.charAt(0) == COMMENT_PREFIX) {
+        continue;
+      }
+      Set<LocalDate> target = holidays;
+      if (line.charAt(0) == WORKDAY_PREFIX) {
+        target = workdays;
+        line = line.substring(1).trim();
+      }
+      try {
+        int separator = line.indexOf(RANGE_SEPARATOR);
+        LocalDate start = LocalDate.parse(separator < 0 ? line : line.substring(0, separator).trim());
+        LocalDate end = separator < 0 ? start : LocalDate.parse(line.substring(separator + 1).trim());
+        if (end.isBefore(start)) {
+          throw new IOException("日期范围不正确：" + line);
+        }
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+          target.add(date);
+        }
+      } catch (DateTimeParseException e) {
+        throw new IOException("日期格式不正确：" + line, e);
+      }
+    }
+    return of(holidays, workdays);
+  }
+
+  /**
+   * 是否是工作日
+   *
+   * @param date 日期
+   * @return 是否是工作日
+   */
+  public boolean isWorkday(LocalDate date) {
+    int index = date.getDayOfYear() - 1;
+    return (year(date.getYear()).bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * 计算两个日期之间的工作日天数【包含开始日期，不包含结束日期，结束日期在开始日期之前时为负数】
+   *
+   * @param startDate 开始日期
+   * @param endDate   结束日期
+   * @return 工作日天数
+   */
+  public long getWorkdaysBetween(LocalDate startDate, LocalDate endDate) {
+    if (endDate.isBefore(startDate)) {
+      return -getWorkdaysBetween(endDate, startDate);
+    }
+    int startYear = startDate.getYear();
+    int endYear = endDate.getYear();
+    if (startYear == endYear) {
+      YearDays days = year(startYear);
+      return days.rank(endDate.getDayOfYear() - 1) - days.rank(startDate.getDayOfYear() - 1);
+    }
+    YearDays first = year(startYear);
+    long count = first.total() - first.rank(startDate.getDayOfYear() - 1);
+    for (int year = startYear + 1; year < endYear; year++) {
+      count += year(year).total();
+    }
+    return count + year(endYear).rank(endDate.getDayOfYear() - 1);
+  }
+
+  /**
+   * 增加工作日【正数为之后的第N个工作日，负数为之前的第N个工作日，0返回原日期】
+   *
+   * @param date   日期
+   * @param amount 工作日天数
+   * @return 增加后的日期
+   * @throws IllegalStateException 经过的某一年没有工作日（节假日覆盖了全年的工作日）
+   */
+  public LocalDate addWorkdays(LocalDate date, long amount) {
+    if (amount == 0) {
+      return date;
+    }
+    int year = date.getYear();
+    YearDays days = year(year);
+    // 目标工作日在当年的工作日中的序号（从0开始）
+    long target;
+    if (amount > 0) {
+      target = days.rank(date.getDayOfYear()) + amount - 1;
+      while (target >= days.total()) {
+        target -= days.total();
+        days = workdaysOf(++year);
+      }
+    } else {
+      target = days.rank(date.getDayOfYear() - 1) + amount;
+      while (target < 0) {
+        days = workdaysOf(--year);
+        target += days.total();
+      }
+    }
+    return LocalDate.ofYearDay(year, days.select((int) target) + 1);
+  }
+
+  /**
+   * 获取跨年查找时经过的一年的工作日位图【没有工作日时继续查找会一直循环，直接失败】
+   *
+   * @param year 年
+   * @return 工作日位图
+   */
+  private YearDays workdaysOf(int year) {
+    YearDays days = year(year);
+    if (days.total() == 0) {
+      throw new IllegalStateException(year + "年没有工作日");
+    }
+    return days;
+  }
+
+  /**
+   * 获取指定日期所在的工作日或者之后的第一个工作日
+   *
+   * @param date 日期
+   * @return 工作日
+   */
+  public LocalDate nextOrSameWorkday(LocalDate date) {
+    return isWorkday(date) ? date : addWorkdays(date, 1);
+  }
+
+  /**
+   * 获取一年的工作日天数
+   *
+   * @param year 年
+   * @return 工作日天数
+   */
+  public int getWorkdaysOfYear(int year) {
+    return year(year).total();
+  }
+
+  /**
+   * 获取一年的工作日位图，不存在时生成
+   *
+   * @param year 年
+   * @return 工作日位图
+   */
+  private YearDays year(int year) {
+    YearDays days = years.get(year);
+    return null == days ? years.computeIfAbsent(year, this::build) : days;
+  }
+
+  /**
+   * 生成一年的工作日位图：先按周末规则生成，再去掉节假日、加上调休上班的日期
+   *
+   * @param year 年
+   * @return 工作日位图
+   */
+  private YearDays build(int year) {
+    LocalDate firstDay = LocalDate.of(year, 1, 1);
+    int length = firstDay.lengthOfYear();
+    int firstDayOfWeek = firstDay.getDayOfWeek().getValue() - 1;
+    long[] bits = new long[WORDS_PER_YEAR];
+    DayOfWeek[] daysOfWeek = DayOfWeek.values();
+    for (int index = 0; index < length; index++) {
+      if (!weekend.contains(daysOfWeek[(firstDayOfWeek + index) % 7])) {
+        bits[index >>> 6] |= 1L << index;
+      }
+    }
+    long[] rest = holidays.get(year);
+    long[] work = workdays.get(year);
+    for (int i = 0; i < WORDS_PER_YEAR; i++) {
+      if (null != rest) {
+        bits[i] &= ~rest[i];
+      }
+      if (null != work) {
+        bits[i] |= work[i];
+      }
+    }
+    return new YearDays(bits);
+  }
+
+  /**
+   * 把日期按年分组为位图
+   *
+   * @param dates 日期
+   * @return 年与位图的映射
+   */
+  private static Map<Integer, long[]> toBits(Collection<LocalDate> dates) {
+    Map<Integer, long[]> result = new HashMap<>(16);
+    for (LocalDate date : dates) {
+      int index = date.getDayOfYear() - 1;
+      result.computeIfAbsent(date.getYear(), year -> new long[WORDS_PER_YEAR])[index >>> 6] |= 1L << index;
+    }
+    return result;
+  }
+
+  /**
+   * 一年的工作日位图
+   */
+  private static final class YearDays {
+    /**
+     * 工作日位图，第N位表示一年中的第N+1天
+     */
+    private final long[] bits;
+    /**
+     * 每个long之前的工作日数量，最后一个元素为全年的工作日数量
+     */
+    private final int[] ranks;
+
+    private YearDays(long[] bits) {
+      this.bits = bits;
+      this.ranks = new int[bits.length + 1];
+      for (int i = 0; i < bits.length; i++) {
+        ranks[i + 1] = ranks[i] + Long.bitCount(bits[i]);
+      }
+    }
+
+    /**
+     * 全年的工作日数量
+     *
+     * @return 工作日数量
+     */
+    private int total() {
+      return ranks[bits.length];
+    }
+
+    /**
+     * 计算指定位置之前的工作日数量
+     *
+     * @param index 位置（一年中的第几天减1），可以等于全年的天数
+     * @return 工作日数量
+     */
+    private int rank(int index) {
+      int word = index >>> 6;
+      if (word >= bits.length) {
+        return total();
+      }
+      return ranks[word] + Long.bitCount(bits[word] & ((1L << index) - 1));
+    }
+
+    /**
+     * 查找第N个工作日的位置
+     *
+     * @param n 工作日的序号（从0开始），必须小于全年的工作日数量
+     * @return 位置（一年中的第几天减1）
+     */
+    private int select(int n) {
+      int word = 0;
+      while (ranks[word + 1] <= n) {
+        word++;
+      }
+      long value = bits[word];
+      for (int skip = n - ranks[word]; skip > 0; skip--) {
+        value &= value - 1;
+      }
+      return (word << 6) + Long.numberOfTrailingZeros(value);
+    }
+  }
+}
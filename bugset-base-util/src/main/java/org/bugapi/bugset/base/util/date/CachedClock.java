@@ -0,0 +1,153 @@
+package org.bugapi.bugset.base.util.date;
+
+import org.bugapi.bugset.base.constant.DateFormatEnum;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按固定精度缓存的时钟【用于日志、审计等频繁获取当前时间且可以接受精度损失的场景】
+ * <pre>
+ * 1、缓存当前精度周期的开始毫秒数、对应的LocalDateTime以及按{@link DateFormatEnum}格式化后的字符串
+ * 2、不启动后台线程，读取时发现已经进入下一个周期才通过CAS刷新，读取本身不加锁
+ * 3、同一个周期内格式化后的字符串只生成一次，返回的是同一个字符串对象
+ * 4、时间为精度周期的开始时间，例如秒级精度的毫秒数和格式化中的毫秒总是0
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class CachedClock {
+
+  /**
+   * 秒级精度的时钟
+   */
+  public static final CachedClock SECOND = new CachedClock(1000L);
+
+  /**
+   * 毫秒级精度的时钟
+   */
+  public static final CachedClock MILLISECOND = new CachedClock(1L);
+
+  /**
+   * 精度（毫秒）
+   */
+  private final long precisionMillis;
+
+  /**
+   * 当前周期的缓存
+   */
+  private final AtomicReference<Tick> current = new AtomicReference<>(new Tick(Long.MIN_VALUE, 0L, null, null));
+
+  /**
+   * 创建指定精度的时钟
+   *
+   * @param precisionMillis 精度（毫秒），必须大于0
+   */
+  public CachedClock(long precisionMillis) {
+    if (precisionMillis <= 0) {
+      throw new IllegalArgumentException("精度必须大于0：" + precisionMillis);
+    }
+    this.precisionMillis = precisionMillis;
+  }
+
+  /**
+   * 获取精度
+   *
+   * @return 精度（毫秒）
+   */
+  public long getPrecisionMillis() {
+    return precisionMillis;
+  }
+
+  /**
+   * 获取当前时间的毫秒数【截断到精度周期的开始】
+   *
+   * @return 毫秒数
+   */
+  public long currentTimeMillis() {
+    return tick().startMillis;
+  }
+
+  /**
+   * 获取系统默认时区的当前时间【截断到精度周期的开始】
+   *
+   * @return LocalDateTime
+   */
+  public LocalDateTime now() {
+    return tick().dateTime;
+  }
+
+  /**
+   * 获取当前时间格式化后的字符串【截断到精度周期的开始，同一个周期内返回同一个字符串】
+   *
+   * @param dateFormat 日期格式
+   * @return 格式化后的字符串
+   */
+  public String format(DateFormatEnum dateFormat) {
+    Tick tick = tick();
+    int index = dateFormat.ordinal();
+    String formatted = tick.formatted[index];
+    if (null == formatted) {
+      // String是不可变对象，多个线程同时生成时互相覆盖也不影响结果
+      formatted = DateFormatter.of(dateFormat).format(tick.dateTime);
+      tick.formatted[index] = formatted;
+    }
+    return formatted;
+  }
+
+  /**
+   * 获取当前周期的缓存，已经进入下一个周期（或者系统时间回拨）时刷新
+   *
+   * @return 当前周期的缓存
+   */
+  private Tick tick() {
+    long now = System.currentTimeMillis();
+    Tick tick = current.get();
+    if (now >= tick.startMillis && now < tick.endMillis) {
+      return tick;
+    }
+    long start = now - Math.floorMod(now, precisionMillis);
+    LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneId.systemDefault());
+    Tick next = new Tick(start, start + precisionMillis, dateTime, new String[DateFormatEnum.values().length]);
+    // 刷新失败说明其他线程已经刷新，直接使用本次计算的结果
+    current.compareAndSet(tick, next);
+    return next;
+  }
+
+  @Override
+  public String toString() {
+    return "CachedClock[" + precisionMillis + "ms]";
+  }
+
+  /**
+   * 一个精度周期的缓存
+   */
+  private static final class Tick {
+    /**
+     * 周期的开始毫秒数
+     */
+    private final long startMillis;
+    /**
+     * 周期的结束毫秒数（不包含）
+     */
+    private final long endMillis;
+    /**
+     * 周期开始时间对应的系统默认时区的时间
+     */
+    private final LocalDateTime dateTime;
+    /**
+     * 按日期格式的序号缓存的格式化后的字符串
+     */
+    private final String[] formatted;
+
+    private Tick(long startMillis, long endMillis, LocalDateTime dateTime, String[] formatted) {
+      this.startMillis = startMillis;
+      this.endMillis = endMillis;
+      this.dateTime = dateTime;
+      this.formatted = formatted;
+    }
+  }
+}
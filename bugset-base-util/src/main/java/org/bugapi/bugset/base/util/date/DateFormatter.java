@@ -0,0 +1,969 @@
+package org.bugapi.bugset.base.util.date;
+
+import org.bugapi.bugset.base.constant.DateFormatEnum;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.text.Format;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 预编译的日期格式化器
+ * <pre>
+ * 1、每个{@link DateFormatEnum}对应一个格式化器，类加载时编译好DateTimeFormatter，不再每次解析格式
+ * 2、只由yyyy、MM、dd、HH、hh、mm、ss、SSS和普通字符组成的定长格式，直接按字段写入数字，不经过DateTimeFormatter
+ * 3、年份不在1~9999之间，或者值缺少格式需要的字段时，交给DateTimeFormatter处理（包括抛出的异常）
+ * 4、提供写入Appendable的方法，日志、JSON输出时不需要生成中间字符串
+ * 5、解析为毫秒数的方法不抛出异常，不合法的字符串返回{@link #INVALID_MILLIS}，
+ *    定长格式直接按字段解析数字，其他情况通过不抛出解析异常的java.text.Format解析
+ * 6、提供不解析日期的比较器和排序：年份在前、补零的格式直接按字符比较，其他定长格式按字段的数字比较
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class DateFormatter {
+
+  /**
+   * 字段：普通字符
+   */
+  static final int LITERAL = 0;
+
+  /**
+   * 字段：年（yyyy）
+   */
+  static final int YEAR = 1;
+
+  /**
+   * 字段：月（MM）
+   */
+  static final int MONTH = 2;
+
+  /**
+   * 字段：日（dd）
+   */
+  static final int DAY = 3;
+
+  /**
+   * 字段：24小时制的时（HH）
+   */
+  static final int HOUR = 4;
+
+  /**
+   * 字段：12小时制的时（hh）
+   */
+  static final int HOUR_OF_AMPM = 5;
+
+  /**
+   * 字段：分（mm）
+   */
+  static final int MINUTE = 6;
+
+  /**
+   * 字段：秒（ss）
+   */
+  static final int SECOND = 7;
+
+  /**
+   * 字段：毫秒（SSS）
+   */
+  static final int MILLI = 8;
+
+  /**
+   * 每个字段的宽度，下标为字段
+   */
+  static final int[] FIELD_WIDTHS = {1, 4, 2, 2, 2, 2, 2, 2, 3};
+
+  /**
+   * 10的0~4次方
+   */
+  private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L};
+
+  /**
+   * 解析失败时返回的毫秒数
+   */
+  public static final long INVALID_MILLIS = Long.MIN_VALUE;
+
+  /**
+   * 按枚举的序号存放的格式化器
+   */
+  private static final DateFormatter[] FORMATTERS;
+
+  static {
+    DateFormatEnum[] values = DateFormatEnum.values();
+    FORMATTERS = new DateFormatter[values.length];
+    for (DateFormatEnum value : values) {
+      FORMATTERS[value.ordinal()] = new DateFormatter(value);
+    }
+  }
+
+  /**
+   * 日期格式
+   */
+  private final DateFormatEnum dateFormat;
+
+  /**
+   * 预编译的DateTimeFormatter
+   */
+  private final DateTimeFormatter formatter;
+
+  /**
+   * 定长格式的字段，不是定长格式时为null
+   */
+  private final int[] fields;
+
+  /**
+   * 普通字符字段对应的字符
+   */
+  private final char[] literals;
+
+  /**
+   * 格式化后的长度
+   */
+  private final int width;
+
+  /**
+   * 是否包含年月日
+   */
+  private final boolean hasDate;
+
+  /**
+   * 是否包含时分秒
+   */
+  private final boolean hasTime;
+
+  /**
+   * 是否是12小时制【没有上下午标记，按日期时间解析时总是失败】
+   */
+  private final boolean hasAmPm;
+
+  /**
+   * 是否包含完整的年月日【不完整时总是解析失败】
+   */
+  private final boolean hasFullDate;
+
+  /**
+   * 按日期时间解析的Format【解析失败时返回null，不抛出异常】
+   */
+  private final Format dateTimeParser;
+
+  /**
+   * 按日期解析的Format【解析失败时返回null，不抛出异常】
+   */
+  private final Format dateParser;
+
+  /**
+   * 每个字段在格式化后的字符串中的开始位置，下标为字段，格式中没有该字段时为-1
+   */
+  private final int[] fieldPositions;
+
+  /**
+   * 是否可以直接按字符比较【定长格式，字段按年月日时分秒毫秒的顺序排列，并且不是12小时制】
+   */
+  private final boolean lexicographic;
+
+  /**
+   * 日期字符串的比较器
+   */
+  private final Comparator<String> comparator;
+
+  private DateFormatter(DateFormatEnum dateFormat) {
+    this.dateFormat = dateFormat;
+    this.formatter = DateTimeFormatter.ofPattern(dateFormat.getFormat());
+    this.dateTimeParser = formatter.toFormat(LocalDateTime::from);
+    this.dateParser = formatter.toFormat(LocalDate::from);
+    String pattern = dateFormat.getFormat();
+    int[] parsedFields = new int[pattern.length()];
+    char[] parsedLiterals = new char[pattern.length()];
+    int count = 0;
+    int parsedWidth = 0;
+    boolean date = false;
+    boolean time = false;
+    for (int i = 0; i < pattern.length() && null != parsedFields; ) {
+      char c = pattern.charAt(i);
+      int end = i;
+      while (end < pattern.length() && pattern.charAt(end) == c) {
+        end++;
+      }
+      int field = toField(c);
+      if (field == LITERAL && !isLetter(c) && c != '\'') {
+        for (; i < end; i++) {
+          parsedLiterals[count] = c;
+          parsedFields[count++] = LITERAL;
+          parsedWidth++;
+        }
+      } else if (field != LITERAL && end - i == FIELD_WIDTHS[field]) {
+        date |= field <= DAY;
+        time |= field > DAY;
+        parsedFields[count++] = field;
+        parsedWidth += FIELD_WIDTHS[field];
+        i = end;
+      } else {
+        // 其他字母、引号或者宽度不同的字段交给DateTimeFormatter处理
+        parsedFields = null;
+      }
+    }
+    if (null == parsedFields) {
+      this.fields = null;
+      this.literals = null;
+      this.width = -1;
+    } else {
+      this.fields = Arrays.copyOf(parsedFields, count);
+      this.literals = Arrays.copyOf(parsedLiterals, count);
+      this.width = parsedWidth;
+    }
+    this.hasDate = date;
+    this.hasTime = time;
+    this.hasAmPm = null != fields && contains(fields, HOUR_OF_AMPM);
+    this.hasFullDate = null != fields && contains(fields, YEAR) && contains(fields, MONTH) && contains(fields, DAY);
+    this.fieldPositions = new int[FIELD_WIDTHS.length];
+    Arrays.fill(fieldPositions, -1);
+    boolean ordered = null != fields && !hasAmPm;
+    int previous = LITERAL;
+    for (int i = 0, position = 0; null != fields && i < fields.length; position += FIELD_WIDTHS[fields[i]], i++) {
+      if (fields[i] != LITERAL) {
+        fieldPositions[fields[i]] = position;
+        ordered &= fields[i] > previous;
+        previous = fields[i];
+      }
+    }
+    this.lexicographic = ordered;
+    if (lexicographic) {
+      this.comparator = (first, second) -> {
+        boolean firstValid = isWellFormed(first);
+        boolean secondValid = isWellFormed(second);
+        if (firstValid && secondValid) {
+          return first.compareTo(second);
+        }
+        return compareInvalid(first, firstValid, second, secondValid);
+      };
+    } else if (null != fields) {
+      this.comparator = (first, second) -> {
+        boolean firstValid = isWellFormed(first);
+        boolean secondValid = isWellFormed(second);
+        if (firstValid && secondValid) {
+          return Long.compare(sortKey(first), sortKey(second));
+        }
+        return compareInvalid(first, firstValid, second, secondValid);
+      };
+    } else {
+      this.comparator = (first, second) -> {
+        long firstMillis = null == first ? INVALID_MILLIS : parseMillis(first);
+        long secondMillis = null == second ? INVALID_MILLIS : parseMillis(second);
+        boolean firstValid = firstMillis != INVALID_MILLIS;
+        boolean secondValid = secondMillis != INVALID_MILLIS;
+        if (firstValid && secondValid) {
+          return Long.compare(firstMillis, secondMillis);
+        }
+        return compareInvalid(first, firstValid, second, secondValid);
+      };
+    }
+  }
+
+  /**
+   * 获取日期格式对应的格式化器
+   *
+   * @param dateFormat 日期格式
+   * @return 格式化器
+   */
+  public static DateFormatter of(DateFormatEnum dateFormat) {
+    return FORMATTERS[dateFormat.ordinal()];
+  }
+
+  /**
+   * 获取日期格式
+   *
+   * @return 日期格式
+   */
+  public DateFormatEnum getDateFormat() {
+    return dateFormat;
+  }
+
+  /**
+   * 获取预编译的DateTimeFormatter
+   *
+   * @return DateTimeFormatter
+   */
+  public DateTimeFormatter getFormatter() {
+    return formatter;
+  }
+
+  /**
+   * 是否是可以直接按字段写入数字的定长格式
+   *
+   * @return 是否是定长格式
+   */
+  public boolean isFixedWidth() {
+    return null != fields;
+  }
+
+  /**
+   * 格式化日期时间
+   *
+   * @param dateTime 日期时间
+   * @return 格式化后的字符串
+   */
+  public String format(LocalDateTime dateTime) {
+    if (!isFast(dateTime.getYear(), true, true)) {
+      return dateTime.format(formatter);
+    }
+    return print(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(),
+        dateTime.getMinute(), dateTime.getSecond(), dateTime.getNano());
+  }
+
+  /**
+   * 格式化日期
+   *
+   * @param date 日期
+   * @return 格式化后的字符串
+   */
+  public String format(LocalDate date) {
+    if (!isFast(date.getYear(), true, false)) {
+      return date.format(formatter);
+    }
+    return print(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), 0, 0, 0, 0);
+  }
+
+  /**
+   * 格式化时间
+   *
+   * @param time 时间
+   * @return 格式化后的字符串
+   */
+  public String format(LocalTime time) {
+    if (!isFast(1, false, true)) {
+      return time.format(formatter);
+    }
+    return print(1, 1, 1, time.getHour(), time.getMinute(), time.getSecond(), time.getNano());
+  }
+
+  /**
+   * 格式化日期时间并写入StringBuilder
+   *
+   * @param dateTime 日期时间
+   * @param builder  StringBuilder
+   * @return 传入的StringBuilder
+   */
+  public StringBuilder appendTo(LocalDateTime dateTime, StringBuilder builder) {
+    try {
+      appendTo(dateTime, (Appendable) builder);
+    } catch (IOException e) {
+      // StringBuilder不会抛出IO异常
+      throw new UncheckedIOException(e);
+    }
+    return builder;
+  }
+
+  /**
+   * 格式化日期时间并写入Appendable【例如Writer、StringBuilder】
+   *
+   * @param dateTime   日期时间
+   * @param appendable Appendable
+   * @throws IOException 写入时的IO异常
+   */
+  public void appendTo(LocalDateTime dateTime, Appendable appendable) throws IOException {
+    if (!isFast(dateTime.getYear(), true, true)) {
+      formatTo(dateTime, appendable);
+      return;
+    }
+    print(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(),
+        dateTime.getMinute(), dateTime.getSecond(), dateTime.getNano(), appendable);
+  }
+
+  /**
+   * 格式化时间并写入Appendable
+   *
+   * @param time       时间
+   * @param appendable Appendable
+   * @throws IOException 写入时的IO异常
+   */
+  public void appendTo(LocalTime time, Appendable appendable) throws IOException {
+    if (!isFast(1, false, true)) {
+      formatTo(time, appendable);
+      return;
+    }
+    print(1, 1, 1, time.getHour(), time.getMinute(), time.getSecond(), time.getNano(), appendable);
+  }
+
+  /**
+   * 按系统默认时区把字符串解析为毫秒数【不抛出异常】
+   * 和{@link DateUtil#formatStringToDate(String, DateFormatEnum)}一致：包含:时按日期时间解析，否则按日期解析并取当天开始时间
+   *
+   * @param text 日期字符串
+   * @return 毫秒数，不合法时为{@link #INVALID_MILLIS}
+   */
+  public long parseMillis(CharSequence text) {
+    return parseMillis(text, ZoneOffsets.of(ZoneId.systemDefault()));
+  }
+
+  /**
+   * 按指定时区把字符串解析为毫秒数【不抛出异常】
+   *
+   * @param text 日期字符串
+   * @param zone 时区
+   * @return 毫秒数，不合法时为{@link #INVALID_MILLIS}
+   */
+  public long parseMillis(CharSequence text, ZoneId zone) {
+    return parseMillis(text, ZoneOffsets.of(zone));
+  }
+
+  /**
+   * 按系统默认时区批量把字符串解析为毫秒数【不抛出异常，用于导入等批量处理】
+   *
+   * @param texts 日期字符串
+   * @return 毫秒数，不合法或者为null的位置为{@link #INVALID_MILLIS}
+   */
+  public long[] parseMillis(CharSequence[] texts) {
+    return parseMillis(texts, ZoneId.systemDefault());
+  }
+
+  /**
+   * 按指定时区批量把字符串解析为毫秒数【不抛出异常，用于导入等批量处理】
+   *
+   * @param texts 日期字符串
+   * @param zone  时区
+   * @return 毫秒数，不合法或者为null的位置为{@link #INVALID_MILLIS}
+   */
+  public long[] parseMillis(CharSequence[] texts, ZoneId zone) {
+    ZoneOffsets offsets = ZoneOffsets.of(zone);
+    long[] result = new long[texts.length];
+    for (int i = 0; i < texts.length; i++) {
+      result[i] = parseMillis(texts[i], offsets);
+    }
+    return result;
+  }
+
+  /**
+   * 是否可以直接按字符比较（年份在前、补零的定长格式）
+   *
+   * @return 是否可以直接按字符比较
+   */
+  public boolean isLexicographic() {
+    return lexicographic;
+  }
+
+  /**
+   * 获取日期字符串的比较器【不解析日期，按时间先后升序】
+   * <pre>
+   * 1、年份在前、补零的格式直接按字符比较，其他定长格式按年月日时分秒毫秒的数字比较（12小时制的12点按0点）
+   * 2、格式不正确（长度、分隔符或者数字不符合格式）的字符串排在后面并按字符串比较，null排在最后
+   * 3、只比较字符串表示的值，例如2019-02-30和2019-02-28不相等，夏令时间隙中的时间也不会调整，和解析后的日期不完全一致
+   * </pre>
+   *
+   * @return 比较器
+   */
+  public Comparator<String> comparator() {
+    return comparator;
+  }
+
+  /**
+   * 按时间先后对日期字符串数组排序【排序规则和{@link #comparator()}一致】
+   * 按字符比较的格式先把格式不正确的字符串移到末尾，再直接按字符串的自然顺序排序
+   *
+   * @param values   日期字符串
+   * @param parallel 是否并行排序
+   */
+  public void sort(String[] values, boolean parallel) {
+    if (null == fields) {
+      sort(values, 0, values.length, comparator, parallel);
+      return;
+    }
+    int valid = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (isWellFormed(values[i])) {
+        String value = values[i];
+        values[i] = values[valid];
+        values[valid++] = value;
+      }
+    }
+    sort(values, 0, valid, lexicographic ? null : comparator, parallel);
+    sort(values, valid, values.length, Comparator.nullsLast(Comparator.naturalOrder()), parallel);
+  }
+
+  @Override
+  public String toString() {
+    return dateFormat.getFormat();
+  }
+
+  /**
+   * 获取定长格式的字段
+   *
+   * @return 字段，不是定长格式时为null
+   */
+  int[] getFields() {
+    return fields;
+  }
+
+  /**
+   * 获取普通字符字段对应的字符
+   *
+   * @return 字符，不是定长格式时为null
+   */
+  char[] getLiterals() {
+    return literals;
+  }
+
+  /**
+   * 获取定长格式格式化后的长度
+   *
+   * @return 长度，不是定长格式时为-1
+   */
+  int getWidth() {
+    return width;
+  }
+
+  /**
+   * 是否可以直接按字段写入
+   *
+   * @param year         年份
+   * @param dateProvided 值是否有年月日
+   * @param timeProvided 值是否有时分秒
+   * @return 是否可以直接按字段写入
+   */
+  private boolean isFast(int year, boolean dateProvided, boolean timeProvided) {
+    return null != fields && year >= 1 && year <= 9999 && (dateProvided || !hasDate) && (timeProvided || !hasTime);
+  }
+
+  /**
+   * 把字符串解析为毫秒数
+   *
+   * @param text  日期字符串
+   * @param offsets 时区偏移
+   * @return 毫秒数，不合法时为{@link #INVALID_MILLIS}
+   */
+  private long parseMillis(CharSequence text, ZoneOffsets offsets) {
+    if (null == text) {
+      return INVALID_MILLIS;
+    }
+    boolean dateTime = indexOf(text, ':') >= 0;
+    if (null == fields || text.length() != width) {
+      return parseByFormat(text.toString(), dateTime, offsets);
+    }
+    // 缺少年月日、按日期时间解析但没有时分秒或者是12小时制时，DateTimeFormatter也一定解析失败
+    if (!hasFullDate || (dateTime && (!hasTime || hasAmPm))) {
+      return INVALID_MILLIS;
+    }
+    int year = 0;
+    int month = 0;
+    int day = 0;
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int milli = 0;
+    int position = 0;
+    for (int i = 0; i < fields.length; i++) {
+      int field = fields[i];
+      if (field == LITERAL) {
+        if (text.charAt(position++) != literals[i]) {
+          return INVALID_MILLIS;
+        }
+        continue;
+      }
+      int value = readDigits(text, position, FIELD_WIDTHS[field]);
+      if (value < 0) {
+        return INVALID_MILLIS;
+      }
+      position += FIELD_WIDTHS[field];
+      switch (field) {
+        case YEAR:
+          year = value;
+          break;
+        case MONTH:
+          month = value;
+          break;
+        case DAY:
+          day = value;
+          break;
+        case HOUR:
+        case HOUR_OF_AMPM:
+          hour = value;
+          break;
+        case MINUTE:
+          minute = value;
+          break;
+        case SECOND:
+          second = value;
+          break;
+        default:
+          milli = value;
+          break;
+      }
+    }
+    // 和DateTimeFormatter默认的SMART解析规则一致
+    if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || minute > 59 || second > 59
+        || hour > (hasAmPm ? 12 : 24) || (hour == 24 && (minute != 0 || second != 0 || milli != 0))) {
+      return INVALID_MILLIS;
+    }
+    // 日期超出当月天数时取当月最后一天
+    day = Math.min(day, EpochDays.lengthOfMonth(year, month));
+    long epochDay = EpochDays.toEpochDay(year, month, day);
+    if (hour == 24) {
+      // 24:00:00为第二天的开始
+      epochDay++;
+      hour = 0;
+    }
+    long localSecond = epochDay * EpochDays.SECONDS_PER_DAY;
+    if (dateTime) {
+      localSecond += hour * 3600 + minute * 60 + second;
+    } else {
+      milli = 0;
+    }
+    return (localSecond - offsets.getLocalOffset(localSecond)) * 1000 + milli;
+  }
+
+  /**
+   * 通过DateTimeFormatter转换的Format解析【解析失败不抛出异常】
+   *
+   * @param text     日期字符串
+   * @param dateTime 是否按日期时间解析
+   * @param offsets  时区偏移
+   * @return 毫秒数，不合法时为{@link #INVALID_MILLIS}
+   */
+  private long parseByFormat(String text, boolean dateTime, ZoneOffsets offsets) {
+    ParsePosition position = new ParsePosition(0);
+    Object parsed = (dateTime ? dateTimeParser : dateParser).parseObject(text, position);
+    if (null == parsed || position.getIndex() != text.length()) {
+      return INVALID_MILLIS;
+    }
+    LocalDateTime localDateTime = dateTime ? (LocalDateTime) parsed : ((LocalDate) parsed).atStartOfDay();
+    long localSecond = localDateTime.toEpochSecond(ZoneOffset.UTC);
+    long seconds = localSecond - offsets.getLocalOffset(localSecond);
+    if (seconds > Long.MAX_VALUE / 1000 - 1 || seconds < Long.MIN_VALUE / 1000 + 1) {
+      return INVALID_MILLIS;
+    }
+    return seconds * 1000 + localDateTime.getNano() / 1_000_000;
+  }
+
+  /**
+   * 通过DateTimeFormatter格式化并写入Appendable
+   *
+   * @param temporal   日期时间
+   * @param appendable Appendable
+   * @throws IOException 写入时的IO异常
+   */
+  private void formatTo(TemporalAccessor temporal, Appendable appendable) throws IOException {
+    if (appendable instanceof StringBuilder) {
+      formatter.formatTo(temporal, appendable);
+    } else {
+      appendable.append(formatter.format(temporal));
+    }
+  }
+
+  /**
+   * 按字段写入数字并生成字符串
+   */
+  private String print(int year, int month, int day, int hour, int minute, int second, int nano) {
+    char[] buffer = new char[width];
+    print(year, month, day, hour, minute, second, nano, buffer);
+    return new String(buffer);
+  }
+
+  /**
+   * 按字段写入数字并写入Appendable
+   */
+  private void print(int year, int month, int day, int hour, int minute, int second, int nano, Appendable appendable)
+      throws IOException {
+    char[] buffer = new char[width];
+    print(year, month, day, hour, minute, second, nano, buffer);
+    if (appendable instanceof StringBuilder) {
+      ((StringBuilder) appendable).append(buffer);
+    } else if (appendable instanceof Writer) {
+      ((Writer) appendable).write(buffer);
+    } else {
+      appendable.append(CharBuffer.wrap(buffer));
+    }
+  }
+
+  /**
+   * 按字段把数字写入字符数组
+   */
+  private void print(int year, int month, int day, int hour, int minute, int second, int nano, char[] buffer) {
+    int position = 0;
+    for (int i = 0; i < fields.length; i++) {
+      switch (fields[i]) {
+        case YEAR:
+          writeTwoDigits(year / 100, buffer, position);
+          writeTwoDigits(year % 100, buffer, position + 2);
+          position += 4;
+          break;
+        case MONTH:
+          position = writeTwoDigits(month, buffer, position);
+          break;
+        case DAY:
+          position = writeTwoDigits(day, buffer, position);
+          break;
+        case HOUR:
+          position = writeTwoDigits(hour, buffer, position);
+          break;
+        case HOUR_OF_AMPM:
+          int hourOfAmPm = hour % 12;
+          position = writeTwoDigits(hourOfAmPm == 0 ? 12 : hourOfAmPm, buffer, position);
+          break;
+        case MINUTE:
+          position = writeTwoDigits(minute, buffer, position);
+          break;
+        case SECOND:
+          position = writeTwoDigits(second, buffer, position);
+          break;
+        case MILLI:
+          int milli = nano / 1_000_000;
+          buffer[position++] = (char) ('0' + milli / 100);
+          position = writeTwoDigits(milli % 100, buffer, position);
+          break;
+        default:
+          buffer[position++] = literals[i];
+          break;
+      }
+    }
+  }
+
+  /**
+   * 写入两位数字
+   *
+   * @param value    0~99的数字
+   * @param buffer   字符数组
+   * @param position 写入的位置
+   * @return 写入后的位置
+   */
+  private static int writeTwoDigits(int value, char[] buffer, int position) {
+    buffer[position] = (char) ('0' + value / 10);
+    buffer[position + 1] = (char) ('0' + value % 10);
+    return position + 2;
+  }
+
+  /**
+   * 是否是符合定长格式的字符串（长度、普通字符和数字位置都一致）
+   *
+   * @param text 字符串
+   * @return 是否符合格式
+   */
+  boolean isWellFormed(CharSequence text) {
+    if (null == text || null == fields || text.length() != width) {
+      return false;
+    }
+    for (int i = 0, position = 0; i < fields.length; i++) {
+      if (fields[i] == LITERAL) {
+        if (text.charAt(position++) != literals[i]) {
+          return false;
+        }
+      } else {
+        for (int end = position + FIELD_WIDTHS[fields[i]]; position < end; position++) {
+          char c = text.charAt(position);
+          if (c < '0' || c > '9') {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 按年月日时分秒毫秒的顺序把字段的数字拼接为排序用的数字【字符串必须符合定长格式】
+   *
+   * @param text 符合定长格式的字符串
+   * @return 排序用的数字
+   */
+  long sortKey(CharSequence text) {
+    long key = 0;
+    for (int field = YEAR; field <= MILLI; field++) {
+      int position = fieldPositions[field];
+      if (position >= 0) {
+        int value = readDigits(text, position, FIELD_WIDTHS[field]);
+        key = key * POWERS_OF_TEN[FIELD_WIDTHS[field]] + (field == HOUR_OF_AMPM ? value % 12 : value);
+      }
+    }
+    return key;
+  }
+
+  /**
+   * 获取和解析后的日期比较结果一致的比较用的数字
+   * 只有字段的值都在正常范围内（不需要SMART规则调整）并且解析出的本地时间在时区中存在（不在夏令时的间隙中）时才直接计算，
+   * 其他情况需要解析
+   *
+   * @param text     日期字符串
+   * @param withTime 是否包含时分秒（不包含时只比较年月日）
+   * @param zone     解析使用的时区
+   * @return 比较用的数字，不能直接计算时为-1
+   */
+  long compareKey(CharSequence text, boolean withTime, ZoneId zone) {
+    if (!hasFullDate || hasAmPm || !isWellFormed(text)) {
+      return -1;
+    }
+    int year = readDigits(text, fieldPositions[YEAR], 4);
+    int month = readDigits(text, fieldPositions[MONTH], 2);
+    int day = readDigits(text, fieldPositions[DAY], 2);
+    int hour = fieldPositions[HOUR] < 0 ? 0 : readDigits(text, fieldPositions[HOUR], 2);
+    int minute = fieldPositions[MINUTE] < 0 ? 0 : readDigits(text, fieldPositions[MINUTE], 2);
+    int second = fieldPositions[SECOND] < 0 ? 0 : readDigits(text, fieldPositions[SECOND], 2);
+    if (year < 1 || month < 1 || month > 12 || day < 1 || day > EpochDays.lengthOfMonth(year, month)
+        || hour > 23 || minute > 59 || second > 59) {
+      return -1;
+    }
+    long localSecond = EpochDays.toEpochDay(year, month, day) * EpochDays.SECONDS_PER_DAY;
+    if (isParsedWithTime()) {
+      localSecond += hour * 3600 + minute * 60 + second;
+    }
+    ZoneOffsets offsets = ZoneOffsets.of(zone);
+    long epochSecond = localSecond - offsets.getLocalOffset(localSecond);
+    if (epochSecond + offsets.getOffset(epochSecond) != localSecond) {
+      return -1;
+    }
+    long key = (year * 100L + month) * 100 + day;
+    return withTime ? ((key * 100 + hour) * 100 + minute) * 100 + second : key;
+  }
+
+  /**
+   * 按日期时间解析时是否包含时分秒（格式中包含:时按日期时间解析）
+   *
+   * @return 是否包含时分秒
+   */
+  boolean isParsedWithTime() {
+    if (!hasTime || null == literals) {
+      return false;
+    }
+    for (char literal : literals) {
+      if (literal == ':') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 至少有一个格式不正确时的比较【格式正确的在前，格式不正确的按字符串比较，null在最后】
+   */
+  private static int compareInvalid(String first, boolean firstValid, String second, boolean secondValid) {
+    if (firstValid != secondValid) {
+      return firstValid ? -1 : 1;
+    }
+    if (null == first || null == second) {
+      return null == first ? (null == second ? 0 : 1) : -1;
+    }
+    return first.compareTo(second);
+  }
+
+  /**
+   * 排序数组的指定范围
+   *
+   * @param values     数组
+   * @param from       开始位置（包含）
+   * @param to         结束位置（不包含）
+   * @param comparator 比较器，为null时按自然顺序
+   * @param parallel   是否并行排序
+   */
+  private static void sort(String[] values, int from, int to, Comparator<String> comparator, boolean parallel) {
+    if (parallel) {
+      Arrays.parallelSort(values, from, to, null == comparator ? Comparator.naturalOrder() : comparator);
+    } else if (null == comparator) {
+      Arrays.sort(values, from, to);
+    } else {
+      Arrays.sort(values, from, to, comparator);
+    }
+  }
+
+  /**
+   * 读取指定宽度的十进制数字
+   *
+   * @param text     字符串
+   * @param position 开始位置
+   * @param length   宽度
+   * @return 数字，包含非数字字符时为-1
+   */
+  private static int readDigits(CharSequence text, int position, int length) {
+    int value = 0;
+    for (int i = position, end = position + length; i < end; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  /**
+   * 查找字符的位置
+   *
+   * @param text 字符串
+   * @param c    字符
+   * @return 位置，不存在时为-1
+   */
+  private static int indexOf(CharSequence text, char c) {
+    if (text instanceof String) {
+      return ((String) text).indexOf(c);
+    }
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * 字段中是否包含指定字段
+   *
+   * @param fields 字段
+   * @param field  字段
+   * @return 是否包含
+   */
+  private static boolean contains(int[] fields, int field) {
+    for (int value : fields) {
+      if (value == field) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 格式字母对应的字段
+   *
+   * @param c 格式字母
+   * @return 字段，不支持的字母为普通字符
+   */
+  private static int toField(char c) {
+    switch (c) {
+      case 'y':
+        return YEAR;
+      case 'M':
+        return MONTH;
+      case 'd':
+        return DAY;
+      case 'H':
+        return HOUR;
+      case 'h':
+        return HOUR_OF_AMPM;
+      case 'm':
+        return MINUTE;
+      case 's':
+        return SECOND;
+      case 'S':
+        return MILLI;
+      default:
+        return LITERAL;
+    }
+  }
+
+  /**
+   * 是否是DateTimeFormatter保留的格式字母
+   *
+   * @param c 字符
+   * @return 是否是字母
+   */
+  private static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+}
@@ -2,14 +2,16 @@ package org.bugapi.bugset.base.util.date;
 
 import org.bugapi.bugset.base.constant.DateFormatEnum;
 import org.bugapi.bugset.base.constant.DateTypeEnum;
-import org.bugapi.bugset.base.constant.SymbolType;
 
+import java.io.IOException;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
 
 /**
  * 日期工具类
@@ -19,6 +21,11 @@ import java.util.Date;
  */
 public class DateUtil {
 
+  /**
+   * 毫秒数数组批量计算时，并行计算的最小长度
+   */
+  private static final int PARALLEL_THRESHOLD = 1 << 13;
+
   /**
    * 返回当前日期格式化后的字符串
    *
@@ -38,6 +45,36 @@ public class DateUtil {
     return formatDateToString(null, dateformatnum);
   }
 
+  /**
+   * 返回秒级精度缓存的当前日期格式化后的字符串（同一秒内返回同一个字符串，适用于日志、审计等高频调用）
+   *
+   * @return 格式化后的日期
+   */
+  public static String formatCachedCurrentDateToString() {
+    return CachedClock.SECOND.format(DateFormatEnum.YYYYMMDDHH24MMSS_BAR);
+  }
+
+  /**
+   * 返回秒级精度缓存的当前日期格式化后的字符串（毫秒部分总是000）
+   *
+   * @param dateformatnum 日期格式
+   * @return 格式化后的日期
+   */
+  public static String formatCachedCurrentDateToString(DateFormatEnum dateformatnum) {
+    return CachedClock.SECOND.format(dateformatnum);
+  }
+
+  /**
+   * 返回指定精度缓存的当前日期格式化后的字符串
+   *
+   * @param dateformatnum 日期格式
+   * @param clock 缓存的时钟，例如{@link CachedClock#MILLISECOND}
+   * @return 格式化后的日期
+   */
+  public static String formatCachedCurrentDateToString(DateFormatEnum dateformatnum, CachedClock clock) {
+    return clock.format(dateformatnum);
+  }
+
   /**
    * 返回日期格式化后的字符串
    *
@@ -59,8 +96,20 @@ public class DateUtil {
    */
   public static String formatLocalDateTimeToString(LocalDateTime localDateTime,
       DateFormatEnum dateformatnum) {
-    DateTimeFormatter dtf = DateTimeFormatter.ofPattern(dateformatnum.getFormat());
-    return localDateTime.format(dtf);
+    return DateFormatter.of(dateformatnum).format(localDateTime);
+  }
+
+  /**
+   * 将日期格式化后写入Appendable（例如日志、JSON的Writer），不生成中间字符串
+   *
+   * @param localDateTime 日期
+   * @param dateformatnum 日期格式
+   * @param appendable 写入的目标
+   * @throws IOException 写入时的IO异常
+   */
+  public static void formatLocalDateTimeTo(LocalDateTime localDateTime, DateFormatEnum dateformatnum,
+      Appendable appendable) throws IOException {
+    DateFormatter.of(dateformatnum).appendTo(localDateTime, appendable);
   }
 
   /**
@@ -71,8 +120,7 @@ public class DateUtil {
    * @return 格式化后的日期
    */
   public static String formatLocalTimeToString(LocalTime localTime, DateFormatEnum dateformatnum) {
-    DateTimeFormatter dtf = DateTimeFormatter.ofPattern(dateformatnum.getFormat());
-    return localTime.format(dtf);
+    return DateFormatter.of(dateformatnum).format(localTime);
   }
 
   /**
@@ -83,24 +131,34 @@ public class DateUtil {
    * @return 日期字符串解析后的日期 {@link DateFormatEnum}
    */
   public static Date formatStringToDate(String dateStr, DateFormatEnum dateformatnum) {
-    DateTimeFormatter dtf = DateTimeFormatter.ofPattern(dateformatnum.getFormat());
-    if (dateStr.contains(SymbolType.COLON)) {
-      LocalDateTime dateTime;
-      try {
-        dateTime = LocalDateTime.parse(dateStr, dtf);
-      } catch (DateTimeParseException e) {
-        return null;
-      }
-      return localDateTimeToDate(dateTime);
-    } else {
-      LocalDate date;
-      try {
-        date = LocalDate.parse(dateStr, dtf);
-      } catch (DateTimeParseException e) {
-        return null;
-      }
-      return localDateToDate(date);
+    long millis = DateFormatter.of(dateformatnum).parseMillis(dateStr);
+    if (millis == DateFormatter.INVALID_MILLIS) {
+      return null;
     }
+    // 日期时间转为Date时截断到秒
+    return new Date(millis - Math.floorMod(millis, 1000L));
+  }
+
+  /**
+   * 返回日期字符串解析后的毫秒数，不抛出异常（包含:时按日期时间解析，否则按日期解析）
+   *
+   * @param dateStr 日期字符串
+   * @param dateformatnum 日期格式
+   * @return 毫秒数，日期字符串不合法时为{@link DateFormatter#INVALID_MILLIS}
+   */
+  public static long formatStringToMillis(String dateStr, DateFormatEnum dateformatnum) {
+    return DateFormatter.of(dateformatnum).parseMillis(dateStr);
+  }
+
+  /**
+   * 批量返回日期字符串解析后的毫秒数，不抛出异常（用于导入等批量处理）
+   *
+   * @param dateStrs 日期字符串
+   * @param dateformatnum 日期格式
+   * @return 毫秒数，日期字符串不合法或者为null的位置为{@link DateFormatter#INVALID_MILLIS}
+   */
+  public static long[] formatStringsToMillis(String[] dateStrs, DateFormatEnum dateformatnum) {
+    return DateFormatter.of(dateformatnum).parseMillis(dateStrs);
   }
 
   /**
@@ -260,6 +318,10 @@ public class DateUtil {
    * secondDate
    */
   public static int compareDate(String firstDate, String secondDate, DateFormatEnum dateformatnum) {
+    Integer result = compareWithoutParse(firstDate, secondDate, dateformatnum, false);
+    if (null != result) {
+      return result;
+    }
     return compareDate(formatStringToDate(firstDate, dateformatnum),
         formatStringToDate(secondDate, dateformatnum));
   }
@@ -275,10 +337,60 @@ public class DateUtil {
    */
   public static int compareDateTime(String firstDate, String secondDate,
       DateFormatEnum dateformatnum) {
+    DateFormatter formatter = DateFormatter.of(dateformatnum);
+    Integer result = compareWithoutParse(firstDate, secondDate, dateformatnum, formatter.isParsedWithTime());
+    if (null != result) {
+      return result;
+    }
     return compareDateTime(formatStringToDate(firstDate, dateformatnum),
         formatStringToDate(secondDate, dateformatnum));
   }
 
+  /**
+   * 字段的值都在正常范围内时不解析日期，直接按字段的数字比较
+   *
+   * @param firstDate 第一个日期
+   * @param secondDate 第二个日期
+   * @param dateformatnum 指定日期格式
+   * @param withTime 是否比较时分秒
+   * @return 比较结果（和compareDate一致），需要解析时为null
+   */
+  private static Integer compareWithoutParse(String firstDate, String secondDate, DateFormatEnum dateformatnum,
+      boolean withTime) {
+    DateFormatter formatter = DateFormatter.of(dateformatnum);
+    ZoneId zone = ZoneId.systemDefault();
+    long firstKey = formatter.compareKey(firstDate, withTime, zone);
+    long secondKey = formatter.compareKey(secondDate, withTime, zone);
+    if (firstKey < 0 || secondKey < 0) {
+      return null;
+    }
+    if (firstKey == secondKey) {
+      return 0;
+    }
+    return firstKey < secondKey ? 1 : -1;
+  }
+
+  /**
+   * 获取日期字符串的比较器，不解析日期（年份在前、补零的格式直接按字符比较），按时间先后升序
+   *
+   * @param dateformatnum 日期格式
+   * @return 比较器 {@link DateFormatter#comparator()}
+   */
+  public static Comparator<String> getDateComparator(DateFormatEnum dateformatnum) {
+    return DateFormatter.of(dateformatnum).comparator();
+  }
+
+  /**
+   * 按时间先后对日期字符串数组排序（格式不正确的排在后面），用于大批量的日期列
+   *
+   * @param dates 日期字符串
+   * @param dateformatnum 日期格式
+   * @param parallel 是否并行排序
+   */
+  public static void sortDateStrings(String[] dates, DateFormatEnum dateformatnum, boolean parallel) {
+    DateFormatter.of(dateformatnum).sort(dates, parallel);
+  }
+
   /**
    * 比较日期（精确到天）
    *
@@ -437,6 +549,32 @@ public class DateUtil {
     return chronoUnit.between(localDateTime1, localDateTime2);
   }
 
+  /**
+   * 增加工作日，时分秒不变
+   *
+   * @param date 待处理时间
+   * @param duration 增加的工作日天数【为负数表示之前的第几个工作日】
+   * @param calendar 工作日日历 {@link BusinessCalendar}
+   * @return Date 修改后的时间
+   */
+  public static Date modifyWorkdays(Date date, long duration, BusinessCalendar calendar) {
+    LocalDateTime localDateTime = dateToLocalDateTime(date);
+    return localDateTimeToDate(calendar.addWorkdays(localDateTime.toLocalDate(), duration)
+        .atTime(localDateTime.toLocalTime()));
+  }
+
+  /**
+   * 获取两个日期之间的工作日天数【包含第一个日期，不包含第二个日期】
+   *
+   * @param firstDate 第一个日期
+   * @param secondDate 第二个日期
+   * @param calendar 工作日日历 {@link BusinessCalendar}
+   * @return 工作日天数，第二个日期在第一个日期之前时为负数
+   */
+  public static long getWorkdayDuration(Date firstDate, Date secondDate, BusinessCalendar calendar) {
+    return calendar.getWorkdaysBetween(dateToLocalDate(firstDate), dateToLocalDate(secondDate));
+  }
+
 
   /**
    * 获取当月的总天数
@@ -456,6 +594,144 @@ public class DateUtil {
     return dateToLocalDate(date).lengthOfMonth();
   }
 
+  /**
+   * 批量获取毫秒数所在日期的开始时间（00:00:00）的毫秒数（按系统默认时区，和{@link #getStartDateTimeOfDay(Date)}一致）
+   *
+   * @param millis 毫秒数
+   * @param parallel 长度较大时是否并行计算
+   * @return 所在日期的开始时间的毫秒数
+   */
+  public static long[] getStartMillisOfDay(long[] millis, boolean parallel) {
+    ZoneOffsets offsets = ZoneOffsets.of(ZoneId.systemDefault());
+    return mapMillis(millis, parallel, value -> offsets.toEpochMillis(
+        Math.floorDiv(offsets.toLocalMillis(value), EpochDays.MILLIS_PER_DAY) * EpochDays.MILLIS_PER_DAY));
+  }
+
+  /**
+   * 批量获取毫秒数所在月的第一天的开始时间（00:00:00）的毫秒数（按系统默认时区，和{@link #getFirstDayOfMonth(Date)}一致）
+   *
+   * @param millis 毫秒数
+   * @param parallel 长度较大时是否并行计算
+   * @return 所在月的第一天的开始时间的毫秒数
+   */
+  public static long[] getFirstDayMillisOfMonth(long[] millis, boolean parallel) {
+    ZoneOffsets offsets = ZoneOffsets.of(ZoneId.systemDefault());
+    return mapMillis(millis, parallel, value -> {
+      long yearMonthDay = EpochDays.toYearMonthDay(
+          Math.floorDiv(offsets.toLocalMillis(value), EpochDays.MILLIS_PER_DAY));
+      long epochDay = EpochDays.toEpochDay(EpochDays.year(yearMonthDay), EpochDays.month(yearMonthDay), 1);
+      return offsets.toEpochMillis(epochDay * EpochDays.MILLIS_PER_DAY);
+    });
+  }
+
+  /**
+   * 批量获取毫秒数在所在月中是第几天（按系统默认时区）
+   *
+   * @param millis 毫秒数
+   * @param parallel 长度较大时是否并行计算
+   * @return 所在月中的第几天（from 1 to 31）
+   */
+  public static int[] getDayOfMonth(long[] millis, boolean parallel) {
+    ZoneOffsets offsets = ZoneOffsets.of(ZoneId.systemDefault());
+    int[] result = new int[millis.length];
+    IntUnaryOperator operator = i -> EpochDays.day(EpochDays.toYearMonthDay(
+        Math.floorDiv(offsets.toLocalMillis(millis[i]), EpochDays.MILLIS_PER_DAY)));
+    if (parallel && millis.length >= PARALLEL_THRESHOLD) {
+      Arrays.parallelSetAll(result, operator);
+    } else {
+      for (int i = 0; i < result.length; i++) {
+        result[i] = operator.applyAsInt(i);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 批量对毫秒数加时长（按系统默认时区的本地时间计算，和{@link #modifyDate(Date, long, DateTypeEnum)}一致，但保留毫秒）
+   * 加年、月后日期超出当月天数时取当月最后一天
+   *
+   * @param millis 毫秒数
+   * @param duration 增加时长【为负数表示减去多少个指定单位的时间】
+   * @param dateTypeEnum 日期时间类型，支持年、月、周、天、时、分、秒、毫秒 {@link DateTypeEnum}
+   * @param parallel 长度较大时是否并行计算
+   * @return 修改后的毫秒数
+   */
+  public static long[] modifyMillis(long[] millis, long duration, DateTypeEnum dateTypeEnum, boolean parallel) {
+    ZoneOffsets offsets = ZoneOffsets.of(ZoneId.systemDefault());
+    long months;
+    long step;
+    switch (dateTypeEnum) {
+      case YEAR:
+        months = duration * 12;
+        step = 0;
+        break;
+      case MONTH:
+        months = duration;
+        step = 0;
+        break;
+      case WEEK:
+        months = 0;
+        step = duration * 7 * EpochDays.MILLIS_PER_DAY;
+        break;
+      case DAY:
+        months = 0;
+        step = duration * EpochDays.MILLIS_PER_DAY;
+        break;
+      case HOUR:
+        months = 0;
+        step = duration * 3_600_000L;
+        break;
+      case MINUTE:
+        months = 0;
+        step = duration * 60_000L;
+        break;
+      case SECOND:
+        months = 0;
+        step = duration * 1000L;
+        break;
+      case MILLISECOND:
+        months = 0;
+        step = duration;
+        break;
+      default:
+        throw new IllegalArgumentException("不支持的日期时间类型：" + dateTypeEnum);
+    }
+    if (months == 0) {
+      return mapMillis(millis, parallel, value -> offsets.toEpochMillis(offsets.toLocalMillis(value) + step));
+    }
+    return mapMillis(millis, parallel, value -> {
+      long local = offsets.toLocalMillis(value);
+      long epochDay = Math.floorDiv(local, EpochDays.MILLIS_PER_DAY);
+      long yearMonthDay = EpochDays.toYearMonthDay(epochDay);
+      long month = EpochDays.year(yearMonthDay) * 12 + EpochDays.month(yearMonthDay) - 1 + months;
+      long year = Math.floorDiv(month, 12L);
+      int monthOfYear = (int) Math.floorMod(month, 12L) + 1;
+      int day = Math.min(EpochDays.day(yearMonthDay), EpochDays.lengthOfMonth(year, monthOfYear));
+      long targetDay = EpochDays.toEpochDay(year, monthOfYear, day);
+      return offsets.toEpochMillis(local + (targetDay - epochDay) * EpochDays.MILLIS_PER_DAY);
+    });
+  }
+
+  /**
+   * 对毫秒数数组逐个计算，长度较大时可以并行计算
+   *
+   * @param millis 毫秒数
+   * @param parallel 是否并行计算
+   * @param operator 计算函数
+   * @return 计算结果
+   */
+  private static long[] mapMillis(long[] millis, boolean parallel, LongUnaryOperator operator) {
+    long[] result = new long[millis.length];
+    if (parallel && millis.length >= PARALLEL_THRESHOLD) {
+      Arrays.parallelSetAll(result, i -> operator.applyAsLong(millis[i]));
+    } else {
+      for (int i = 0; i < result.length; i++) {
+        result[i] = operator.applyAsLong(millis[i]);
+      }
+    }
+    return result;
+  }
+
   /**
    * Date 转成 LocalDate
    *
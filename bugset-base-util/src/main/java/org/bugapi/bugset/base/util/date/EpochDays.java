@@ -0,0 +1,150 @@
+package org.bugapi.bugset.base.util.date;
+
+/**
+ * 纪元日（1970-01-01为0）与年月日之间的换算【和LocalDate的算法一致，不创建对象】
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+final class EpochDays {
+
+  /**
+   * 每天的毫秒数
+   */
+  static final long MILLIS_PER_DAY = 86_400_000L;
+
+  /**
+   * 每天的秒数
+   */
+  static final int SECONDS_PER_DAY = 86400;
+
+  /**
+   * 400年的天数
+   */
+  private static final int DAYS_PER_CYCLE = 146097;
+
+  /**
+   * 0000-01-01到1970-01-01的天数
+   */
+  private static final long DAYS_0000_TO_1970 = 719528L;
+
+  private EpochDays() {
+  }
+
+  /**
+   * 计算日期对应的纪元日
+   *
+   * @param year  年
+   * @param month 月
+   * @param day   日
+   * @return 纪元日
+   */
+  static long toEpochDay(long year, int month, int day) {
+    long total = 365 * year;
+    if (year >= 0) {
+      total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    } else {
+      total -= year / -4 - year / -100 + year / -400;
+    }
+    total += (367 * month - 362) / 12;
+    total += day - 1;
+    if (month > 2) {
+      total--;
+      if (!isLeapYear(year)) {
+        total--;
+      }
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  /**
+   * 把纪元日换算为年月日
+   *
+   * @param epochDay 纪元日
+   * @return 年月日，按{@link #year(long)}、{@link #month(long)}、{@link #day(long)}取值
+   */
+  static long toYearMonthDay(long epochDay) {
+    long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+    long adjust = 0;
+    if (zeroDay < 0) {
+      long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+      adjust = adjustCycles * 400;
+      zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+    }
+    long year = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+    long dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+    if (dayOfYear < 0) {
+      year--;
+      dayOfYear = zeroDay - (365 * year + year / 4 - year / 100 + year / 400);
+    }
+    year += adjust;
+    // 从3月开始计算的月份和日期
+    int marchDayOfYear = (int) dayOfYear;
+    int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+    int month = (marchMonth + 2) % 12 + 1;
+    int day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+    year += marchMonth / 10;
+    return (year << 9) | ((long) month << 5) | day;
+  }
+
+  /**
+   * 获取{@link #toYearMonthDay(long)}结果中的年
+   *
+   * @param yearMonthDay 年月日
+   * @return 年
+   */
+  static long year(long yearMonthDay) {
+    return yearMonthDay >> 9;
+  }
+
+  /**
+   * 获取{@link #toYearMonthDay(long)}结果中的月
+   *
+   * @param yearMonthDay 年月日
+   * @return 月
+   */
+  static int month(long yearMonthDay) {
+    return (int) (yearMonthDay >> 5) & 0xF;
+  }
+
+  /**
+   * 获取{@link #toYearMonthDay(long)}结果中的日
+   *
+   * @param yearMonthDay 年月日
+   * @return 日
+   */
+  static int day(long yearMonthDay) {
+    return (int) yearMonthDay & 0x1F;
+  }
+
+  /**
+   * 获取月份的天数
+   *
+   * @param year  年
+   * @param month 月
+   * @return 天数
+   */
+  static int lengthOfMonth(long year, int month) {
+    switch (month) {
+      case 2:
+        return isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * 是否是闰年
+   *
+   * @param year 年
+   * @return 是否是闰年
+   */
+  static boolean isLeapYear(long year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+}
@@ -0,0 +1,179 @@
+package org.bugapi.bugset.base.util.date;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 时区偏移的缓存【把1900~2200年之间的偏移切换展开为数组，按秒数二分查找，不创建对象】
+ * 范围之外以及固定偏移的时区直接使用ZoneRules
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+final class ZoneOffsets {
+
+  /**
+   * 展开的开始时间：1900-01-01T00:00:00Z
+   */
+  private static final long MIN_SECOND = -2_208_988_800L;
+
+  /**
+   * 展开的结束时间：2200-01-01T00:00:00Z
+   */
+  private static final long MAX_SECOND = 7_258_118_400L;
+
+  /**
+   * 本地时间和UTC时间最大的差（秒），本地时间距离展开范围的边界小于该值时使用ZoneRules
+   */
+  private static final long MAX_OFFSET_SECONDS = 18 * 3600;
+
+  /**
+   * 时区与偏移缓存的映射
+   */
+  private static final ConcurrentMap<ZoneId, ZoneOffsets> CACHE = new ConcurrentHashMap<>();
+
+  /**
+   * 时区规则
+   */
+  private final ZoneRules rules;
+
+  /**
+   * 是否是固定偏移
+   */
+  private final boolean fixed;
+
+  /**
+   * 第一次切换之前的偏移（秒），固定偏移时为固定的偏移
+   */
+  private final int initialOffset;
+
+  /**
+   * 切换时间（UTC秒数）
+   */
+  private final long[] transitions;
+
+  /**
+   * 切换后的本地时间完全确定的时刻（切换时间加上切换前后较大的偏移）
+   */
+  private final long[] localTransitions;
+
+  /**
+   * 切换后的偏移（秒）
+   */
+  private final int[] offsetsAfter;
+
+  private ZoneOffsets(ZoneId zone) {
+    ZoneRules rules = zone.getRules();
+    this.rules = rules;
+    this.fixed = rules.isFixedOffset();
+    this.initialOffset = rules.getOffset(Instant.ofEpochSecond(MIN_SECOND)).getTotalSeconds();
+    long[] seconds = new long[64];
+    long[] localSeconds = new long[64];
+    int[] offsets = new int[64];
+    int count = 0;
+    if (!fixed) {
+      ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(MIN_SECOND));
+      while (null != transition && transition.toEpochSecond() < MAX_SECOND) {
+        if (count == seconds.length) {
+          seconds = Arrays.copyOf(seconds, count * 2);
+          localSeconds = Arrays.copyOf(localSeconds, count * 2);
+          offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        int before = transition.getOffsetBefore().getTotalSeconds();
+        int after = transition.getOffsetAfter().getTotalSeconds();
+        seconds[count] = transition.toEpochSecond();
+        localSeconds[count] = transition.toEpochSecond() + Math.max(before, after);
+        offsets[count] = after;
+        count++;
+        transition = rules.nextTransition(transition.getInstant());
+      }
+    }
+    this.transitions = Arrays.copyOf(seconds, count);
+    this.localTransitions = Arrays.copyOf(localSeconds, count);
+    this.offsetsAfter = Arrays.copyOf(offsets, count);
+  }
+
+  /**
+   * 获取时区对应的偏移缓存
+   *
+   * @param zone 时区
+   * @return 偏移缓存
+   */
+  static ZoneOffsets of(ZoneId zone) {
+    ZoneOffsets offsets = CACHE.get(zone);
+    return null == offsets ? CACHE.computeIfAbsent(zone, ZoneOffsets::new) : offsets;
+  }
+
+  /**
+   * 获取UTC时间对应的偏移
+   *
+   * @param epochSecond UTC秒数
+   * @return 偏移（秒）
+   */
+  int getOffset(long epochSecond) {
+    if (fixed) {
+      return initialOffset;
+    }
+    if (epochSecond < MIN_SECOND || epochSecond >= MAX_SECOND) {
+      return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+    int index = floorIndex(transitions, epochSecond);
+    return index < 0 ? initialOffset : offsetsAfter[index];
+  }
+
+  /**
+   * 获取本地时间对应的偏移【和ZonedDateTime.ofLocal一致：夏令时开始的间隙和结束的重叠时间取切换前的偏移】
+   *
+   * @param localSecond 本地时间的秒数（按UTC换算的秒数）
+   * @return 偏移（秒）
+   */
+  int getLocalOffset(long localSecond) {
+    if (fixed) {
+      return initialOffset;
+    }
+    if (localSecond < MIN_SECOND + MAX_OFFSET_SECONDS || localSecond >= MAX_SECOND - MAX_OFFSET_SECONDS) {
+      return rules.getOffset(LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC)).getTotalSeconds();
+    }
+    int index = floorIndex(localTransitions, localSecond);
+    return index < 0 ? initialOffset : offsetsAfter[index];
+  }
+
+  /**
+   * UTC毫秒数转为本地时间的毫秒数
+   *
+   * @param epochMilli UTC毫秒数
+   * @return 本地时间的毫秒数
+   */
+  long toLocalMillis(long epochMilli) {
+    return epochMilli + getOffset(Math.floorDiv(epochMilli, 1000L)) * 1000L;
+  }
+
+  /**
+   * 本地时间的毫秒数转为UTC毫秒数
+   *
+   * @param localMilli 本地时间的毫秒数
+   * @return UTC毫秒数
+   */
+  long toEpochMillis(long localMilli) {
+    return localMilli - getLocalOffset(Math.floorDiv(localMilli, 1000L)) * 1000L;
+  }
+
+  /**
+   * 查找不大于指定值的最后一个位置
+   *
+   * @param values 升序数组
+   * @param value  值
+   * @return 位置，都大于指定值时为-1
+   */
+  private static int floorIndex(long[] values, long value) {
+    int index = Arrays.binarySearch(values, value);
+    return index >= 0 ? index : -index - 2;
+  }
+}
@@ -84,7 +84,7 @@ public class ObjectUtil {
 			return !((Optional) obj).isPresent();
 			// 判断是否是字符串
 		} else if (obj instanceof CharSequence) {
-			return StringUtil.trim((CharSequence) obj, 0).length() == 0;
+			return StringUtil.isEmpty((CharSequence) obj);
 			// 判断是否是数组
 		} else if (obj.getClass().isArray()) {
 			return Array.getLength(obj) == 0;
@@ -114,7 +114,7 @@ public class ObjectUtil {
 			return ((Optional) obj).isPresent();
 			// 判断是否是字符串
 		} else if (obj instanceof CharSequence) {
-			return StringUtil.trim((CharSequence) obj, StringUtil.TRIM_LEFT_RIGHT).length() >= 1;
+			return StringUtil.isNotEmpty((CharSequence) obj);
 			// 判断是否是数组
 		} else if (obj.getClass().isArray()) {
 			return Array.getLength(obj) >= 1;
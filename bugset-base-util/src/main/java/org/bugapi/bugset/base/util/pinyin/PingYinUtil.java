@@ -2,11 +2,10 @@ package org.bugapi.bugset.base.util.pinyin;
 
 import com.github.stuxuhai.jpinyin.PinyinFormat;
 import com.github.stuxuhai.jpinyin.PinyinHelper;
-import org.bugapi.bugset.base.constant.PatternType;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.stream.IntStream;
 
 /**
  * 中文转换成拼音工具类
@@ -28,6 +27,14 @@ public class PingYinUtil {
 	 * 名称获取汉语拼音全拼的最大长度
 	 */
 	private static final int FULL_MAX_LENGTH = 30;
+	/**
+	 * ASCII字符的上限（不包含）
+	 */
+	private static final char ASCII_LIMIT = 128;
+	/**
+	 * 批量转换时每个任务处理的名称个数
+	 */
+	private static final int BATCH_CHUNK_SIZE = 1024;
 
 	/**
 	 * 全拼的key
@@ -47,29 +54,107 @@ public class PingYinUtil {
 	 */
 	public static Map<String, String> changeChinese2Pinyin(String chinese) {
 		Map<String, String> pinyin = new HashMap<>(4);
-		StringBuilder fullPinyin = new StringBuilder();
-		StringBuilder simplePinyin = new StringBuilder();
-		char[] chineseChar = chinese.toCharArray();
-		String[] str;
-		Matcher matcher;
-		for (char c : chineseChar) {
-			str = PinyinHelper.convertToPinyinArray(c, PinyinFormat.WITHOUT_TONE);
-			if (str != null && str.length >= 1) {
-				fullPinyin.append(str[0]);
-				simplePinyin.append(str[0].charAt(0));
+		StringBuilder fullPinyin = new StringBuilder(FULL_MAX_LENGTH);
+		StringBuilder simplePinyin = new StringBuilder(SIMPLE_MAX_LENGTH);
+		appendPinyin(chinese, fullPinyin, simplePinyin);
+		pinyin.put(FULL_PINYIN, truncate(fullPinyin, FULL_MAX_LENGTH));
+		pinyin.put(SIMPLE_PINYIN, truncate(simplePinyin, SIMPLE_MAX_LENGTH));
+
+		return pinyin;
+	}
+
+	/**
+	 * 批量中文转换成pinyin【例如转换整列名称，每个名称的结果和{@link #changeChinese2Pinyin(String)}一致】
+	 *
+	 * @param chinese      中文，为null的元素结果也为null
+	 * @param fullPinyin   全拼的输出数组，长度和中文数组一致
+	 * @param simplePinyin 简拼的输出数组，长度和中文数组一致
+	 * @param parallel     是否并行转换
+	 */
+	public static void changeChinese2Pinyin(String[] chinese, String[] fullPinyin, String[] simplePinyin,
+	                                        boolean parallel) {
+		if (fullPinyin.length != chinese.length || simplePinyin.length != chinese.length) {
+			throw new IllegalArgumentException("输出数组的长度和中文数组不一致");
+		}
+		IntStream chunks = IntStream.range(0, (chinese.length + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE);
+		(parallel ? chunks.parallel() : chunks).forEach(chunk -> {
+			// 每个任务复用自己的StringBuilder
+			StringBuilder full = new StringBuilder(FULL_MAX_LENGTH);
+			StringBuilder simple = new StringBuilder(SIMPLE_MAX_LENGTH);
+			for (int i = chunk * BATCH_CHUNK_SIZE, end = Math.min(chinese.length, i + BATCH_CHUNK_SIZE); i < end; i++) {
+				if (null == chinese[i]) {
+					fullPinyin[i] = null;
+					simplePinyin[i] = null;
+					continue;
+				}
+				full.setLength(0);
+				simple.setLength(0);
+				appendPinyin(chinese[i], full, simple);
+				fullPinyin[i] = truncate(full, FULL_MAX_LENGTH);
+				simplePinyin[i] = truncate(simple, SIMPLE_MAX_LENGTH);
 			}
-			if (str == null || str.length == 0) {
-				matcher = PatternType.NUMBER_LETTER_PATTERN.matcher(String.valueOf(c));
-				if (matcher.find()) {
+		});
+	}
+
+	/**
+	 * 中文转换成pinyin，全拼和简拼分别追加到指定的StringBuilder【不截取长度，每个字符不创建对象】
+	 * <pre>
+	 * 1、ASCII的数字和字母原样保留，其他ASCII字符忽略
+	 * 2、先通过{@link PinyinPhraseDictionary}按最长匹配查找多音字词语，词语中的字使用词语的读音（例如"重庆"读作chongqing）
+	 * 3、不在词语中的CJK统一汉字通过{@link PinyinTable}按码点查找拼音，多音字取第一个读音
+	 * 4、其他字符通过jpinyin查找拼音，没有拼音时忽略
+	 * </pre>
+	 *
+	 * @param chinese      中文
+	 * @param fullPinyin   全拼追加的目标
+	 * @param simplePinyin 简拼追加的目标
+	 */
+	public static void appendPinyin(CharSequence chinese, StringBuilder fullPinyin, StringBuilder simplePinyin) {
+		PinyinTable table = PinyinTable.getDefault();
+		PinyinPhraseDictionary phrases = PinyinPhraseDictionary.getDefault();
+		for (int i = 0, length = chinese.length(); i < length; i++) {
+			char c = chinese.charAt(i);
+			if (c < ASCII_LIMIT) {
+				// 和PatternType.NUMBER_LETTER_PATTERN匹配单个字符的结果一致
+				if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
 					fullPinyin.append(c);
 					simplePinyin.append(c);
 				}
+				continue;
+			}
+			int phrase = phrases.match(chinese, i);
+			if (phrase >= 0) {
+				int phraseLength = phrases.getLength(phrase);
+				for (int j = 0; j < phraseLength; j++) {
+					fullPinyin.append(phrases.getSyllable(phrase, j));
+					simplePinyin.append(phrases.getInitial(phrase, j));
+				}
+				i += phraseLength - 1;
+				continue;
+			}
+			int id = table.getSyllableId(c);
+			if (id >= 0) {
+				fullPinyin.append(table.getSyllable(id));
+				simplePinyin.append(table.getInitial(id));
+			} else if (!table.covers(c)) {
+				String[] str = PinyinHelper.convertToPinyinArray(c, PinyinFormat.WITHOUT_TONE);
+				if (str != null && str.length >= 1) {
+					fullPinyin.append(str[0]);
+					simplePinyin.append(str[0].charAt(0));
+				}
 			}
 		}
-		pinyin.put(FULL_PINYIN, fullPinyin.length() > FULL_MAX_LENGTH ? fullPinyin.substring(BEGIN_INDEX, FULL_MAX_LENGTH) : fullPinyin.toString());
-		pinyin.put(SIMPLE_PINYIN, simplePinyin.length() > SIMPLE_MAX_LENGTH ? simplePinyin.substring(BEGIN_INDEX, SIMPLE_MAX_LENGTH) : simplePinyin.toString());
+	}
 
-		return pinyin;
+	/**
+	 * 截取指定的长度
+	 *
+	 * @param pinyin    拼音
+	 * @param maxLength 最大长度
+	 * @return String 截取后的拼音
+	 */
+	private static String truncate(StringBuilder pinyin, int maxLength) {
+		return pinyin.length() > maxLength ? pinyin.substring(BEGIN_INDEX, maxLength) : pinyin.toString();
 	}
 
 	public static void main(String[] args) {
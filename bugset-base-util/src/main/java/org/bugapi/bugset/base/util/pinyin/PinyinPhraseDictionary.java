@@ -0,0 +1,552 @@
+package org.bugapi.bugset.base.util.pinyin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 多音字词语的拼音词典【按词语确定多音字的读音，例如"重庆"读作chong qing、"银行"读作yin hang】
+ * <pre>
+ * 1、词语保存在双数组字典树（base、check两个int数组）中，每个字符的转移只需要一次数组访问，查找时不创建对象
+ * 2、{@link #match(CharSequence, int)}从指定位置开始查找最长的词语，查找的字符数不超过最长词语的长度，
+ *    所以按最长匹配分词的总耗时和文本长度成线性关系
+ * 3、每个不同的拼音只保存一次，词语只保存拼音的序号
+ * 4、默认词典在第一次使用时加载：设置了系统属性{@link #DICTIONARY_FILE_PROPERTY}时从该文件加载，
+ *    否则加载内置的常用词语（{@link #DEFAULT_RESOURCE}）
+ * 5、词典是不可变对象，可以在多个线程中共享
+ * </pre>
+ *
+ * 文件格式：每行一个词语，词语和拼音用=分隔，拼音之间用逗号或者空格分隔，拼音的个数和词语的字数一致，
+ * 空行和以#开头的行忽略；拼音可以带声调符号或者数字声调（会去掉），ü可以写作v，例如：
+ * <pre>
+ * # 地名
+ * 重庆=chong,qing
+ * 银行=yín,háng
+ * 绿色=lv4 se4
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class PinyinPhraseDictionary {
+
+	/**
+	 * 词典文件的系统属性
+	 */
+	public static final String DICTIONARY_FILE_PROPERTY = "bugset.pinyin.phrases";
+
+	/**
+	 * 内置的词典（和本类在同一个包下）
+	 */
+	public static final String DEFAULT_RESOURCE = "phrases.dict";
+
+	/**
+	 * 空的词典
+	 */
+	public static final PinyinPhraseDictionary EMPTY = of(new HashMap<>(0));
+
+	/**
+	 * 注释的前缀
+	 */
+	private static final char COMMENT_PREFIX = '#';
+
+	/**
+	 * 词语和拼音的分隔符
+	 */
+	private static final char PHRASE_SEPARATOR = '=';
+
+	/**
+	 * 带声调的字母
+	 */
+	private static final String TONE_MARKS = "āáǎàōóǒòēéěèīíǐìūúǔùǖǘǚǜüńňǹḿ";
+
+	/**
+	 * 带声调的字母去掉声调之后的字母，和{@link #TONE_MARKS}一一对应
+	 */
+	private static final String TONE_BASES = "aaaaooooeeeeiiiiuuuuvvvvvnnnm";
+
+	/**
+	 * 字符的编码，0表示字符不在任何词语中，下标为字符
+	 */
+	private final char[] codes;
+
+	/**
+	 * 双数组字典树的base数组：状态s经过编码为c的字符转移到base[s] + c
+	 */
+	private final int[] base;
+
+	/**
+	 * 双数组字典树的check数组：转移到的状态t的check[t]等于转移前的状态加1时转移有效，0表示空位
+	 */
+	private final int[] check;
+
+	/**
+	 * 状态对应的词语序号加1，0表示不是词语的结尾
+	 */
+	private final int[] values;
+
+	/**
+	 * 每个词语的拼音在{@link #readings}中的开始位置，最后一个元素为总长度
+	 */
+	private final int[] readingStarts;
+
+	/**
+	 * 所有词语的拼音序号
+	 */
+	private final int[] readings;
+
+	/**
+	 * 拼音，下标为拼音的序号
+	 */
+	private final String[] syllables;
+
+	/**
+	 * 拼音的首字母，下标为拼音的序号
+	 */
+	private final char[] initials;
+
+	/**
+	 * 最长词语的长度
+	 */
+	private final int maxLength;
+
+	private PinyinPhraseDictionary(char[] codes, int[] base, int[] check, int[] values, int[] readingStarts,
+	                               int[] readings, String[] syllables, int maxLength) {
+		this.codes = codes;
+		this.base = base;
+		this.check = check;
+		this.values = values;
+		this.readingStarts = readingStarts;
+		this.readings = readings;
+		this.syllables = syllables;
+		this.initials = new char[syllables.length];
+		for (int i = 0; i < syllables.length; i++) {
+			initials[i] = syllables[i].charAt(0);
+		}
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * 获取默认的词典
+	 *
+	 * @return PinyinPhraseDictionary 词典
+	 */
+	public static PinyinPhraseDictionary getDefault() {
+		return Holder.DICTIONARY;
+	}
+
+	/**
+	 * 创建词典
+	 *
+	 * @param phrases 词语和每个字的拼音（可以带声调）
+	 * @return PinyinPhraseDictionary 词典
+	 */
+	public static PinyinPhraseDictionary of(Map<String, String[]> phrases) {
+		Map<String, String[]> sorted = new TreeMap<>();
+		for (Map.Entry<String, String[]> phrase : phrases.entrySet()) {
+			String[] syllables = phrase.getValue();
+			if (null == phrase.getKey() || phrase.getKey().isEmpty() || null == syllables
+					|| syllables.length != phrase.getKey().length()) {
+				throw new IllegalArgumentException("拼音的个数和词语的字数不一致：" + phrase.getKey());
+			}
+			String[] normalized = new String[syllables.length];
+			for (int i = 0; i < syllables.length; i++) {
+				normalized[i] = normalize(syllables[i]);
+				if (normalized[i].isEmpty()) {
+					throw new IllegalArgumentException("拼音不正确：" + phrase.getKey() + "=" + Arrays.toString(syllables));
+				}
+			}
+			sorted.put(phrase.getKey(), normalized);
+		}
+		return new Builder(sorted).build();
+	}
+
+	/**
+	 * 从文件加载词典【编码为UTF-8】
+	 *
+	 * @param path 文件路径
+	 * @return PinyinPhraseDictionary 词典
+	 * @throws IOException IO异常或者格式不正确
+	 */
+	public static PinyinPhraseDictionary load(Path path) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			return load(reader);
+		}
+	}
+
+	/**
+	 * 从输入流加载词典【编码为UTF-8，不关闭输入流】
+	 *
+	 * @param in 输入流
+	 * @return PinyinPhraseDictionary 词典
+	 * @throws IOException IO异常或者格式不正确
+	 */
+	public static PinyinPhraseDictionary load(InputStream in) throws IOException {
+		return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 读取词语和拼音
+	 *
+	 * @param reader 字符输入流
+	 * @return PinyinPhraseDictionary 词典
+	 * @throws IOException IO异常或者格式不正确
+	 */
+	private static PinyinPhraseDictionary load(Reader reader) throws IOException {
+		BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		Map<String, String[]> phrases = new HashMap<>();
+		String line;
+		while (null != (line = lines.readLine())) {
+			line = line.trim();
+			if (line.isEmpty() || line.charAt(0) == COMMENT_PREFIX) {
+				continue;
+			}
+			int separator = line.indexOf(PHRASE_SEPARATOR);
+			String phrase = separator < 0 ? "" : line.substring(0, separator).trim();
+			String[] syllables = separator < 0 ? new String[0] : line.substring(separator + 1).trim().split("[,\\s]+");
+			if (phrase.isEmpty() || syllables.length != phrase.length()) {
+				throw new IOException("拼音的个数和词语的字数不一致：" + line);
+			}
+			phrases.put(phrase, syllables);
+		}
+		try {
+			return of(phrases);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 从指定位置开始查找最长的词语【不创建对象】
+	 *
+	 * @param text 文本
+	 * @param from 开始位置
+	 * @return int 词语的序号，没有词语时返回-1
+	 */
+	public int match(CharSequence text, int from) {
+		int phrase = -1;
+		int state = 0;
+		for (int i = from, end = Math.min(text.length(), from + maxLength); i < end; i++) {
+			char c = text.charAt(i);
+			if (c >= codes.length || codes[c] == 0) {
+				break;
+			}
+			int next = base[state] + codes[c];
+			if (next >= check.length || check[next] != state + 1) {
+				break;
+			}
+			state = next;
+			if (values[state] != 0) {
+				phrase = values[state] - 1;
+			}
+		}
+		return phrase;
+	}
+
+	/**
+	 * 获取词语的字数
+	 *
+	 * @param phrase 词语的序号
+	 * @return int 字数
+	 */
+	public int getLength(int phrase) {
+		return readingStarts[phrase + 1] - readingStarts[phrase];
+	}
+
+	/**
+	 * 获取词语中一个字的拼音
+	 *
+	 * @param phrase 词语的序号
+	 * @param index  字在词语中的位置
+	 * @return String 不带声调的拼音
+	 */
+	public String getSyllable(int phrase, int index) {
+		return syllables[readings[readingStarts[phrase] + index]];
+	}
+
+	/**
+	 * 获取词语中一个字的拼音的首字母
+	 *
+	 * @param phrase 词语的序号
+	 * @param index  字在词语中的位置
+	 * @return char 首字母
+	 */
+	public char getInitial(int phrase, int index) {
+		return initials[readings[readingStarts[phrase] + index]];
+	}
+
+	/**
+	 * 获取词语的个数
+	 *
+	 * @return int 词语的个数
+	 */
+	public int size() {
+		return readingStarts.length - 1;
+	}
+
+	/**
+	 * 获取最长词语的长度
+	 *
+	 * @return int 最长词语的长度
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * 去掉拼音的声调并转为小写，ü转为v
+	 *
+	 * @param syllable 拼音
+	 * @return String 不带声调的拼音
+	 */
+	private static String normalize(String syllable) {
+		if (null == syllable) {
+			return "";
+		}
+		StringBuilder builder = new StringBuilder(syllable.length());
+		for (int i = 0; i < syllable.length(); i++) {
+			char c = Character.toLowerCase(syllable.charAt(i));
+			int tone = TONE_MARKS.indexOf(c);
+			if (tone >= 0) {
+				builder.append(TONE_BASES.charAt(tone));
+			} else if (c >= 'a' && c <= 'z') {
+				builder.append(c);
+			} else if (c < '0' || c > '9') {
+				// 数字声调忽略，其他字符不是拼音
+				return "";
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 双数组字典树的生成器：词语排序后，共同前缀的词语是连续的一段，按段逐层分配子状态的位置
+	 */
+	private static final class Builder {
+		/**
+		 * 排序后的词语
+		 */
+		private final String[] phrases;
+		/**
+		 * 排序后的词语的拼音
+		 */
+		private final String[][] phraseSyllables;
+		/**
+		 * 字符的编码
+		 */
+		private char[] codes;
+		/**
+		 * base数组
+		 */
+		private int[] base = new int[1024];
+		/**
+		 * check数组
+		 */
+		private int[] check = new int[1024];
+		/**
+		 * 状态对应的词语序号加1
+		 */
+		private int[] values = new int[1024];
+		/**
+		 * 查找空位的开始位置，之前的位置基本都已经占用
+		 */
+		private int nextCheckPos = 1;
+		/**
+		 * 使用的最大位置加1
+		 */
+		private int used = 1;
+
+		private Builder(Map<String, String[]> sorted) {
+			this.phrases = sorted.keySet().toArray(new String[0]);
+			this.phraseSyllables = sorted.values().toArray(new String[0][]);
+		}
+
+		/**
+		 * 生成词典
+		 */
+		private PinyinPhraseDictionary build() {
+			int maxLength = 0;
+			int maxChar = -1;
+			for (String phrase : phrases) {
+				maxLength = Math.max(maxLength, phrase.length());
+				for (int i = 0; i < phrase.length(); i++) {
+					maxChar = Math.max(maxChar, phrase.charAt(i));
+				}
+			}
+			// 字符按码点顺序编码为1、2、3……，子状态的位置更紧凑
+			codes = new char[maxChar + 1];
+			char code = 0;
+			boolean[] present = new boolean[maxChar + 1];
+			for (String phrase : phrases) {
+				for (int i = 0; i < phrase.length(); i++) {
+					present[phrase.charAt(i)] = true;
+				}
+			}
+			for (int c = 0; c <= maxChar; c++) {
+				if (present[c]) {
+					codes[c] = ++code;
+				}
+			}
+			// 根状态固定在0，check设置为-1表示已经占用
+			check[0] = -1;
+			Deque<int[]> nodes = new ArrayDeque<>();
+			nodes.push(new int[]{0, 0, 0, phrases.length});
+			while (!nodes.isEmpty()) {
+				int[] node = nodes.pop();
+				addChildren(node[0], node[1], node[2], node[3], nodes);
+			}
+			Map<String, Integer> syllableIds = new HashMap<>(512);
+			List<String> syllables = new ArrayList<>(512);
+			int[] readingStarts = new int[phrases.length + 1];
+			for (int i = 0; i < phrases.length; i++) {
+				readingStarts[i + 1] = readingStarts[i] + phrases[i].length();
+			}
+			int[] readings = new int[readingStarts[phrases.length]];
+			for (int i = 0; i < phrases.length; i++) {
+				for (int j = 0; j < phraseSyllables[i].length; j++) {
+					Integer id = syllableIds.get(phraseSyllables[i][j]);
+					if (null == id) {
+						id = syllables.size();
+						syllableIds.put(phraseSyllables[i][j], id);
+						syllables.add(phraseSyllables[i][j]);
+					}
+					readings[readingStarts[i] + j] = id;
+				}
+			}
+			return new PinyinPhraseDictionary(codes, Arrays.copyOf(base, used), Arrays.copyOf(check, used),
+					Arrays.copyOf(values, used), readingStarts, readings, syllables.toArray(new String[0]), maxLength);
+		}
+
+		/**
+		 * 为一个状态分配子状态
+		 *
+		 * @param state 状态
+		 * @param depth 状态对应的前缀长度
+		 * @param from  以该前缀开头的第一个词语（包含）
+		 * @param to    以该前缀开头的最后一个词语（不包含）
+		 * @param nodes 待处理的子状态
+		 */
+		private void addChildren(int state, int depth, int from, int to, Deque<int[]> nodes) {
+			// 前缀本身是词语时排在最前面
+			if (from < to && phrases[from].length() == depth) {
+				values[state] = from + 1;
+				from++;
+			}
+			if (from >= to) {
+				return;
+			}
+			List<int[]> children = new ArrayList<>();
+			for (int i = from; i < to; ) {
+				char c = phrases[i].charAt(depth);
+				int end = i + 1;
+				while (end < to && phrases[end].charAt(depth) == c) {
+					end++;
+				}
+				children.add(new int[]{codes[c], i, end});
+				i = end;
+			}
+			int begin = findBase(children);
+			base[state] = begin;
+			for (int[] child : children) {
+				int position = begin + child[0];
+				check[position] = state + 1;
+				used = Math.max(used, position + 1);
+				nodes.push(new int[]{position, depth + 1, child[1], child[2]});
+			}
+		}
+
+		/**
+		 * 查找所有子状态的位置都是空位的base
+		 *
+		 * @param children 子状态（编码、词语的范围），按编码从小到大排序
+		 * @return int base
+		 */
+		private int findBase(List<int[]> children) {
+			int firstCode = children.get(0)[0];
+			int lastCode = children.get(children.size() - 1)[0];
+			// 按第一个子状态的位置查找，跳过已经占用的位置
+			int position = Math.max(firstCode + 1, nextCheckPos) - 1;
+			int occupied = 0;
+			boolean first = true;
+			while (true) {
+				position++;
+				ensureCapacity(position + lastCode - firstCode + 1);
+				if (check[position] != 0) {
+					occupied++;
+					continue;
+				}
+				if (first) {
+					nextCheckPos = position;
+					first = false;
+				}
+				int begin = position - firstCode;
+				boolean free = true;
+				for (int[] child : children) {
+					if (check[begin + child[0]] != 0) {
+						free = false;
+						break;
+					}
+				}
+				if (free) {
+					// 查找过的位置基本都已经占用时，下次直接从当前位置开始
+					if (occupied * 20 >= (position - nextCheckPos + 1) * 19) {
+						nextCheckPos = position;
+					}
+					return begin;
+				}
+			}
+		}
+
+		/**
+		 * 扩容
+		 */
+		private void ensureCapacity(int capacity) {
+			if (capacity > check.length) {
+				int length = Math.max(capacity, check.length + (check.length >>> 1));
+				base = Arrays.copyOf(base, length);
+				check = Arrays.copyOf(check, length);
+				values = Arrays.copyOf(values, length);
+			}
+		}
+	}
+
+	/**
+	 * 默认词典的延迟加载
+	 */
+	private static final class Holder {
+		private static final PinyinPhraseDictionary DICTIONARY = loadDefault();
+
+		/**
+		 * 设置了词典文件时从文件加载，否则（或者文件加载失败时）加载内置的词典
+		 */
+		private static PinyinPhraseDictionary loadDefault() {
+			String file = System.getProperty(DICTIONARY_FILE_PROPERTY);
+			if (null != file && !file.isEmpty()) {
+				try {
+					return load(Paths.get(file));
+				} catch (IOException e) {
+					// 文件不可用时使用内置的词典
+				}
+			}
+			try (InputStream in = PinyinPhraseDictionary.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+				return null == in ? EMPTY : load(in);
+			} catch (IOException e) {
+				return EMPTY;
+			}
+		}
+	}
+}
@@ -0,0 +1,684 @@
+package org.bugapi.bugset.base.util.pinyin;
+
+import org.bugapi.bugset.base.util.collection.LongArrayList;
+import org.bugapi.bugset.base.util.collection.LongObjectMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * 拼音前缀搜索索引【用于按全拼、简拼或者全拼的前缀查找名称，例如"zs"、"zhangs"、"张s"都可以找到"张三"】
+ * <pre>
+ * 1、每个名称生成全拼和简拼两个键（小写），所有键按字节顺序排序后紧凑地保存在一个byte[]中，按前缀二分查找
+ * 2、排序后的键上建立按权重取最大值的线段树，前缀对应的区间内按权重从大到小取前K个，不需要遍历整个区间
+ * 3、批量创建时拼音转换和排序可以并行
+ * 4、增加的名称先写入很小的增量部分，增量部分满了合并到近期的有序部分，近期的有序部分超过主体的1/16时再合并到主体，
+ *    合并时各部分都是有序的，按顺序归并，不需要重新排序；删除只在所在的部分做标记，合并时去掉
+ * 5、查询的结果按权重从大到小、键的字节顺序、id从小到大排序，同一个id只返回一次
+ * 6、读写通过读写锁控制，可以多个线程同时查询
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class PinyinSearchIndex {
+
+	/**
+	 * 增量部分的最大键个数，查询时增量部分需要逐个比较，所以保持很小
+	 */
+	private static final int MAX_DELTA_SIZE = 512;
+
+	/**
+	 * 近期有序部分的最小合并阈值（键的个数）
+	 */
+	private static final int MIN_RECENT_SIZE = 4096;
+
+	/**
+	 * 近期有序部分相对主体的合并比例（右移位数），即超过主体的1/16时合并
+	 */
+	private static final int RECENT_RATIO_SHIFT = 4;
+
+	/**
+	 * 键的排序：按键的字节顺序，再按id
+	 */
+	private static final Comparator<Entry> ENTRY_ORDER = (first, second) -> {
+		int result = compareBytes(first.key, 0, first.key.length, second.key);
+		return result != 0 ? result : Long.compare(first.id, second.id);
+	};
+
+	/**
+	 * 查询结果的排序：按权重从大到小，再按键的顺序
+	 */
+	private static final Comparator<Entry> RANK_ORDER = (first, second) -> first.weight != second.weight
+			? Integer.compare(second.weight, first.weight) : ENTRY_ORDER.compare(first, second);
+
+	/**
+	 * 读写锁
+	 */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * 主体的有序部分
+	 */
+	private Segment main;
+
+	/**
+	 * 近期的有序部分
+	 */
+	private Segment recent = Segment.of(new Entry[0]);
+
+	/**
+	 * 增量部分的键，按键的顺序排序
+	 */
+	private TreeSet<Entry> delta = new TreeSet<>(ENTRY_ORDER);
+
+	/**
+	 * 增量部分按id分组的键
+	 */
+	private LongObjectMap<Entry[]> deltaById = new LongObjectMap<>();
+
+	private PinyinSearchIndex(Segment main) {
+		this.main = main;
+	}
+
+	/**
+	 * 创建空的索引
+	 *
+	 * @return PinyinSearchIndex 索引
+	 */
+	public static PinyinSearchIndex create() {
+		return new PinyinSearchIndex(Segment.of(new Entry[0]));
+	}
+
+	/**
+	 * 批量创建索引【同一个id出现多次时以最后一次为准】
+	 *
+	 * @param ids      名称的id
+	 * @param names    名称，为空或者没有拼音的名称不能被查到
+	 * @param weights  权重，越大越靠前，为null时权重都为0
+	 * @param parallel 是否并行转换拼音和排序
+	 * @return PinyinSearchIndex 索引
+	 */
+	public static PinyinSearchIndex build(long[] ids, String[] names, int[] weights, boolean parallel) {
+		if (ids.length != names.length || (null != weights && weights.length != ids.length)) {
+			throw new IllegalArgumentException("id、名称和权重的个数不一致");
+		}
+		LongObjectMap<Integer> last = new LongObjectMap<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			last.put(ids[i], i);
+		}
+		Entry[][] keys = new Entry[ids.length][];
+		IntStream indexes = IntStream.range(0, ids.length);
+		(parallel ? indexes.parallel() : indexes).forEach(i -> keys[i] = last.get(ids[i]) == i
+				? toEntries(ids[i], names[i], null == weights ? 0 : weights[i]) : null);
+		int count = 0;
+		for (Entry[] entries : keys) {
+			count += null == entries ? 0 : entries.length;
+		}
+		Entry[] entries = new Entry[count];
+		count = 0;
+		for (Entry[] nameEntries : keys) {
+			if (null != nameEntries) {
+				System.arraycopy(nameEntries, 0, entries, count, nameEntries.length);
+				count += nameEntries.length;
+			}
+		}
+		if (parallel) {
+			Arrays.parallelSort(entries, ENTRY_ORDER);
+		} else {
+			Arrays.sort(entries, ENTRY_ORDER);
+		}
+		return new PinyinSearchIndex(Segment.of(entries));
+	}
+
+	/**
+	 * 增加或者替换名称
+	 *
+	 * @param id     名称的id，已经存在时替换
+	 * @param name   名称
+	 * @param weight 权重，越大越靠前
+	 */
+	public void add(long id, String name, int weight) {
+		Entry[] entries = toEntries(id, name, weight);
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+			if (entries.length > 0) {
+				deltaById.put(id, entries);
+				delta.addAll(Arrays.asList(entries));
+			}
+			if (delta.size() > MAX_DELTA_SIZE) {
+				recent = recent.merge(delta.iterator(), delta.size());
+				delta = new TreeSet<>(ENTRY_ORDER);
+				deltaById = new LongObjectMap<>();
+				if (recent.size() > Math.max(MIN_RECENT_SIZE, main.size() >>> RECENT_RATIO_SHIFT)) {
+					main = main.merge(recent.iterator(), recent.size());
+					recent = Segment.of(new Entry[0]);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 删除名称
+	 *
+	 * @param id 名称的id
+	 * @return boolean 【true：名称存在并已删除】
+	 */
+	public boolean remove(long id) {
+		lock.writeLock().lock();
+		try {
+			return removeLocked(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 把所有增加、删除的名称合并到主体【增加时超过阈值会自动合并，批量修改之后可以手动合并以节省内存】
+	 */
+	public void compact() {
+		lock.writeLock().lock();
+		try {
+			if (!delta.isEmpty()) {
+				recent = recent.merge(delta.iterator(), delta.size());
+				delta = new TreeSet<>(ENTRY_ORDER);
+				deltaById = new LongObjectMap<>();
+			}
+			if (recent.size() > 0 || main.hasRemoved()) {
+				main = main.merge(recent.iterator(), recent.size());
+				recent = Segment.of(new Entry[0]);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 按前缀查询【前缀中的汉字先转为全拼，忽略大小写】
+	 *
+	 * @param prefix 前缀，例如"zs"、"zhangs"、"张s"
+	 * @param limit  最多返回的个数
+	 * @return long[] 名称的id，按权重从大到小排序
+	 */
+	public long[] search(String prefix, int limit) {
+		byte[] key = toKey(prefix, true);
+		if (limit <= 0 || null == key || key.length == 0) {
+			return new long[0];
+		}
+		lock.readLock().lock();
+		try {
+			List<Entry> candidates = main.top(key, limit);
+			candidates.addAll(recent.top(key, limit));
+			for (Entry entry : delta.tailSet(new Entry(key, Long.MIN_VALUE, 0), true)) {
+				if (!startsWith(entry.key, key)) {
+					break;
+				}
+				candidates.add(entry);
+			}
+			candidates.sort(RANK_ORDER);
+			LongArrayList result = new LongArrayList(limit);
+			for (int i = 0; i < candidates.size() && result.size() < limit; i++) {
+				long id = candidates.get(i).id;
+				if (!result.contains(id)) {
+					result.add(id);
+				}
+			}
+			return result.toArray();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 获取名称的个数
+	 *
+	 * @return int 名称的个数
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return main.idCount() + recent.idCount() + deltaById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 删除名称（已经持有写锁）：同一个id只会在一个部分中存在
+	 */
+	private boolean removeLocked(long id) {
+		Entry[] entries = deltaById.remove(id);
+		if (null != entries) {
+			delta.removeAll(Arrays.asList(entries));
+			return true;
+		}
+		return recent.markRemoved(id) || main.markRemoved(id);
+	}
+
+	/**
+	 * 生成名称的键：全拼和简拼，相同时只保留一个
+	 */
+	private static Entry[] toEntries(long id, String name, int weight) {
+		if (null == name) {
+			return new Entry[0];
+		}
+		StringBuilder fullPinyin = new StringBuilder(name.length() * 4);
+		StringBuilder simplePinyin = new StringBuilder(name.length());
+		PingYinUtil.appendPinyin(name, fullPinyin, simplePinyin);
+		byte[] full = toKey(fullPinyin, false);
+		byte[] simple = toKey(simplePinyin, false);
+		if (full.length == 0) {
+			return new Entry[0];
+		}
+		if (Arrays.equals(full, simple)) {
+			return new Entry[]{new Entry(full, id, weight)};
+		}
+		return new Entry[]{new Entry(full, id, weight), new Entry(simple, id, weight)};
+	}
+
+	/**
+	 * 转为小写的UTF-8字节
+	 *
+	 * @param text     文本
+	 * @param toPinyin 是否先把汉字转为全拼
+	 * @return byte[] 键
+	 */
+	private static byte[] toKey(CharSequence text, boolean toPinyin) {
+		if (null == text) {
+			return null;
+		}
+		if (toPinyin) {
+			StringBuilder fullPinyin = new StringBuilder(text.length() * 4);
+			PingYinUtil.appendPinyin(text, fullPinyin, new StringBuilder(text.length()));
+			text = fullPinyin;
+		}
+		byte[] key = text.toString().getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < key.length; i++) {
+			if (key[i] >= 'A' && key[i] <= 'Z') {
+				key[i] += 'a' - 'A';
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * 按无符号字节比较（和UTF-8编码前的码点顺序一致）
+	 *
+	 * @param bytes  字节数组
+	 * @param offset 开始位置
+	 * @param end    结束位置（不包含）
+	 * @param other  另一个字节数组
+	 * @return int 比较结果
+	 */
+	private static int compareBytes(byte[] bytes, int offset, int end, byte[] other) {
+		int length = Math.min(end - offset, other.length);
+		for (int i = 0; i < length; i++) {
+			int result = (bytes[offset + i] & 0xFF) - (other[i] & 0xFF);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return (end - offset) - other.length;
+	}
+
+	/**
+	 * 是否以指定前缀开头
+	 */
+	private static boolean startsWith(byte[] key, byte[] prefix) {
+		if (key.length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (key[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 一个键
+	 */
+	private static final class Entry {
+		/**
+		 * 小写的拼音
+		 */
+		private final byte[] key;
+		/**
+		 * 名称的id
+		 */
+		private final long id;
+		/**
+		 * 权重
+		 */
+		private final int weight;
+
+		private Entry(byte[] key, long id, int weight) {
+			this.key = key;
+			this.id = id;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * 有序部分：排序后的键紧凑保存，并建立按权重取最大值的线段树
+	 */
+	private static final class Segment {
+		/**
+		 * 所有键拼接的字节
+		 */
+		private final byte[] keys;
+		/**
+		 * 每个键的开始位置，最后一个元素为总长度
+		 */
+		private final int[] offsets;
+		/**
+		 * 每个键对应的id
+		 */
+		private final long[] ids;
+		/**
+		 * 每个键的权重
+		 */
+		private final int[] weights;
+		/**
+		 * 线段树，叶子为键的位置，内部节点为子树中权重最大（相同时位置最小）的键的位置，-1表示空
+		 */
+		private final int[] tree;
+		/**
+		 * 线段树叶子的个数（2的幂）
+		 */
+		private final int leaves;
+		/**
+		 * 排序去重后的id，用于判断id是否在有序部分
+		 */
+		private final long[] sortedIds;
+		/**
+		 * 已经删除（或者被重新增加到其他部分）的id，合并时去掉
+		 */
+		private final LongObjectMap<Boolean> removed = new LongObjectMap<>();
+
+		private Segment(byte[] keys, int[] offsets, long[] ids, int[] weights) {
+			this.keys = keys;
+			this.offsets = offsets;
+			this.ids = ids;
+			this.weights = weights;
+			int size = ids.length;
+			int leafCount = 1;
+			while (leafCount < size) {
+				leafCount <<= 1;
+			}
+			this.leaves = leafCount;
+			this.tree = new int[leafCount << 1];
+			Arrays.fill(tree, -1);
+			for (int i = 0; i < size; i++) {
+				tree[leafCount + i] = i;
+			}
+			for (int node = leafCount - 1; node > 0; node--) {
+				tree[node] = better(tree[node << 1], tree[(node << 1) + 1]);
+			}
+			long[] distinct = ids.clone();
+			Arrays.sort(distinct);
+			int count = 0;
+			for (int i = 0; i < distinct.length; i++) {
+				if (i == 0 || distinct[i] != distinct[i - 1]) {
+					distinct[count++] = distinct[i];
+				}
+			}
+			this.sortedIds = Arrays.copyOf(distinct, count);
+		}
+
+		/**
+		 * 把排序后的键紧凑保存
+		 */
+		private static Segment of(Entry[] entries) {
+			int[] offsets = new int[entries.length + 1];
+			long[] ids = new long[entries.length];
+			int[] weights = new int[entries.length];
+			for (int i = 0; i < entries.length; i++) {
+				offsets[i + 1] = offsets[i] + entries[i].key.length;
+				ids[i] = entries[i].id;
+				weights[i] = entries[i].weight;
+			}
+			byte[] keys = new byte[offsets[entries.length]];
+			for (int i = 0; i < entries.length; i++) {
+				System.arraycopy(entries[i].key, 0, keys, offsets[i], entries[i].key.length);
+			}
+			return new Segment(keys, offsets, ids, weights);
+		}
+
+		/**
+		 * 键的个数
+		 */
+		private int size() {
+			return ids.length;
+		}
+
+		/**
+		 * 没有删除的id的个数
+		 */
+		private int idCount() {
+			return sortedIds.length - removed.size();
+		}
+
+		/**
+		 * 是否有删除的id
+		 */
+		private boolean hasRemoved() {
+			return !removed.isEmpty();
+		}
+
+		/**
+		 * 标记id已删除
+		 *
+		 * @param id 名称的id
+		 * @return boolean 【true：id在该部分中并且没有删除】
+		 */
+		private boolean markRemoved(long id) {
+			if (Arrays.binarySearch(sortedIds, id) < 0 || removed.containsKey(id)) {
+				return false;
+			}
+			removed.put(id, Boolean.TRUE);
+			return true;
+		}
+
+		/**
+		 * 和另一部分有序的键归并为新的有序部分，去掉已删除的键
+		 *
+		 * @param others 另一部分的键，按键的顺序排序
+		 * @param size   另一部分的键的个数（最大值）
+		 * @return Segment 新的有序部分
+		 */
+		private Segment merge(Iterator<Entry> others, int size) {
+			Entry[] merged = new Entry[size() + size];
+			int count = 0;
+			Entry next = others.hasNext() ? others.next() : null;
+			for (Iterator<Entry> iterator = iterator(); iterator.hasNext(); ) {
+				Entry entry = iterator.next();
+				while (null != next && ENTRY_ORDER.compare(next, entry) < 0) {
+					merged[count++] = next;
+					next = others.hasNext() ? others.next() : null;
+				}
+				merged[count++] = entry;
+			}
+			while (null != next) {
+				merged[count++] = next;
+				next = others.hasNext() ? others.next() : null;
+			}
+			return of(count == merged.length ? merged : Arrays.copyOf(merged, count));
+		}
+
+		/**
+		 * 按顺序遍历没有删除的键
+		 */
+		private Iterator<Entry> iterator() {
+			return new Iterator<Entry>() {
+				private int index = skipRemoved(0);
+
+				@Override
+				public boolean hasNext() {
+					return index < ids.length;
+				}
+
+				@Override
+				public Entry next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					Entry entry = entry(index);
+					index = skipRemoved(index + 1);
+					return entry;
+				}
+			};
+		}
+
+		/**
+		 * 从指定位置开始第一个没有删除的键的位置
+		 */
+		private int skipRemoved(int index) {
+			while (index < ids.length && removed.containsKey(ids[index])) {
+				index++;
+			}
+			return index;
+		}
+
+		/**
+		 * 获取指定位置的键
+		 */
+		private Entry entry(int index) {
+			return new Entry(Arrays.copyOfRange(keys, offsets[index], offsets[index + 1]), ids[index], weights[index]);
+		}
+
+		/**
+		 * 查找以指定前缀开头的权重最大的键
+		 *
+		 * @param prefix 前缀
+		 * @param limit  需要的不同id的个数
+		 * @return List 键，按权重从大到小、位置从小到大排序
+		 */
+		private List<Entry> top(byte[] prefix, int limit) {
+			List<Entry> result = new ArrayList<>(limit);
+			int from = lowerBound(prefix);
+			int to = upperBound(prefix, from);
+			if (from >= to) {
+				return result;
+			}
+			// 每个区间按区间内最大的键排序，取出最大的键后把区间拆成左右两部分放回
+			PriorityQueue<int[]> ranges = new PriorityQueue<>((first, second) -> first[2] == second[2] ? 0
+					: better(first[2], second[2]) == first[2] ? -1 : 1);
+			ranges.add(new int[]{from, to - 1, max(from, to - 1)});
+			LongArrayList found = new LongArrayList(limit);
+			while (!ranges.isEmpty() && found.size() < limit) {
+				int[] range = ranges.poll();
+				int best = range[2];
+				long id = ids[best];
+				if (!removed.containsKey(id) && !found.contains(id)) {
+					found.add(id);
+					result.add(entry(best));
+				}
+				if (range[0] < best) {
+					ranges.add(new int[]{range[0], best - 1, max(range[0], best - 1)});
+				}
+				if (best < range[1]) {
+					ranges.add(new int[]{best + 1, range[1], max(best + 1, range[1])});
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * 查询区间内权重最大（相同时位置最小）的键的位置
+		 *
+		 * @param from 开始位置（包含）
+		 * @param to   结束位置（包含）
+		 * @return int 位置
+		 */
+		private int max(int from, int to) {
+			int best = -1;
+			for (int left = from + leaves, right = to + leaves + 1; left < right; left >>= 1, right >>= 1) {
+				if ((left & 1) != 0) {
+					best = better(best, tree[left++]);
+				}
+				if ((right & 1) != 0) {
+					best = better(best, tree[--right]);
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * 两个位置中权重更大（相同时位置更小）的一个
+		 */
+		private int better(int first, int second) {
+			if (first < 0 || second < 0) {
+				return first < 0 ? second : first;
+			}
+			if (weights[first] != weights[second]) {
+				return weights[first] > weights[second] ? first : second;
+			}
+			return Math.min(first, second);
+		}
+
+		/**
+		 * 第一个不小于前缀的键的位置
+		 */
+		private int lowerBound(byte[] prefix) {
+			int low = 0;
+			int high = ids.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compareBytes(keys, offsets[middle], offsets[middle + 1], prefix) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * 第一个不以前缀开头的键的位置
+		 */
+		private int upperBound(byte[] prefix, int from) {
+			int low = from;
+			int high = ids.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (hasPrefix(middle, prefix)) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * 指定位置的键是否以前缀开头
+		 */
+		private boolean hasPrefix(int index, byte[] prefix) {
+			int offset = offsets[index];
+			if (offsets[index + 1] - offset < prefix.length) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length; i++) {
+				if (keys[offset + i] != prefix[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package org.bugapi.bugset.base.util.pinyin;
+
+import com.github.stuxuhai.jpinyin.PinyinFormat;
+import com.github.stuxuhai.jpinyin.PinyinHelper;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 汉字拼音表【CJK统一汉字（U+4E00~U+9FFF）到不带声调的拼音的映射】
+ * <pre>
+ * 1、每个不同的拼音只保存一次并分配序号，每个汉字只保存拼音的序号（short），整个表约42KB
+ * 2、查找拼音只需要按码点取数组元素，不创建字符串，多音字取jpinyin字典中的第一个读音
+ * 3、默认在第一次使用时从jpinyin的字典生成；设置了系统属性{@link #TABLE_FILE_PROPERTY}时，
+ *    从该文件以内存映射的方式加载，不需要加载jpinyin的字典（文件通过{@link #write(OutputStream)}生成）
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class PinyinTable {
+
+	/**
+	 * 拼音表文件的系统属性
+	 */
+	public static final String TABLE_FILE_PROPERTY = "bugset.pinyin.table";
+
+	/**
+	 * 拼音表的第一个汉字
+	 */
+	public static final char FIRST_CHAR = '\u4E00';
+
+	/**
+	 * 拼音表的最后一个汉字
+	 */
+	public static final char LAST_CHAR = '\u9FFF';
+
+	/**
+	 * 拼音表文件的魔数："PYTB"
+	 */
+	private static final int MAGIC = 0x50595442;
+
+	/**
+	 * 拼音表文件的版本
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * 拼音，下标为拼音的序号
+	 */
+	private final String[] syllables;
+
+	/**
+	 * 拼音的首字母，下标为拼音的序号
+	 */
+	private final char[] initials;
+
+	/**
+	 * 汉字的拼音序号加1，0表示没有拼音，下标为码点减去{@link #FIRST_CHAR}
+	 */
+	private final ShortBuffer ids;
+
+	private PinyinTable(String[] syllables, ShortBuffer ids) {
+		this.syllables = syllables;
+		this.initials = new char[syllables.length];
+		for (int i = 0; i < syllables.length; i++) {
+			initials[i] = syllables[i].charAt(0);
+		}
+		this.ids = ids;
+	}
+
+	/**
+	 * 获取默认的拼音表
+	 *
+	 * @return PinyinTable 拼音表
+	 */
+	public static PinyinTable getDefault() {
+		return Holder.TABLE;
+	}
+
+	/**
+	 * 从jpinyin的字典生成拼音表
+	 *
+	 * @return PinyinTable 拼音表
+	 */
+	public static PinyinTable build() {
+		Map<String, Integer> syllableIds = new HashMap<>(512);
+		List<String> syllables = new ArrayList<>(512);
+		short[] ids = new short[LAST_CHAR - FIRST_CHAR + 1];
+		for (char c = FIRST_CHAR; c <= LAST_CHAR; c++) {
+			String[] pinyin = PinyinHelper.convertToPinyinArray(c, PinyinFormat.WITHOUT_TONE);
+			if (null == pinyin || pinyin.length == 0 || pinyin[0].isEmpty()) {
+				continue;
+			}
+			Integer id = syllableIds.get(pinyin[0]);
+			if (null == id) {
+				id = syllables.size();
+				syllableIds.put(pinyin[0], id);
+				syllables.add(pinyin[0]);
+			}
+			ids[c - FIRST_CHAR] = (short) (id + 1);
+		}
+		return new PinyinTable(syllables.toArray(new String[0]), ShortBuffer.wrap(ids));
+	}
+
+	/**
+	 * 以内存映射的方式加载拼音表文件【汉字的拼音序号直接在映射的内存中查找，不复制】
+	 *
+	 * @param file 拼音表文件
+	 * @return PinyinTable 拼音表
+	 * @throws IOException IO异常或者文件格式不正确
+	 */
+	public static PinyinTable load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * 读取拼音表【汉字的拼音序号直接使用buffer中的数据，不复制】
+	 *
+	 * @param buffer 拼音表的数据，从position开始
+	 * @return PinyinTable 拼音表
+	 * @throws IOException 格式不正确
+	 */
+	public static PinyinTable read(ByteBuffer buffer) throws IOException {
+		ByteBuffer data = buffer.slice();
+		try {
+			if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+				throw new IOException("拼音表格式不正确");
+			}
+			if (data.getChar() != FIRST_CHAR || data.getChar() != LAST_CHAR) {
+				throw new IOException("拼音表的汉字范围不正确");
+			}
+			String[] syllables = new String[data.getShort()];
+			for (int i = 0; i < syllables.length; i++) {
+				byte[] bytes = new byte[data.get()];
+				data.get(bytes);
+				syllables[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			if ((data.position() & 1) != 0) {
+				data.get();
+			}
+			ShortBuffer ids = data.asShortBuffer();
+			if (ids.remaining() < LAST_CHAR - FIRST_CHAR + 1) {
+				throw new IOException("拼音表的数据不完整");
+			}
+			for (int i = 0, count = LAST_CHAR - FIRST_CHAR + 1; i < count; i++) {
+				if (ids.get(i) < 0 || ids.get(i) > syllables.length) {
+					throw new IOException("拼音表的拼音序号不正确");
+				}
+			}
+			return new PinyinTable(syllables, ids);
+		} catch (RuntimeException e) {
+			throw new IOException("拼音表格式不正确", e);
+		}
+	}
+
+	/**
+	 * 写出拼音表【可以通过{@link #load(Path)}加载】
+	 *
+	 * @param out 输出流（不会关闭）
+	 * @throws IOException IO异常
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeChar(FIRST_CHAR);
+		data.writeChar(LAST_CHAR);
+		data.writeShort(syllables.length);
+		for (String syllable : syllables) {
+			byte[] bytes = syllable.getBytes(StandardCharsets.UTF_8);
+			data.writeByte(bytes.length);
+			data.write(bytes);
+		}
+		// 按2字节对齐，映射后可以直接按short读取
+		if ((data.size() & 1) != 0) {
+			data.writeByte(0);
+		}
+		for (int i = 0, count = LAST_CHAR - FIRST_CHAR + 1; i < count; i++) {
+			data.writeShort(ids.get(i));
+		}
+		data.flush();
+	}
+
+	/**
+	 * 获取汉字的拼音序号
+	 *
+	 * @param c 字符
+	 * @return int 拼音序号，不在拼音表范围内或者没有拼音时返回-1
+	 */
+	public int getSyllableId(char c) {
+		return c < FIRST_CHAR || c > LAST_CHAR ? -1 : ids.get(c - FIRST_CHAR) - 1;
+	}
+
+	/**
+	 * 是否在拼音表的范围内
+	 *
+	 * @param c 字符
+	 * @return boolean 【true：在范围内，没有拼音时表示确实没有拼音】
+	 */
+	public boolean covers(char c) {
+		return c >= FIRST_CHAR && c <= LAST_CHAR;
+	}
+
+	/**
+	 * 获取拼音
+	 *
+	 * @param id 拼音序号
+	 * @return String 不带声调的拼音
+	 */
+	public String getSyllable(int id) {
+		return syllables[id];
+	}
+
+	/**
+	 * 获取拼音的首字母
+	 *
+	 * @param id 拼音序号
+	 * @return char 首字母
+	 */
+	public char getInitial(int id) {
+		return initials[id];
+	}
+
+	/**
+	 * 获取不同拼音的个数
+	 *
+	 * @return int 拼音的个数
+	 */
+	public int getSyllableCount() {
+		return syllables.length;
+	}
+
+	/**
+	 * 默认拼音表的延迟加载
+	 */
+	private static final class Holder {
+		private static final PinyinTable TABLE = loadDefault();
+
+		/**
+		 * 设置了拼音表文件时从文件加载，否则（或者文件加载失败时）从jpinyin的字典生成
+		 */
+		private static PinyinTable loadDefault() {
+			String file = System.getProperty(TABLE_FILE_PROPERTY);
+			if (null != file && !file.isEmpty()) {
+				try {
+					return load(Paths.get(file));
+				} catch (IOException e) {
+					// 文件不可用时使用jpinyin的字典，结果一致
+				}
+			}
+			return build();
+		}
+	}
+}
@@ -0,0 +1,397 @@
+package org.bugapi.bugset.base.util.reflect;
+
+import org.bugapi.bugset.base.util.string.StringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 无参取值方法（getter）的访问器工具类
+ * <pre>
+ * 1、每个（类, 方法名）只通过反射解析一次，解析结果编译为{@link MethodHandle}并缓存
+ * 2、缓存挂在{@link ClassValue}上，随类一起被回收，不会因为缓存导致类加载器无法卸载
+ * 3、方法不存在、无法访问的结果同样会被缓存，避免重复的反射查找
+ * 4、只查找实例方法，同名的静态方法视为不存在
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public class AccessorUtil {
+
+	/**
+	 * 方法句柄查找器
+	 */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/**
+	 * 对象类型的取值方法签名：(Object)Object
+	 */
+	private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/**
+	 * int类型的取值方法签名：(Object)int
+	 */
+	private static final MethodType INT_GETTER_TYPE = MethodType.methodType(int.class, Object.class);
+
+	/**
+	 * long类型的取值方法签名：(Object)long
+	 */
+	private static final MethodType LONG_GETTER_TYPE = MethodType.methodType(long.class, Object.class);
+
+	/**
+	 * 类与（方法名与访问器映射）的缓存
+	 */
+	private static final ClassValue<ConcurrentMap<String, Getter>> GETTER_CACHE = new ClassValue<ConcurrentMap<String, Getter>>() {
+		@Override
+		protected ConcurrentMap<String, Getter> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(8);
+		}
+	};
+
+	/**
+	 * 获取类中指定名称的公共无参方法的访问器
+	 *
+	 * @param clazz      类型类
+	 * @param methodName 方法名
+	 * @return 访问器
+	 * @throws NoSuchMethodException 方法不存在异常
+	 * @throws IllegalAccessException 非法访问异常
+	 * @throws IllegalArgumentException 类型类为null或者方法名为空
+	 */
+	public static Getter getGetter(Class<?> clazz, String methodName) throws NoSuchMethodException, IllegalAccessException {
+		if (null == clazz) {
+			throw new IllegalArgumentException("类型类不能为null");
+		}
+		if (StringUtil.isEmpty(methodName)) {
+			throw new IllegalArgumentException("方法名不能为空：" + clazz.getName());
+		}
+		Getter getter = lookupGetter(clazz, methodName);
+		if (getter.state == Getter.NOT_FOUND) {
+			throw new NoSuchMethodException(clazz.getName() + "." + methodName + "()");
+		}
+		if (getter.state == Getter.NOT_ACCESSIBLE) {
+			throw new IllegalAccessException(clazz.getName() + "." + methodName + "()");
+		}
+		return getter;
+	}
+
+	/**
+	 * 生成按元素实际类型调用取值方法的int函数，方法不存在或调用失败时返回默认值
+	 * 【方法返回null时抛出NullPointerException，和拆箱的行为一致】
+	 *
+	 * @param methodName   方法名
+	 * @param defaultValue 默认值
+	 * @param <T>          元素类型
+	 * @return ToIntFunction int取值函数
+	 */
+	public static <T> ToIntFunction<T> toIntFunction(String methodName, int defaultValue) {
+		GetterResolver resolver = new GetterResolver(methodName);
+		return obj -> {
+			Getter getter = resolver.resolve(obj.getClass());
+			if (null == getter) {
+				return defaultValue;
+			}
+			try {
+				return getter.getInt(obj);
+			} catch (InvocationTargetException e) {
+				return defaultValue;
+			}
+		};
+	}
+
+	/**
+	 * 生成按元素实际类型调用取值方法的long函数，方法不存在或调用失败时返回默认值
+	 * 【方法返回null时抛出NullPointerException，和拆箱的行为一致】
+	 *
+	 * @param methodName   方法名
+	 * @param defaultValue 默认值
+	 * @param <T>          元素类型
+	 * @return ToLongFunction long取值函数
+	 */
+	public static <T> ToLongFunction<T> toLongFunction(String methodName, long defaultValue) {
+		GetterResolver resolver = new GetterResolver(methodName);
+		return obj -> {
+			Getter getter = resolver.resolve(obj.getClass());
+			if (null == getter) {
+				return defaultValue;
+			}
+			try {
+				return getter.getLong(obj);
+			} catch (InvocationTargetException e) {
+				return defaultValue;
+			}
+		};
+	}
+
+	/**
+	 * 生成按元素实际类型调用取值方法的函数，方法不存在或调用失败时返回默认值
+	 * 返回值按指定类型检查，类型不一致时在取值时抛出ClassCastException，不会把错误类型的值放进调用方的集合
+	 *
+	 * @param methodName   方法名
+	 * @param type         返回值类型
+	 * @param defaultValue 默认值
+	 * @param <T>          元素类型
+	 * @param <R>          返回值类型
+	 * @return Function 取值函数
+	 */
+	public static <T, R> Function<T, R> toFunction(String methodName, Class<R> type, R defaultValue) {
+		GetterResolver resolver = new GetterResolver(methodName);
+		return obj -> {
+			Getter getter = resolver.resolve(obj.getClass());
+			if (null == getter) {
+				return defaultValue;
+			}
+			try {
+				return type.cast(getter.get(obj));
+			} catch (InvocationTargetException e) {
+				return defaultValue;
+			}
+		};
+	}
+
+	/**
+	 * 从缓存中获取访问器，缓存中没有时解析并放入缓存
+	 *
+	 * @param clazz      类型类
+	 * @param methodName 方法名
+	 * @return 访问器（包含方法不存在、无法访问的状态）
+	 */
+	private static Getter lookupGetter(Class<?> clazz, String methodName) {
+		return GETTER_CACHE.get(clazz).computeIfAbsent(methodName, name -> createGetter(clazz, name));
+	}
+
+	/**
+	 * 解析并编译取值方法
+	 *
+	 * @param clazz      类型类
+	 * @param methodName 方法名
+	 * @return 访问器
+	 */
+	private static Getter createGetter(Class<?> clazz, String methodName) {
+		Method method;
+		try {
+			method = clazz.getMethod(methodName);
+		} catch (NoSuchMethodException e) {
+			return new Getter(clazz, Getter.NOT_FOUND, null);
+		}
+		if (Modifier.isStatic(method.getModifiers())) {
+			// 静态方法的句柄没有接收者参数，不能转换为(Object)的取值签名
+			return new Getter(clazz, Getter.NOT_FOUND, null);
+		}
+		try {
+			method.setAccessible(true);
+		} catch (RuntimeException e) {
+			// 模块或安全管理器限制时，按原有的访问控制进行查找
+		}
+		MethodHandle handle;
+		try {
+			handle = LOOKUP.unreflect(method);
+		} catch (IllegalAccessException e) {
+			return new Getter(clazz, Getter.NOT_ACCESSIBLE, null);
+		}
+		return new Getter(clazz, Getter.RESOLVED, handle);
+	}
+
+	/**
+	 * 将方法句柄转成指定的签名，不支持转换时返回null
+	 *
+	 * @param handle 方法句柄
+	 * @param type   方法签名
+	 * @return MethodHandle 转换后的方法句柄
+	 */
+	private static MethodHandle asTypeOrNull(MethodHandle handle, MethodType type) {
+		try {
+			return handle.asType(type);
+		} catch (WrongMethodTypeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 取值方法的访问器【不可变对象，可以在线程间安全共享】
+	 */
+	public static final class Getter {
+		/**
+		 * 状态：已解析
+		 */
+		private static final int RESOLVED = 0;
+		/**
+		 * 状态：方法不存在
+		 */
+		private static final int NOT_FOUND = 1;
+		/**
+		 * 状态：方法无法访问
+		 */
+		private static final int NOT_ACCESSIBLE = 2;
+
+		/**
+		 * 方法所属的类型类
+		 */
+		private final Class<?> targetClass;
+		/**
+		 * 解析状态
+		 */
+		private final int state;
+		/**
+		 * (Object)Object 签名的方法句柄
+		 */
+		private final MethodHandle objectHandle;
+		/**
+		 * (Object)int 签名的方法句柄，返回值不是可以转换为int的基本类型时为null
+		 */
+		private final MethodHandle intHandle;
+		/**
+		 * (Object)long 签名的方法句柄，返回值不是可以转换为long的基本类型时为null
+		 */
+		private final MethodHandle longHandle;
+
+		private Getter(Class<?> targetClass, int state, MethodHandle handle) {
+			this.targetClass = targetClass;
+			this.state = state;
+			if (null == handle) {
+				this.objectHandle = null;
+				this.intHandle = null;
+				this.longHandle = null;
+			} else {
+				this.objectHandle = handle.asType(OBJECT_GETTER_TYPE);
+				// 包装类型的返回值通过get()取值后再拆箱，避免拆箱的异常和方法本身的异常混在一起
+				boolean primitive = handle.type().returnType().isPrimitive();
+				this.intHandle = primitive ? asTypeOrNull(handle, INT_GETTER_TYPE) : null;
+				this.longHandle = primitive ? asTypeOrNull(handle, LONG_GETTER_TYPE) : null;
+			}
+		}
+
+		/**
+		 * 获取方法所属的类型类
+		 *
+		 * @return 类型类
+		 */
+		public Class<?> getTargetClass() {
+			return targetClass;
+		}
+
+		/**
+		 * 调用取值方法
+		 *
+		 * @param target 目标对象
+		 * @param <R>    返回值类型
+		 * @return 方法返回值
+		 * @throws InvocationTargetException 方法本身抛出的异常
+		 * @throws IllegalArgumentException 目标对象不是方法所属类型的实例
+		 */
+		@SuppressWarnings("unchecked")
+		public <R> R get(Object target) throws InvocationTargetException {
+			checkTarget(target);
+			Object value;
+			try {
+				value = (Object) objectHandle.invokeExact(target);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+			return (R) value;
+		}
+
+		/**
+		 * 调用返回值为int（或Integer）的取值方法
+		 *
+		 * @param target 目标对象
+		 * @return int 方法返回值
+		 * @throws InvocationTargetException 方法本身抛出的异常
+		 * @throws IllegalArgumentException 目标对象不是方法所属类型的实例
+		 */
+		public int getInt(Object target) throws InvocationTargetException {
+			if (null == intHandle) {
+				return (Integer) get(target);
+			}
+			checkTarget(target);
+			try {
+				return (int) intHandle.invokeExact(target);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+
+		/**
+		 * 调用返回值为long（或Long）的取值方法
+		 *
+		 * @param target 目标对象
+		 * @return long 方法返回值
+		 * @throws InvocationTargetException 方法本身抛出的异常
+		 * @throws IllegalArgumentException 目标对象不是方法所属类型的实例
+		 */
+		public long getLong(Object target) throws InvocationTargetException {
+			if (null == longHandle) {
+				return (Long) get(target);
+			}
+			checkTarget(target);
+			try {
+				return (long) longHandle.invokeExact(target);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+
+		/**
+		 * 校验目标对象的类型，避免句柄转换的异常被当作方法本身的异常
+		 *
+		 * @param target 目标对象
+		 */
+		private void checkTarget(Object target) {
+			if (!targetClass.isInstance(target)) {
+				throw new IllegalArgumentException("目标对象不是" + targetClass.getName() + "的实例："
+						+ (null == target ? null : target.getClass().getName()));
+			}
+		}
+	}
+
+	/**
+	 * 按元素实际类型解析访问器，并记住最近一次解析的结果
+	 * 【同一个集合中的元素通常是同一类型，命中时不需要再查缓存】
+	 */
+	private static final class GetterResolver {
+		/**
+		 * 方法名
+		 */
+		private final String methodName;
+		/**
+		 * 最近一次解析到的访问器（不可变对象，单引用读写在并发下是安全的）
+		 */
+		private Getter last;
+
+		private GetterResolver(String methodName) {
+			this.methodName = methodName;
+		}
+
+		/**
+		 * 解析访问器
+		 *
+		 * @param clazz 元素的类型类
+		 * @return 访问器，方法不存在或无法访问时返回null
+		 */
+		private Getter resolve(Class<?> clazz) {
+			Getter getter = last;
+			if (null == getter || getter.targetClass != clazz) {
+				getter = lookupGetter(clazz, methodName);
+				last = getter;
+			}
+			return getter.state == Getter.RESOLVED ? getter : null;
+		}
+	}
+}
@@ -0,0 +1,471 @@
+package org.bugapi.bugset.base.util.reflect;
+
+import org.bugapi.bugset.base.constant.MethodType;
+import org.bugapi.bugset.base.util.clazz.BaseClassUtil;
+import org.bugapi.bugset.base.util.string.StringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 对象属性复制器【按getter/setter复制同名属性，常用于DTO与实体之间的转换】
+ * <pre>
+ * 1、每个（源类, 目标类）只解析一次getter/setter，编译成{@link MethodHandle}后缓存，复制时不再反射
+ * 2、属性类型相同或者目标类型可以接收源类型时复制；基本数据类型与包装类之间自动转换，
+ *    包装类的值为null、目标是基本数据类型时不复制
+ * 3、类型不兼容、只有getter或只有setter的属性忽略
+ * </pre>
+ *
+ * @param <S> 源对象类型
+ * @param <T> 目标对象类型
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class BeanCopier<S, T> {
+
+	/**
+	 * 方法句柄查找器
+	 */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/**
+	 * 单个属性复制的方法签名：(Object source, Object target)void
+	 */
+	private static final java.lang.invoke.MethodType COPY_TYPE = java.lang.invoke.MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * 判断值不为null的方法句柄：(Object)boolean
+	 */
+	private static final MethodHandle NON_NULL;
+
+	/**
+	 * 什么都不做的方法句柄：(Object, Object)void
+	 */
+	private static final MethodHandle SKIP;
+
+	/**
+	 * 复制器的缓存：挂在两个类中类加载器层级更低（生命周期更短）的那个类上，键是另一个类
+	 * <pre>
+	 * 复制器同时强引用源类和目标类，挂在哪个类上就会让另一个类活得和它一样久：
+	 * 另一个类的类加载器是它的类加载器或者其祖先时，另一个类本来就不会早于它被回收，随类一起被回收；
+	 * 两个类的类加载器没有祖先关系时（例如两个兄弟类加载器），挂在哪边都会钉住另一边，这时不缓存
+	 * </pre>
+	 */
+	private static final ClassValue<Map<Class<?>, BeanCopier<?, ?>>> COPIER_CACHE = new ClassValue<Map<Class<?>, BeanCopier<?, ?>>>() {
+		@Override
+		protected Map<Class<?>, BeanCopier<?, ?>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(8);
+		}
+	};
+
+	static {
+		try {
+			NON_NULL = LOOKUP.findStatic(Objects.class, "nonNull", java.lang.invoke.MethodType.methodType(boolean.class, Object.class));
+			SKIP = LOOKUP.findStatic(BeanCopier.class, "skip", COPY_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * 源对象类型
+	 */
+	private final Class<S> sourceClass;
+
+	/**
+	 * 目标对象类型
+	 */
+	private final Class<T> targetClass;
+
+	/**
+	 * 可复制的属性名
+	 */
+	private final String[] propertyNames;
+
+	/**
+	 * 每个属性的复制句柄，签名为 (Object source, Object target)void
+	 */
+	private final MethodHandle[] copiers;
+
+	/**
+	 * 目标对象的无参构造器，不存在时为null
+	 */
+	private final Supplier<T> targetFactory;
+
+	private BeanCopier(Class<S> sourceClass, Class<T> targetClass) {
+		this.sourceClass = sourceClass;
+		this.targetClass = targetClass;
+		Map<String, Method> getters = getGetters(sourceClass);
+		Map<String, List<Method>> setters = getSetters(targetClass);
+		List<String> names = new ArrayList<>(getters.size());
+		List<MethodHandle> handles = new ArrayList<>(getters.size());
+		getters.forEach((name, getter) -> {
+			List<Method> candidates = setters.get(name);
+			if (null == candidates) {
+				return;
+			}
+			Method setter = chooseSetter(getter.getReturnType(), candidates);
+			if (null == setter) {
+				return;
+			}
+			MethodHandle handle = compile(getter, setter);
+			if (null != handle) {
+				names.add(name);
+				handles.add(handle);
+			}
+		});
+		this.propertyNames = names.toArray(new String[0]);
+		this.copiers = handles.toArray(new MethodHandle[0]);
+		this.targetFactory = createFactory(targetClass);
+	}
+
+	/**
+	 * 获取复制器【两个类的类加载器没有祖先关系时不缓存，每次都新建，需要重复使用时由调用方持有】
+	 *
+	 * @param sourceClass 源对象类型
+	 * @param targetClass 目标对象类型
+	 * @param <S>         源对象类型
+	 * @param <T>         目标对象类型
+	 * @return BeanCopier 复制器
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S, T> BeanCopier<S, T> create(Class<S> sourceClass, Class<T> targetClass) {
+		Objects.requireNonNull(sourceClass, "sourceClass");
+		Objects.requireNonNull(targetClass, "targetClass");
+		ClassLoader sourceLoader = sourceClass.getClassLoader();
+		ClassLoader targetLoader = targetClass.getClassLoader();
+		if (isAncestor(sourceLoader, targetLoader)) {
+			return (BeanCopier<S, T>) COPIER_CACHE.get(targetClass)
+					.computeIfAbsent(sourceClass, type -> new BeanCopier<>(sourceClass, targetClass));
+		}
+		if (isAncestor(targetLoader, sourceLoader)) {
+			return (BeanCopier<S, T>) COPIER_CACHE.get(sourceClass)
+					.computeIfAbsent(targetClass, type -> new BeanCopier<>(sourceClass, targetClass));
+		}
+		// 类加载器没有祖先关系，缓存会钉住其中一个类加载器，调用方需要自己持有复制器
+		return new BeanCopier<>(sourceClass, targetClass);
+	}
+
+	/**
+	 * 类加载器是否是另一个类加载器本身或者其祖先【null表示启动类加载器，是所有类加载器的祖先】
+	 *
+	 * @param ancestor 祖先类加载器
+	 * @param loader   类加载器
+	 * @return boolean 【true：是本身或者祖先】
+	 */
+	private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+		if (null == ancestor) {
+			return true;
+		}
+		for (ClassLoader current = loader; null != current; current = current.getParent()) {
+			if (current == ancestor) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 按两个对象的实际类型复制属性
+	 *
+	 * @param source 源对象
+	 * @param target 目标对象
+	 */
+	@SuppressWarnings("unchecked")
+	public static void copyProperties(Object source, Object target) {
+		if (null == source || null == target) {
+			return;
+		}
+		((BeanCopier<Object, Object>) create(source.getClass(), target.getClass())).copy(source, target);
+	}
+
+	/**
+	 * 复制属性到已有的目标对象
+	 *
+	 * @param source 源对象
+	 * @param target 目标对象
+	 */
+	public void copy(S source, T target) {
+		if (null == source || null == target) {
+			return;
+		}
+		try {
+			for (MethodHandle copier : copiers) {
+				copier.invokeExact((Object) source, (Object) target);
+			}
+		} catch (Throwable e) {
+			throw unchecked(e);
+		}
+	}
+
+	/**
+	 * 复制属性到新创建的目标对象
+	 *
+	 * @param source 源对象
+	 * @return T 目标对象，源对象为null返回null
+	 */
+	public T copy(S source) {
+		if (null == source) {
+			return null;
+		}
+		T target = newTarget();
+		copy(source, target);
+		return target;
+	}
+
+	/**
+	 * 批量复制【结果集合按源集合大小预先分配容量，源集合中的null元素对应null】
+	 *
+	 * @param sources 源对象集合
+	 * @return List<T> 目标对象集合，源集合为null返回空集合
+	 */
+	public List<T> copyList(Collection<? extends S> sources) {
+		if (null == sources) {
+			return new ArrayList<>(0);
+		}
+		List<T> targets = new ArrayList<>(sources.size());
+		for (S source : sources) {
+			targets.add(copy(source));
+		}
+		return targets;
+	}
+
+	/**
+	 * 获取源对象类型
+	 *
+	 * @return Class 源对象类型
+	 */
+	public Class<S> getSourceClass() {
+		return sourceClass;
+	}
+
+	/**
+	 * 获取目标对象类型
+	 *
+	 * @return Class 目标对象类型
+	 */
+	public Class<T> getTargetClass() {
+		return targetClass;
+	}
+
+	/**
+	 * 获取会被复制的属性名
+	 *
+	 * @return String[] 属性名
+	 */
+	public String[] getPropertyNames() {
+		return propertyNames.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "BeanCopier[" + sourceClass.getName() + " -> " + targetClass.getName() + "]";
+	}
+
+	/**
+	 * 创建目标对象
+	 *
+	 * @return T 目标对象
+	 */
+	private T newTarget() {
+		if (null == targetFactory) {
+			throw new IllegalStateException(targetClass.getName() + "没有可以访问的无参构造器");
+		}
+		return targetFactory.get();
+	}
+
+	/**
+	 * 获取类的公共getter方法【方法名以get开头、无参、有返回值，不包括Object中的方法】
+	 *
+	 * @param clazz 类
+	 * @return Map 属性名与getter方法的映射
+	 */
+	private static Map<String, Method> getGetters(Class<?> clazz) {
+		Map<String, Method> getters = new HashMap<>(16);
+		for (Method method : clazz.getMethods()) {
+			String name = propertyName(method, MethodType.GETTER_PREFIX, 0);
+			if (null != name && method.getReturnType() != void.class) {
+				getters.put(name, method);
+			}
+		}
+		return getters;
+	}
+
+	/**
+	 * 获取类的公共setter方法【方法名以set开头、只有一个参数，同名的setter可能有多个】
+	 *
+	 * @param clazz 类
+	 * @return Map 属性名与setter方法的映射
+	 */
+	private static Map<String, List<Method>> getSetters(Class<?> clazz) {
+		Map<String, List<Method>> setters = new HashMap<>(16);
+		for (Method method : clazz.getMethods()) {
+			String name = propertyName(method, MethodType.SETTER_PREFIX, 1);
+			if (null != name) {
+				setters.computeIfAbsent(name, key -> new ArrayList<>(1)).add(method);
+			}
+		}
+		return setters;
+	}
+
+	/**
+	 * 根据方法名解析属性名
+	 *
+	 * @param method         方法
+	 * @param prefix         方法名前缀
+	 * @param parameterCount 参数个数
+	 * @return 属性名，不是getter/setter返回null
+	 */
+	private static String propertyName(Method method, String prefix, int parameterCount) {
+		String name = method.getName();
+		if (name.length() <= prefix.length() || !name.startsWith(prefix) || method.getParameterCount() != parameterCount
+				|| Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getDeclaringClass() == Object.class) {
+			return null;
+		}
+		return StringUtil.firstCharLowCase(name.substring(prefix.length()));
+	}
+
+	/**
+	 * 从同名的setter中选择可以接收getter返回值的setter【类型完全一致的优先】
+	 *
+	 * @param valueType getter的返回值类型
+	 * @param setters   同名的setter
+	 * @return setter，都不兼容返回null
+	 */
+	private static Method chooseSetter(Class<?> valueType, List<Method> setters) {
+		Method compatible = null;
+		for (Method setter : setters) {
+			Class<?> parameterType = setter.getParameterTypes()[0];
+			if (parameterType == valueType) {
+				return setter;
+			}
+			if (null == compatible && isCompatible(valueType, parameterType)) {
+				compatible = setter;
+			}
+		}
+		return compatible;
+	}
+
+	/**
+	 * 判断值类型是否可以赋给参数类型
+	 *
+	 * @param valueType     值类型
+	 * @param parameterType 参数类型
+	 * @return boolean 【true：可以赋值】
+	 */
+	private static boolean isCompatible(Class<?> valueType, Class<?> parameterType) {
+		if (parameterType.isPrimitive() || valueType.isPrimitive()) {
+			// 基本数据类型与包装类之间转换（不做数值的拓宽与收窄）
+			return BaseClassUtil.getWrapperType(parameterType) == BaseClassUtil.getWrapperType(valueType)
+					|| (valueType.isPrimitive() && parameterType.isAssignableFrom(BaseClassUtil.getWrapperType(valueType)));
+		}
+		return parameterType.isAssignableFrom(valueType);
+	}
+
+	/**
+	 * 将getter和setter编译成一个复制句柄：setter(target, getter(source))
+	 *
+	 * @param getter 源类的getter
+	 * @param setter 目标类的setter
+	 * @return MethodHandle 签名为 (Object, Object)void 的复制句柄，无法访问返回null
+	 */
+	private static MethodHandle compile(Method getter, Method setter) {
+		MethodHandle getterHandle = unreflect(getter);
+		MethodHandle setterHandle = unreflect(setter);
+		if (null == getterHandle || null == setterHandle) {
+			return null;
+		}
+		Class<?> valueType = getter.getReturnType();
+		// (target, value)void，value的类型与getter的返回值一致，基本数据类型之间不装箱
+		MethodHandle assign = setterHandle.asType(setterHandle.type().changeParameterType(1, valueType));
+		if (!valueType.isPrimitive() && setter.getParameterTypes()[0].isPrimitive()) {
+			// 包装类的值为null时不能拆箱，跳过该属性
+			MethodHandle test = MethodHandles.dropArguments(NON_NULL.asType(NON_NULL.type().changeParameterType(0, valueType)),
+					0, assign.type().parameterType(0));
+			MethodHandle skip = SKIP.asType(assign.type());
+			assign = MethodHandles.guardWithTest(test, assign, skip);
+		}
+		// (target, source)void
+		MethodHandle copy = MethodHandles.filterArguments(assign, 1, getterHandle);
+		// (source, target)void
+		copy = MethodHandles.permuteArguments(copy, java.lang.invoke.MethodType.methodType(void.class,
+				copy.type().parameterType(1), copy.type().parameterType(0)), 1, 0);
+		return copy.asType(COPY_TYPE);
+	}
+
+	/**
+	 * 获取方法的方法句柄
+	 *
+	 * @param method 方法
+	 * @return MethodHandle 方法句柄，无法访问返回null
+	 */
+	private static MethodHandle unreflect(Method method) {
+		try {
+			method.setAccessible(true);
+		} catch (RuntimeException e) {
+			// 模块或安全管理器限制时，保持原有的访问控制
+		}
+		try {
+			return LOOKUP.unreflect(method);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 创建目标对象的工厂
+	 *
+	 * @param targetClass 目标对象类型
+	 * @param <T>         目标对象类型
+	 * @return Supplier 无参构造器的调用函数，不存在或无法访问返回null
+	 */
+	private static <T> Supplier<T> createFactory(Class<T> targetClass) {
+		if (targetClass.isInterface() || Modifier.isAbstract(targetClass.getModifiers())) {
+			return null;
+		}
+		try {
+			Constructor<T> constructor = MemberCache.getDeclaredConstructor(targetClass);
+			return Invoker.of(constructor).asSupplier();
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 将异常转成非受检异常，受检异常使用{@link UndeclaredThrowableException}包装
+	 *
+	 * @param e 异常
+	 * @return RuntimeException 非受检异常
+	 */
+	private static RuntimeException unchecked(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new UndeclaredThrowableException(e);
+	}
+
+	/**
+	 * 跳过属性复制
+	 *
+	 * @param target 目标对象
+	 * @param value  属性值
+	 */
+	private static void skip(Object target, Object value) {
+		// 什么都不做
+	}
+}
@@ -0,0 +1,423 @@
+package org.bugapi.bugset.base.util.reflect;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 类的元数据快照【不可变】
+ * <pre>
+ * 1、包含类中声明的属性、方法，类与成员的修饰符，类与成员上的注解（包括元注解），父类与接口的泛型参数
+ * 2、挂在{@link ClassValue}上，随类一起被回收（相当于以类为弱引用key的缓存）；注解、泛型参数各自在第一次使用时才解析，
+ *    只用到类注解的调用方不会解析成员上的注解
+ * 3、切面、校验等每次请求都要检查同一批类的代码，直接从快照中读取，不再重复调用JDK的反射方法
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class ClassMetadata {
+
+	/**
+	 * 元注解中忽略的包【@Retention、@Target等不作为业务注解】
+	 */
+	private static final String IGNORED_META_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+	/**
+	 * 类与元数据的缓存
+	 */
+	private static final ClassValue<ClassMetadata> METADATA_CACHE = new ClassValue<ClassMetadata>() {
+		@Override
+		protected ClassMetadata computeValue(Class<?> type) {
+			return new ClassMetadata(type);
+		}
+	};
+
+	/**
+	 * 类
+	 */
+	private final Class<?> type;
+
+	/**
+	 * 类的修饰符
+	 */
+	private final int modifiers;
+
+	/**
+	 * 类上的注解【第一次使用时解析，多个线程同时解析时结果相同，以最后一次为准】
+	 */
+	private volatile AnnotationSet annotations;
+
+	/**
+	 * 属性与属性上的注解的映射【第一次使用时解析】
+	 */
+	private volatile Map<Field, AnnotationSet> fieldAnnotations;
+
+	/**
+	 * 方法与方法上的注解的映射【第一次使用时解析】
+	 */
+	private volatile Map<Method, AnnotationSet> methodAnnotations;
+
+	/**
+	 * 父类的泛型参数，不是Class的泛型参数为null【第一次使用时解析】
+	 */
+	private volatile Class<?>[] superClassGenerics;
+
+	/**
+	 * 每个接口的泛型参数，不是Class的泛型参数为null【第一次使用时解析】
+	 */
+	private volatile Class<?>[][] interfaceGenerics;
+
+	private ClassMetadata(Class<?> type) {
+		this.type = type;
+		this.modifiers = type.getModifiers();
+	}
+
+	/**
+	 * 获取类的元数据
+	 *
+	 * @param clazz 类
+	 * @return ClassMetadata 元数据，类为null返回null
+	 */
+	public static ClassMetadata of(Class<?> clazz) {
+		return null == clazz ? null : METADATA_CACHE.get(clazz);
+	}
+
+	/**
+	 * 获取类
+	 *
+	 * @return Class 类
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * 获取类的修饰符
+	 *
+	 * @return int 修饰符
+	 */
+	public int getModifiers() {
+		return modifiers;
+	}
+
+	/**
+	 * 类的修饰符是否包含指定修饰符中的任意一个
+	 *
+	 * @param modifierMask 修饰符的位掩码，参照{@link java.lang.reflect.Modifier}
+	 * @return boolean 【true：包含】
+	 */
+	public boolean hasModifier(int modifierMask) {
+		return 0 != (modifiers & modifierMask);
+	}
+
+	/**
+	 * 获取类中声明的属性【每次返回新的数组和属性副本（JDK内部已缓存），调用方setAccessible不会影响其他调用方】
+	 *
+	 * @return Field[] 属性
+	 */
+	public Field[] getDeclaredFields() {
+		return type.getDeclaredFields();
+	}
+
+	/**
+	 * 获取类中声明的方法【每次返回新的数组和方法副本（JDK内部已缓存），调用方setAccessible不会影响其他调用方】
+	 *
+	 * @return Method[] 方法
+	 */
+	public Method[] getDeclaredMethods() {
+		return type.getDeclaredMethods();
+	}
+
+	/**
+	 * 获取类上的注解，与{@link Class#getAnnotation(Class)}一致
+	 *
+	 * @param annotationClass 注解类
+	 * @param <A>             注解类的泛型
+	 * @return 注解实例，不存在返回null
+	 */
+	public <A extends Annotation> A getAnnotation(Class<A> annotationClass) {
+		return annotations().get(annotationClass);
+	}
+
+	/**
+	 * 查找类上的注解，类上没有时查找注解上的元注解
+	 *
+	 * @param annotationClass 注解类
+	 * @param <A>             注解类的泛型
+	 * @return 注解实例，不存在返回null
+	 */
+	public <A extends Annotation> A findAnnotation(Class<A> annotationClass) {
+		return annotations().find(annotationClass);
+	}
+
+	/**
+	 * 获取类上的注解
+	 *
+	 * @return Annotation[] 注解
+	 */
+	public Annotation[] getAnnotations() {
+		return annotations().annotations.clone();
+	}
+
+	/**
+	 * 获取属性上的注解
+	 *
+	 * @param field           本类中声明的属性
+	 * @param annotationClass 注解类
+	 * @param <A>             注解类的泛型
+	 * @return 注解实例，不存在返回null
+	 */
+	public <A extends Annotation> A getFieldAnnotation(Field field, Class<A> annotationClass) {
+		AnnotationSet set = fieldAnnotations().get(field);
+		return null == set ? field.getAnnotation(annotationClass) : set.get(annotationClass);
+	}
+
+	/**
+	 * 查找属性上的注解，属性上没有时查找注解上的元注解
+	 *
+	 * @param field           本类中声明的属性
+	 * @param annotationClass 注解类
+	 * @param <A>             注解类的泛型
+	 * @return 注解实例，不存在返回null
+	 */
+	public <A extends Annotation> A findFieldAnnotation(Field field, Class<A> annotationClass) {
+		AnnotationSet set = fieldAnnotations().get(field);
+		return null == set ? AnnotationSet.of(field).find(annotationClass) : set.find(annotationClass);
+	}
+
+	/**
+	 * 获取方法上的注解
+	 *
+	 * @param method          本类中声明的方法
+	 * @param annotationClass 注解类
+	 * @param <A>             注解类的泛型
+	 * @return 注解实例，不存在返回null
+	 */
+	public <A extends Annotation> A getMethodAnnotation(Method method, Class<A> annotationClass) {
+		AnnotationSet set = methodAnnotations().get(method);
+		return null == set ? method.getAnnotation(annotationClass) : set.get(annotationClass);
+	}
+
+	/**
+	 * 查找方法上的注解，方法上没有时查找注解上的元注解
+	 *
+	 * @param method          本类中声明的方法
+	 * @param annotationClass 注解类
+	 * @param <A>             注解类的泛型
+	 * @return 注解实例，不存在返回null
+	 */
+	public <A extends Annotation> A findMethodAnnotation(Method method, Class<A> annotationClass) {
+		AnnotationSet set = methodAnnotations().get(method);
+		return null == set ? AnnotationSet.of(method).find(annotationClass) : set.find(annotationClass);
+	}
+
+	/**
+	 * 获取直接父类的泛型参数，与{@link org.bugapi.bugset.base.util.clazz.ClassUtil#getSuperClassGenericsClass(Class, int)}一致
+	 *
+	 * @param index 泛型参数的索引号
+	 * @return Class<?> 泛型参数，不存在或者不是Class返回null
+	 */
+	public Class<?> getSuperClassGenericsClass(int index) {
+		Class<?>[] generics = superClassGenerics;
+		if (null == generics) {
+			superClassGenerics = generics = typeArguments(type.getGenericSuperclass());
+		}
+		return index < 0 || index >= generics.length ? null : generics[index];
+	}
+
+	/**
+	 * 获取接口的泛型参数，与{@link org.bugapi.bugset.base.util.clazz.ClassUtil#getInterfaceGenericsClass(Class, int, int)}一致
+	 *
+	 * @param interfaceIndex 接口的索引号
+	 * @param index          泛型参数的索引号
+	 * @return Class<?> 泛型参数，不存在或者不是Class返回null
+	 */
+	public Class<?> getInterfaceGenericsClass(int interfaceIndex, int index) {
+		Class<?>[][] allGenerics = interfaceGenerics;
+		if (null == allGenerics) {
+			Type[] interfaces = type.getGenericInterfaces();
+			allGenerics = new Class<?>[interfaces.length][];
+			for (int i = 0; i < interfaces.length; i++) {
+				allGenerics[i] = typeArguments(interfaces[i]);
+			}
+			interfaceGenerics = allGenerics;
+		}
+		if (interfaceIndex < 0 || interfaceIndex >= allGenerics.length) {
+			return null;
+		}
+		Class<?>[] generics = allGenerics[interfaceIndex];
+		return index < 0 || index >= generics.length ? null : generics[index];
+	}
+
+	@Override
+	public String toString() {
+		return "ClassMetadata[" + type.getName() + "]";
+	}
+
+	/**
+	 * 获取类上的注解，第一次使用时解析
+	 *
+	 * @return AnnotationSet 类上的注解
+	 */
+	private AnnotationSet annotations() {
+		AnnotationSet result = annotations;
+		if (null == result) {
+			annotations = result = AnnotationSet.of(type);
+		}
+		return result;
+	}
+
+	/**
+	 * 获取属性与注解的映射，第一次使用时解析
+	 *
+	 * @return Map 属性与注解的映射
+	 */
+	private Map<Field, AnnotationSet> fieldAnnotations() {
+		Map<Field, AnnotationSet> result = fieldAnnotations;
+		if (null == result) {
+			fieldAnnotations = result = annotationsOf(type.getDeclaredFields());
+		}
+		return result;
+	}
+
+	/**
+	 * 获取方法与注解的映射，第一次使用时解析
+	 *
+	 * @return Map 方法与注解的映射
+	 */
+	private Map<Method, AnnotationSet> methodAnnotations() {
+		Map<Method, AnnotationSet> result = methodAnnotations;
+		if (null == result) {
+			methodAnnotations = result = annotationsOf(type.getDeclaredMethods());
+		}
+		return result;
+	}
+
+	/**
+	 * 构建成员与注解的映射
+	 *
+	 * @param members 成员
+	 * @param <M>     成员类型
+	 * @return Map 成员与注解的映射
+	 */
+	private static <M extends AnnotatedElement> Map<M, AnnotationSet> annotationsOf(M[] members) {
+		Map<M, AnnotationSet> result = new HashMap<>(Math.max(16, members.length * 2));
+		for (M member : members) {
+			result.put(member, AnnotationSet.of(member));
+		}
+		return result;
+	}
+
+	/**
+	 * 解析泛型参数
+	 *
+	 * @param type 父类或接口的类型
+	 * @return Class<?>[] 泛型参数，不是Class的泛型参数为null
+	 */
+	private static Class<?>[] typeArguments(Type type) {
+		if (!(type instanceof ParameterizedType)) {
+			return new Class<?>[0];
+		}
+		Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+		Class<?>[] result = new Class<?>[arguments.length];
+		for (int i = 0; i < arguments.length; i++) {
+			if (arguments[i] instanceof Class) {
+				result[i] = (Class<?>) arguments[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 一个元素上的注解：直接注解，以及直接注解与元注解合并后的结果【先直接注解，后按层次展开元注解，先找到的优先】
+	 */
+	private static final class AnnotationSet {
+		/**
+		 * 没有注解
+		 */
+		private static final AnnotationSet EMPTY = new AnnotationSet(new Annotation[0],
+				Collections.emptyMap(), Collections.emptyMap());
+
+		/**
+		 * 元素上的注解
+		 */
+		private final Annotation[] annotations;
+		/**
+		 * 注解类型与元素上的注解的映射
+		 */
+		private final Map<Class<? extends Annotation>, Annotation> direct;
+		/**
+		 * 注解类型与元素上的注解、元注解的映射
+		 */
+		private final Map<Class<? extends Annotation>, Annotation> merged;
+
+		private AnnotationSet(Annotation[] annotations, Map<Class<? extends Annotation>, Annotation> direct,
+							  Map<Class<? extends Annotation>, Annotation> merged) {
+			this.annotations = annotations;
+			this.direct = direct;
+			this.merged = merged;
+		}
+
+		/**
+		 * 解析元素上的注解
+		 *
+		 * @param element 类或成员
+		 * @return AnnotationSet 注解
+		 */
+		private static AnnotationSet of(AnnotatedElement element) {
+			Annotation[] annotations = element.getAnnotations();
+			if (annotations.length == 0) {
+				return EMPTY;
+			}
+			Map<Class<? extends Annotation>, Annotation> direct = new HashMap<>(annotations.length * 2);
+			for (Annotation annotation : annotations) {
+				direct.put(annotation.annotationType(), annotation);
+			}
+			Map<Class<? extends Annotation>, Annotation> merged = new LinkedHashMap<>(direct);
+			Deque<Annotation> queue = new ArrayDeque<>(Arrays.asList(annotations));
+			while (!queue.isEmpty()) {
+				for (Annotation meta : queue.poll().annotationType().getAnnotations()) {
+					Class<? extends Annotation> metaType = meta.annotationType();
+					if (!metaType.getName().startsWith(IGNORED_META_ANNOTATION_PACKAGE) && !merged.containsKey(metaType)) {
+						merged.put(metaType, meta);
+						queue.add(meta);
+					}
+				}
+			}
+			return new AnnotationSet(annotations, direct, merged.size() == direct.size() ? direct : merged);
+		}
+
+		/**
+		 * 获取直接注解
+		 *
+		 * @param annotationClass 注解类
+		 * @param <A>             注解类的泛型
+		 * @return 注解实例，不存在返回null
+		 */
+		private <A extends Annotation> A get(Class<A> annotationClass) {
+			return annotationClass.cast(direct.get(annotationClass));
+		}
+
+		/**
+		 * 获取直接注解或元注解
+		 *
+		 * @param annotationClass 注解类
+		 * @param <A>             注解类的泛型
+		 * @return 注解实例，不存在返回null
+		 */
+		private <A extends Annotation> A find(Class<A> annotationClass) {
+			return annotationClass.cast(merged.get(annotationClass));
+		}
+	}
+}
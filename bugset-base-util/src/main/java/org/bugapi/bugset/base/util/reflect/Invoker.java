@@ -0,0 +1,527 @@
+package org.bugapi.bugset.base.util.reflect;
+
+import org.bugapi.bugset.base.function.FiveParamFunction;
+import org.bugapi.bugset.base.function.FourParamFunction;
+import org.bugapi.bugset.base.function.ThreeParamFunction;
+import org.bugapi.bugset.base.function.TwoParamFunction;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 基于{@link MethodHandle}的调用器，将方法、构造器、属性转成可直接调用的对象
+ * <pre>
+ * 1、方法句柄在创建时完成访问检查，调用时不再做访问检查
+ * 2、按声明类缓存，同一个成员只创建一次调用器
+ * 3、固定参数个数的成员可以转成{@link Function}、{@link TwoParamFunction}…{@link FiveParamFunction}，
+ *    实例成员的第一个参数为目标对象
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class Invoker {
+
+	/**
+	 * 方法句柄查找器
+	 */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/**
+	 * 空参数数组
+	 */
+	private static final Object[] EMPTY_ARGS = new Object[0];
+
+	/**
+	 * 声明类与（成员与调用器映射）的缓存
+	 */
+	private static final ClassValue<ConcurrentMap<Object, Invoker>> INVOKER_CACHE = new ClassValue<ConcurrentMap<Object, Invoker>>() {
+		@Override
+		protected ConcurrentMap<Object, Invoker> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(16);
+		}
+	};
+
+	/**
+	 * 被调用的成员
+	 */
+	private final Member member;
+
+	/**
+	 * 是否需要目标对象（实例方法、实例属性）
+	 */
+	private final boolean needTarget;
+
+	/**
+	 * 成员自身的参数个数（不包括目标对象）
+	 */
+	private final int parameterCount;
+
+	/**
+	 * 成员自身的参数类型（不包括目标对象）
+	 */
+	private final Class<?>[] parameterTypes;
+
+	/**
+	 * 签名为 (Object, Object...)Object 的方法句柄，第一个参数为目标对象
+	 */
+	private final MethodHandle spreadHandle;
+
+	/**
+	 * 签名为 (Object, Object, ...)Object 的方法句柄，参数个数为 {@link #arity()}
+	 */
+	private final MethodHandle exactHandle;
+
+	private Invoker(Member member, boolean needTarget, MethodHandle handle) {
+		this.member = member;
+		this.needTarget = needTarget;
+		this.parameterCount = handle.type().parameterCount() - (needTarget ? 1 : 0);
+		this.parameterTypes = handle.type().dropParameterTypes(0, needTarget ? 1 : 0).parameterArray();
+		this.exactHandle = handle.asType(MethodType.genericMethodType(handle.type().parameterCount()));
+		MethodHandle spread = exactHandle.asSpreader(Object[].class, parameterCount);
+		this.spreadHandle = needTarget ? spread : MethodHandles.dropArguments(spread, 0, Object.class);
+	}
+
+	/**
+	 * 获取方法的调用器
+	 *
+	 * @param method 方法
+	 * @return 调用器
+	 * @throws IllegalAccessException 非法访问异常
+	 */
+	public static Invoker of(Method method) throws IllegalAccessException {
+		Invoker invoker = INVOKER_CACHE.get(method.getDeclaringClass()).get(method);
+		if (null == invoker) {
+			makeAccessible(method);
+			invoker = cache(method, new Invoker(method, !Modifier.isStatic(method.getModifiers()),
+					LOOKUP.unreflect(method).asFixedArity()));
+		}
+		return invoker;
+	}
+
+	/**
+	 * 获取构造器的调用器
+	 *
+	 * @param constructor 构造器
+	 * @return 调用器
+	 * @throws IllegalAccessException 非法访问异常
+	 */
+	public static Invoker of(Constructor<?> constructor) throws IllegalAccessException {
+		Invoker invoker = INVOKER_CACHE.get(constructor.getDeclaringClass()).get(constructor);
+		if (null == invoker) {
+			makeAccessible(constructor);
+			invoker = cache(constructor, new Invoker(constructor, false, LOOKUP.unreflectConstructor(constructor).asFixedArity()));
+		}
+		return invoker;
+	}
+
+	/**
+	 * 获取读取属性值的调用器
+	 *
+	 * @param field 属性
+	 * @return 调用器
+	 * @throws IllegalAccessException 非法访问异常
+	 */
+	public static Invoker ofGetter(Field field) throws IllegalAccessException {
+		FieldKey key = new FieldKey(field, false);
+		Invoker invoker = INVOKER_CACHE.get(field.getDeclaringClass()).get(key);
+		if (null == invoker) {
+			makeAccessible(field);
+			invoker = cache(key, new Invoker(field, !Modifier.isStatic(field.getModifiers()), LOOKUP.unreflectGetter(field)));
+		}
+		return invoker;
+	}
+
+	/**
+	 * 获取设置属性值的调用器
+	 *
+	 * @param field 属性
+	 * @return 调用器
+	 * @throws IllegalAccessException 非法访问异常
+	 */
+	public static Invoker ofSetter(Field field) throws IllegalAccessException {
+		FieldKey key = new FieldKey(field, true);
+		Invoker invoker = INVOKER_CACHE.get(field.getDeclaringClass()).get(key);
+		if (null == invoker) {
+			makeAccessible(field);
+			invoker = cache(key, new Invoker(field, !Modifier.isStatic(field.getModifiers()), LOOKUP.unreflectSetter(field)));
+		}
+		return invoker;
+	}
+
+	/**
+	 * 获取被调用的成员
+	 *
+	 * @return 成员
+	 */
+	public Member getMember() {
+		return member;
+	}
+
+	/**
+	 * 转成函数式接口时的参数个数（实例成员包括目标对象）
+	 *
+	 * @return int 参数个数
+	 */
+	public int arity() {
+		return parameterCount + (needTarget ? 1 : 0);
+	}
+
+	/**
+	 * 调用方法、读取或设置属性
+	 *
+	 * @param target 目标对象，静态成员时忽略
+	 * @param args   参数
+	 * @param <T>    返回值类型
+	 * @return T 返回值，属性设置和void方法返回null
+	 * @throws InvocationTargetException 成员本身抛出的异常
+	 * @throws IllegalArgumentException  目标对象不是声明类的实例、参数个数或者参数类型不匹配（和{@link Method#invoke}一致）
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T invoke(Object target, Object... args) throws InvocationTargetException {
+		if (needTarget) {
+			if (null == target) {
+				throw new NullPointerException("调用实例成员" + member + "时目标对象为null");
+			}
+			if (!member.getDeclaringClass().isInstance(target)) {
+				throw new IllegalArgumentException("object is not an instance of declaring class: "
+						+ target.getClass().getName() + ", member: " + member);
+			}
+		}
+		Object[] arguments = null == args ? EMPTY_ARGS : args;
+		if (arguments.length != parameterCount) {
+			throw new IllegalArgumentException("wrong number of arguments: " + arguments.length + ", expected: " + parameterCount);
+		}
+		checkArgumentTypes(arguments);
+		// 目标对象和参数都已经校验，方法句柄的类型转换不会失败，这里捕获的都是成员本身抛出的异常
+		Object result;
+		try {
+			result = (Object) spreadHandle.invokeExact(target, arguments);
+		} catch (Throwable e) {
+			throw new InvocationTargetException(e);
+		}
+		return (T) result;
+	}
+
+	/**
+	 * 调用构造器创建对象
+	 *
+	 * @param args 参数
+	 * @param <T>  对象类型
+	 * @return T 对象
+	 * @throws InvocationTargetException 调用目标异常
+	 */
+	public <T> T newInstance(Object... args) throws InvocationTargetException {
+		return invoke(null, args);
+	}
+
+	/**
+	 * 转成无参的{@link Supplier}
+	 *
+	 * @param <R> 返回值类型
+	 * @return Supplier
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> Supplier<R> asSupplier() {
+		MethodHandle handle = exactHandle(0, Supplier.class);
+		return () -> {
+			try {
+				return (R) (Object) handle.invokeExact();
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		};
+	}
+
+	/**
+	 * 转成单参数的{@link Function}
+	 *
+	 * @param <A> 参数1类型
+	 * @param <R> 返回值类型
+	 * @return Function
+	 */
+	@SuppressWarnings("unchecked")
+	public <A, R> Function<A, R> asFunction() {
+		MethodHandle handle = exactHandle(1, Function.class);
+		return a -> {
+			try {
+				return (R) (Object) handle.invokeExact((Object) a);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		};
+	}
+
+	/**
+	 * 转成{@link TwoParamFunction}
+	 *
+	 * @param <A> 参数1类型
+	 * @param <B> 参数2类型
+	 * @param <R> 返回值类型
+	 * @return TwoParamFunction
+	 */
+	@SuppressWarnings("unchecked")
+	public <A, B, R> TwoParamFunction<A, B, R> asTwoParamFunction() {
+		MethodHandle handle = exactHandle(2, TwoParamFunction.class);
+		return (a, b) -> {
+			try {
+				return (R) (Object) handle.invokeExact((Object) a, (Object) b);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		};
+	}
+
+	/**
+	 * 转成{@link ThreeParamFunction}
+	 *
+	 * @param <A> 参数1类型
+	 * @param <B> 参数2类型
+	 * @param <C> 参数3类型
+	 * @param <R> 返回值类型
+	 * @return ThreeParamFunction
+	 */
+	@SuppressWarnings("unchecked")
+	public <A, B, C, R> ThreeParamFunction<A, B, C, R> asThreeParamFunction() {
+		MethodHandle handle = exactHandle(3, ThreeParamFunction.class);
+		return (a, b, c) -> {
+			try {
+				return (R) (Object) handle.invokeExact((Object) a, (Object) b, (Object) c);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		};
+	}
+
+	/**
+	 * 转成{@link FourParamFunction}
+	 *
+	 * @param <A> 参数1类型
+	 * @param <B> 参数2类型
+	 * @param <C> 参数3类型
+	 * @param <D> 参数4类型
+	 * @param <R> 返回值类型
+	 * @return FourParamFunction
+	 */
+	@SuppressWarnings("unchecked")
+	public <A, B, C, D, R> FourParamFunction<A, B, C, D, R> asFourParamFunction() {
+		MethodHandle handle = exactHandle(4, FourParamFunction.class);
+		return (a, b, c, d) -> {
+			try {
+				return (R) (Object) handle.invokeExact((Object) a, (Object) b, (Object) c, (Object) d);
+			} catch (Throwable e) {
+				throw unchecked(e);
+			}
+		};
+	}
+
+	/**
+	 * 转成{@link FiveParamFunction}
+	 *
+	 * @param <A> 参数1类型
+	 * @param <B> 参数2类型
+	 * @param <C> 参数3类型
+	 * @param <D> 参数4类型
+	 * @param <E> 参数5类型
+	 * @param <R> 返回值类型
+	 * @return FiveParamFunction
+	 */
+	@SuppressWarnings("unchecked")
+	public <A, B, C, D, E, R> FiveParamFunction<A, B, C, D, E, R> asFiveParamFunction() {
+		MethodHandle handle = exactHandle(5, FiveParamFunction.class);
+		return (a, b, c, d, e) -> {
+			try {
+				return (R) (Object) handle.invokeExact((Object) a, (Object) b, (Object) c, (Object) d, (Object) e);
+			} catch (Throwable t) {
+				throw unchecked(t);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "Invoker[" + member + "]";
+	}
+
+	/**
+	 * 校验参数类型，类型不匹配时与{@link Method#invoke}一样抛出{@link IllegalArgumentException}，
+	 * 避免方法句柄的类型转换异常被当成调用目标异常
+	 *
+	 * @param arguments 参数
+	 */
+	private void checkArgumentTypes(Object[] arguments) {
+		for (int i = 0; i < parameterCount; i++) {
+			Class<?> type = parameterTypes[i];
+			Object argument = arguments[i];
+			boolean matched;
+			if (!type.isPrimitive()) {
+				matched = null == argument || type.isInstance(argument);
+			} else {
+				matched = null != argument && isWidening(unwrap(argument.getClass()), type);
+			}
+			if (!matched) {
+				throw new IllegalArgumentException("argument type mismatch: " + (null == argument ? "null" : argument.getClass().getName())
+						+ " -> " + type.getName() + ", member: " + member);
+			}
+		}
+	}
+
+	/**
+	 * 包装类型对应的基本类型
+	 *
+	 * @param wrapper 包装类型
+	 * @return Class 基本类型，不是包装类型时返回null
+	 */
+	private static Class<?> unwrap(Class<?> wrapper) {
+		if (wrapper == Integer.class) {
+			return int.class;
+		} else if (wrapper == Long.class) {
+			return long.class;
+		} else if (wrapper == Double.class) {
+			return double.class;
+		} else if (wrapper == Float.class) {
+			return float.class;
+		} else if (wrapper == Short.class) {
+			return short.class;
+		} else if (wrapper == Byte.class) {
+			return byte.class;
+		} else if (wrapper == Character.class) {
+			return char.class;
+		} else if (wrapper == Boolean.class) {
+			return boolean.class;
+		}
+		return null;
+	}
+
+	/**
+	 * 基本类型之间是否为相同类型或者拓宽转换（JLS 5.1.2），和{@link Method#invoke}拆箱后允许的转换一致
+	 *
+	 * @param source 参数拆箱后的基本类型
+	 * @param target 形参的基本类型
+	 * @return boolean 【true：可以转换】
+	 */
+	private static boolean isWidening(Class<?> source, Class<?> target) {
+		if (null == source || source == target) {
+			return source == target;
+		}
+		if (target == double.class) {
+			return source == float.class || source == long.class || source == int.class || source == char.class
+					|| source == short.class || source == byte.class;
+		} else if (target == float.class) {
+			return source == long.class || source == int.class || source == char.class || source == short.class
+					|| source == byte.class;
+		} else if (target == long.class) {
+			return source == int.class || source == char.class || source == short.class || source == byte.class;
+		} else if (target == int.class) {
+			return source == char.class || source == short.class || source == byte.class;
+		} else if (target == short.class) {
+			return source == byte.class;
+		}
+		return false;
+	}
+
+	/**
+	 * 获取指定参数个数的方法句柄，参数个数不一致时抛出异常
+	 *
+	 * @param arity         参数个数
+	 * @param interfaceType 函数式接口类型
+	 * @return MethodHandle 方法句柄
+	 */
+	private MethodHandle exactHandle(int arity, Class<?> interfaceType) {
+		if (arity() != arity) {
+			throw new IllegalStateException(member + "的参数个数为" + arity() + "，不能转成" + interfaceType.getSimpleName());
+		}
+		return exactHandle;
+	}
+
+	/**
+	 * 将异常转成非受检异常，受检异常使用{@link UndeclaredThrowableException}包装
+	 *
+	 * @param e 异常
+	 * @return RuntimeException 非受检异常
+	 */
+	private static RuntimeException unchecked(Throwable e) {
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new UndeclaredThrowableException(e);
+	}
+
+	/**
+	 * 取消访问检查，模块或安全管理器限制时保持原有的访问控制
+	 *
+	 * @param accessibleObject 成员
+	 */
+	private static void makeAccessible(AccessibleObject accessibleObject) {
+		try {
+			accessibleObject.setAccessible(true);
+		} catch (RuntimeException e) {
+			// 保持原有的访问控制，由方法句柄的查找抛出非法访问异常
+		}
+	}
+
+	/**
+	 * 放入缓存
+	 *
+	 * @param key     缓存的key
+	 * @param invoker 调用器
+	 * @return Invoker 缓存中的调用器（并发放入时以先放入的为准）
+	 */
+	private static Invoker cache(Object key, Invoker invoker) {
+		Class<?> declaringClass = invoker.member.getDeclaringClass();
+		Invoker existing = INVOKER_CACHE.get(declaringClass).putIfAbsent(key, invoker);
+		return null == existing ? invoker : existing;
+	}
+
+	/**
+	 * 属性调用器的缓存key【同一个属性的读取和设置是两个调用器】
+	 */
+	private static final class FieldKey {
+		/**
+		 * 属性
+		 */
+		private final Field field;
+		/**
+		 * 是否为设置属性值
+		 */
+		private final boolean setter;
+
+		private FieldKey(Field field, boolean setter) {
+			this.field = field;
+			this.setter = setter;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof FieldKey)) {
+				return false;
+			}
+			FieldKey other = (FieldKey) obj;
+			return setter == other.setter && field.equals(other.field);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * field.hashCode() + (setter ? 1 : 0);
+		}
+	}
+}
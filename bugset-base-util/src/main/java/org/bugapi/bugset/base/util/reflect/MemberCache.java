@@ -0,0 +1,344 @@
+package org.bugapi.bugset.base.util.reflect;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 类成员（方法、属性、构造器）的查找缓存
+ * <pre>
+ * 1、按（类, 成员名, 形参类型）缓存getDeclaredXxx找不到成员的结果，重复查找不存在的成员时不再创建异常和遍历成员
+ * 2、按（类, 方法名, 形参类型）缓存方法的调用器{@link Invoker}，调用器不暴露可修改的状态，可以共享，
+ *    按方法名调用时不再查找方法；缓存的个数不超过类中声明的方法个数
+ * 3、返回成员对象的方法每次都通过JDK查找（JDK内部已经缓存了类的成员列表），返回新的副本：
+ *    副本没有调用过setAccessible，调用方对副本的修改不会影响其他调用方（JDK没有复制成员的公开方法，只能重新查找）
+ * 4、缓存挂在声明类的{@link ClassValue}上，随声明类一起被回收；形参类型、返回值类型来自声明类的类加载器以外的加载器时不缓存，
+ *    不会因为缓存导致其他类加载器无法卸载
+ * 5、每个类缓存的找不到的成员个数有上限（256），避免外部输入的成员名撑满内存
+ * 6、提供查找次数、缓存命中次数（包括找不到的成员的命中次数）的统计，用于在压测时确认缓存是否生效
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public class MemberCache {
+
+	/**
+	 * 空的形参类型数组
+	 */
+	private static final Class<?>[] EMPTY_PARAMETER_TYPES = new Class<?>[0];
+
+	/**
+	 * 每个类缓存的找不到的成员的最大个数，超过后不再缓存
+	 */
+	private static final int MAX_MISSING_SIZE = 256;
+
+	/**
+	 * 构造器的成员名【构造器没有名称，用类的初始化方法名代替】
+	 */
+	private static final String CONSTRUCTOR_NAME = "<init>";
+
+	/**
+	 * 属性与方法同名时用于区分的前缀
+	 */
+	private static final String FIELD_PREFIX = "#";
+
+	/**
+	 * 声明类与找不到的成员的映射
+	 */
+	private static final ClassValue<Set<MemberKey>> MISSING_CACHE = new ClassValue<Set<MemberKey>>() {
+		@Override
+		protected Set<MemberKey> computeValue(Class<?> type) {
+			return ConcurrentHashMap.newKeySet(16);
+		}
+	};
+
+	/**
+	 * 声明类与（方法的key与调用器映射）的缓存
+	 */
+	private static final ClassValue<ConcurrentMap<MemberKey, Invoker>> INVOKER_CACHE = new ClassValue<ConcurrentMap<MemberKey, Invoker>>() {
+		@Override
+		protected ConcurrentMap<MemberKey, Invoker> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>(16);
+		}
+	};
+
+	/**
+	 * 查找次数
+	 */
+	private static final LongAdder LOOKUP_COUNT = new LongAdder();
+
+	/**
+	 * 通过缓存得到结果（调用器或者成员不存在）的次数
+	 */
+	private static final LongAdder HIT_COUNT = new LongAdder();
+
+	/**
+	 * 通过缓存得到成员不存在的次数
+	 */
+	private static final LongAdder NEGATIVE_HIT_COUNT = new LongAdder();
+
+	/**
+	 * 获取类中声明的方法
+	 *
+	 * @param clazz          类型类
+	 * @param methodName     方法名
+	 * @param parameterTypes 方法的形参对应的Class类型
+	 * @return 方法对象（新的副本）
+	 * @throws NoSuchMethodException 方法不存在异常
+	 */
+	public static Method getDeclaredMethod(Class<?> clazz, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+		MemberKey key = new MemberKey(methodName, parameterTypes);
+		if (isMissing(clazz, key)) {
+			throw new NoSuchMethodException(clazz.getName() + "." + methodName + argumentTypesToString(parameterTypes));
+		}
+		try {
+			return clazz.getDeclaredMethod(methodName, key.parameterTypes);
+		} catch (NoSuchMethodException e) {
+			putMissing(clazz, key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 获取类中声明的方法的调用器【找到后缓存，再次获取时不再查找方法】
+	 *
+	 * @param clazz          类型类
+	 * @param methodName     方法名
+	 * @param parameterTypes 方法的形参对应的Class类型
+	 * @return 调用器
+	 * @throws NoSuchMethodException  方法不存在异常
+	 * @throws IllegalAccessException 非法访问异常
+	 */
+	public static Invoker getDeclaredMethodInvoker(Class<?> clazz, String methodName, Class<?>... parameterTypes)
+			throws NoSuchMethodException, IllegalAccessException {
+		MemberKey key = new MemberKey(methodName, parameterTypes);
+		ConcurrentMap<MemberKey, Invoker> invokers = INVOKER_CACHE.get(clazz);
+		Invoker invoker = invokers.get(key);
+		if (null != invoker) {
+			LOOKUP_COUNT.increment();
+			HIT_COUNT.increment();
+			return invoker;
+		}
+		Method method = getDeclaredMethod(clazz, methodName, parameterTypes);
+		invoker = Invoker.of(method);
+		if (isRetainable(clazz, key.parameterTypes) && isRetainable(clazz, method.getReturnType())) {
+			// 形参类型数组来自调用方，复制后再缓存
+			invokers.putIfAbsent(new MemberKey(key.name, key.parameterTypes.clone()), invoker);
+		}
+		return invoker;
+	}
+
+	/**
+	 * 获取类中声明的属性
+	 *
+	 * @param clazz     类型类
+	 * @param fieldName 属性名
+	 * @return 属性对象（新的副本）
+	 * @throws NoSuchFieldException 属性不存在异常
+	 */
+	public static Field getDeclaredField(Class<?> clazz, String fieldName) throws NoSuchFieldException {
+		MemberKey key = new MemberKey(FIELD_PREFIX + fieldName, EMPTY_PARAMETER_TYPES);
+		if (isMissing(clazz, key)) {
+			throw new NoSuchFieldException(fieldName);
+		}
+		try {
+			return clazz.getDeclaredField(fieldName);
+		} catch (NoSuchFieldException e) {
+			putMissing(clazz, key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 获取类中声明的构造器
+	 *
+	 * @param clazz          类型类
+	 * @param parameterTypes 构造器的形参对应的Class类型
+	 * @param <T>            对象的类型
+	 * @return 构造器对象（新的副本）
+	 * @throws NoSuchMethodException 构造器不存在异常
+	 */
+	public static <T> Constructor<T> getDeclaredConstructor(Class<T> clazz, Class<?>... parameterTypes) throws NoSuchMethodException {
+		MemberKey key = new MemberKey(CONSTRUCTOR_NAME, parameterTypes);
+		if (isMissing(clazz, key)) {
+			throw new NoSuchMethodException(clazz.getName() + "." + CONSTRUCTOR_NAME + argumentTypesToString(parameterTypes));
+		}
+		try {
+			return clazz.getDeclaredConstructor(key.parameterTypes);
+		} catch (NoSuchMethodException e) {
+			putMissing(clazz, key);
+			throw e;
+		}
+	}
+
+	/**
+	 * 获取查找次数【包括通过缓存得到结果的次数】
+	 *
+	 * @return long 查找次数
+	 */
+	public static long getLookupCount() {
+		return LOOKUP_COUNT.sum();
+	}
+
+	/**
+	 * 获取通过缓存得到结果的次数【包括缓存的调用器和缓存的成员不存在，不需要再通过JDK查找】
+	 *
+	 * @return long 命中次数
+	 */
+	public static long getHitCount() {
+		return HIT_COUNT.sum();
+	}
+
+	/**
+	 * 获取通过缓存得到成员不存在的次数
+	 *
+	 * @return long 成员不存在的命中次数
+	 */
+	public static long getNegativeHitCount() {
+		return NEGATIVE_HIT_COUNT.sum();
+	}
+
+	/**
+	 * 重置统计的次数
+	 */
+	public static void resetStatistics() {
+		LOOKUP_COUNT.reset();
+		HIT_COUNT.reset();
+		NEGATIVE_HIT_COUNT.reset();
+	}
+
+	/**
+	 * 删除指定类的缓存
+	 *
+	 * @param clazz 类型类
+	 */
+	public static void remove(Class<?> clazz) {
+		if (null != clazz) {
+			MISSING_CACHE.remove(clazz);
+			INVOKER_CACHE.remove(clazz);
+		}
+	}
+
+	/**
+	 * 是否已经缓存了成员不存在
+	 *
+	 * @param clazz 声明类
+	 * @param key   成员的key
+	 * @return boolean 【true：成员不存在】
+	 */
+	private static boolean isMissing(Class<?> clazz, MemberKey key) {
+		LOOKUP_COUNT.increment();
+		if (MISSING_CACHE.get(clazz).contains(key)) {
+			HIT_COUNT.increment();
+			NEGATIVE_HIT_COUNT.increment();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 缓存成员不存在的结果【超过上限或者形参类型会导致其他类加载器无法卸载时不缓存】
+	 *
+	 * @param clazz 声明类
+	 * @param key   成员的key
+	 */
+	private static void putMissing(Class<?> clazz, MemberKey key) {
+		Set<MemberKey> missing = MISSING_CACHE.get(clazz);
+		if (missing.size() < MAX_MISSING_SIZE && isRetainable(clazz, key.parameterTypes)) {
+			// 形参类型数组来自调用方，复制后再缓存
+			missing.add(new MemberKey(key.name, key.parameterTypes.clone()));
+		}
+	}
+
+	/**
+	 * 形参类型、返回值类型是否可以被声明类的缓存强引用：类型的类加载器是声明类的类加载器或者其祖先时，
+	 * 类型本来就不会早于声明类被回收
+	 *
+	 * @param clazz 声明类
+	 * @param types 形参类型、返回值类型
+	 * @return boolean 【true：可以缓存】
+	 */
+	private static boolean isRetainable(Class<?> clazz, Class<?>... types) {
+		ClassLoader loader = clazz.getClassLoader();
+		for (Class<?> type : types) {
+			if (null == type) {
+				return false;
+			}
+			ClassLoader typeLoader = type.getClassLoader();
+			ClassLoader ancestor = loader;
+			while (null != typeLoader && ancestor != typeLoader) {
+				if (null == ancestor) {
+					return false;
+				}
+				ancestor = ancestor.getParent();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 形参类型转成字符串，格式与JDK的异常信息一致
+	 *
+	 * @param parameterTypes 形参类型
+	 * @return String 形参类型字符串
+	 */
+	private static String argumentTypesToString(Class<?>[] parameterTypes) {
+		StringBuilder builder = new StringBuilder("(");
+		if (null != parameterTypes) {
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (i > 0) {
+					builder.append(", ");
+				}
+				builder.append(null == parameterTypes[i] ? "null" : parameterTypes[i].getName());
+			}
+		}
+		return builder.append(')').toString();
+	}
+
+	/**
+	 * 成员的key：成员名+形参类型
+	 */
+	private static final class MemberKey {
+		/**
+		 * 成员名
+		 */
+		private final String name;
+		/**
+		 * 形参类型
+		 */
+		private final Class<?>[] parameterTypes;
+		/**
+		 * 哈希值
+		 */
+		private final int hash;
+
+		private MemberKey(String name, Class<?>[] parameterTypes) {
+			this.name = name;
+			this.parameterTypes = null == parameterTypes ? EMPTY_PARAMETER_TYPES : parameterTypes;
+			this.hash = 31 * name.hashCode() + Arrays.hashCode(this.parameterTypes);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MemberKey)) {
+				return false;
+			}
+			MemberKey other = (MemberKey) obj;
+			return hash == other.hash && name.equals(other.name) && Arrays.equals(parameterTypes, other.parameterTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -29,6 +29,20 @@ public class ModifierUtil {
 		return 0 != (clazz.getModifiers() & modifiersToInt(nodifierEnum));
 	}
 
+	/**
+	 * 是否存在指定的修饰符【单个修饰符不创建可变参数数组】
+	 *
+	 * @param clazz        类
+	 * @param nodifierEnum 修饰符枚举
+	 * @return 是否有指定修饰符，如果有返回true，否则false，如果提供参数为null返回false
+	 */
+	public static boolean hasModifier(Class<?> clazz, ModifierEnum nodifierEnum) {
+		if (null == clazz || null == nodifierEnum) {
+			return false;
+		}
+		return 0 != (clazz.getModifiers() & nodifierEnum.getType());
+	}
+
 	/**
 	 * 是否同时存在一个或多个修饰符（可能有多个修饰符，如果有指定的修饰符则返回true）
 	 *
@@ -43,6 +57,20 @@ public class ModifierUtil {
 		return 0 != (constructor.getModifiers() & modifiersToInt(nodifierEnum));
 	}
 
+	/**
+	 * 是否存在指定的修饰符【单个修饰符不创建可变参数数组】
+	 *
+	 * @param constructor  构造方法
+	 * @param nodifierEnum 修饰符枚举
+	 * @return 是否有指定修饰符，如果有返回true，否则false，如果提供参数为null返回false
+	 */
+	public static boolean hasModifier(Constructor<?> constructor, ModifierEnum nodifierEnum) {
+		if (null == constructor || null == nodifierEnum) {
+			return false;
+		}
+		return 0 != (constructor.getModifiers() & nodifierEnum.getType());
+	}
+
 	/**
 	 * 是否同时存在一个或多个修饰符（可能有多个修饰符，如果有指定的修饰符则返回true）
 	 *
@@ -57,6 +85,20 @@ public class ModifierUtil {
 		return 0 != (method.getModifiers() & modifiersToInt(nodifierEnum));
 	}
 
+	/**
+	 * 是否存在指定的修饰符【单个修饰符不创建可变参数数组】
+	 *
+	 * @param method       方法
+	 * @param nodifierEnum 修饰符枚举
+	 * @return 是否有指定修饰符，如果有返回true，否则false，如果提供参数为null返回false
+	 */
+	public static boolean hasModifier(Method method, ModifierEnum nodifierEnum) {
+		if (null == method || null == nodifierEnum) {
+			return false;
+		}
+		return 0 != (method.getModifiers() & nodifierEnum.getType());
+	}
+
 	/**
 	 * 是否同时存在一个或多个修饰符（可能有多个修饰符，如果有指定的修饰符则返回true）
 	 *
@@ -71,6 +113,20 @@ public class ModifierUtil {
 		return 0 != (field.getModifiers() & modifiersToInt(nodifierEnum));
 	}
 
+	/**
+	 * 是否存在指定的修饰符【单个修饰符不创建可变参数数组】
+	 *
+	 * @param field        字段
+	 * @param nodifierEnum 修饰符枚举
+	 * @return 是否有指定修饰符，如果有返回true，否则false，如果提供参数为null返回false
+	 */
+	public static boolean hasModifier(Field field, ModifierEnum nodifierEnum) {
+		if (null == field || null == nodifierEnum) {
+			return false;
+		}
+		return 0 != (field.getModifiers() & nodifierEnum.getType());
+	}
+
 	/**
 	 * 是否是Public字段
 	 *
@@ -9,6 +9,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 /**
  * 获取反射工具类
@@ -31,7 +32,7 @@ public class ReflectUtil {
 		if (null == clazz) {
 			return null;
 		}
-		return clazz.getDeclaredConstructor(parameterTypes);
+		return MemberCache.getDeclaredConstructor(clazz, parameterTypes);
 	}
 
 	/**
@@ -46,7 +47,25 @@ public class ReflectUtil {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T> T newInstance(String clazz) throws ClassNotFoundException, IllegalAccessException, InstantiationException {
-		return (T) Class.forName(clazz).newInstance();
+		Class<T> type = (Class<T>) Class.forName(clazz);
+		Constructor<T> constructor;
+		try {
+			constructor = MemberCache.getDeclaredConstructor(type);
+		} catch (NoSuchMethodException e) {
+			throw (InstantiationException) new InstantiationException(clazz).initCause(e);
+		}
+		if (Modifier.isAbstract(type.getModifiers())) {
+			throw new InstantiationException(clazz);
+		}
+		// 和Class.newInstance()一样只调用公共类的公共构造器
+		if (!Modifier.isPublic(type.getModifiers()) || !Modifier.isPublic(constructor.getModifiers())) {
+			throw new IllegalAccessException("无法访问" + clazz + "的构造器：" + Modifier.toString(constructor.getModifiers()));
+		}
+		try {
+			return Invoker.of(constructor).newInstance();
+		} catch (InvocationTargetException e) {
+			throw (InstantiationException) new InstantiationException(clazz).initCause(e.getTargetException());
+		}
 	}
 
 	/**
@@ -68,10 +87,10 @@ public class ReflectUtil {
 		if (null == constructor) {
 			return null;
 		}
-		if (!constructor.isAccessible()) {
-			constructor.setAccessible(true);
+		if (Modifier.isAbstract(clazz.getModifiers())) {
+			return constructor.newInstance(params);
 		}
-		return constructor.newInstance(params);
+		return Invoker.of(constructor).newInstance(params);
 	}
 
 	/**
@@ -87,7 +106,23 @@ public class ReflectUtil {
 		if (null == clazz || null == annotationClass) {
 			return null;
 		}
-		return clazz.getAnnotation(annotationClass);
+		return ClassMetadata.of(clazz).getAnnotation(annotationClass);
+	}
+
+	/**
+	 * 查找类上的注解，类上没有时查找注解上的元注解
+	 *
+	 * @param clazz           类
+	 * @param annotationClass 注解类【注解类需要时：@Retention(RetentionPolicy.RUNTIME)】
+	 * @param <T>             类的泛型
+	 * @param <A>             注解类的泛型
+	 * @return 类注解实例
+	 */
+	public static <T, A extends Annotation> A findClassAnnotation(Class<T> clazz, Class<A> annotationClass) {
+		if (null == clazz || null == annotationClass) {
+			return null;
+		}
+		return ClassMetadata.of(clazz).findAnnotation(annotationClass);
 	}
 
 	/**
@@ -102,7 +137,7 @@ public class ReflectUtil {
 		if (null == clazz || StringUtil.isEmpty(fieldName)) {
 			return null;
 		}
-		return clazz.getDeclaredField(fieldName);
+		return MemberCache.getDeclaredField(clazz, fieldName);
 	}
 
 	/**
@@ -134,7 +169,7 @@ public class ReflectUtil {
 		if (null == field || null == annotationClass) {
 			return null;
 		}
-		return field.getAnnotation(annotationClass);
+		return ClassMetadata.of(field.getDeclaringClass()).getFieldAnnotation(field, annotationClass);
 	}
 
 	/**
@@ -150,7 +185,7 @@ public class ReflectUtil {
 		if (null == clazz || StringUtil.isEmpty(methodName)) {
 			return null;
 		}
-		return clazz.getDeclaredMethod(methodName, ClassUtil.getClasses(objects));
+		return MemberCache.getDeclaredMethod(clazz, methodName, ClassUtil.getClasses(objects));
 	}
 
 	/**
@@ -166,7 +201,7 @@ public class ReflectUtil {
 		if (null == clazz || StringUtil.isEmpty(methodName)) {
 			return null;
 		}
-		return clazz.getDeclaredMethod(methodName, parameterTypes);
+		return MemberCache.getDeclaredMethod(clazz, methodName, parameterTypes);
 	}
 
 
@@ -212,7 +247,7 @@ public class ReflectUtil {
 		if (null == method || null == annotationClass) {
 			return null;
 		}
-		return method.getAnnotation(annotationClass);
+		return ClassMetadata.of(method.getDeclaringClass()).getMethodAnnotation(method, annotationClass);
 	}
 
 	/**
@@ -229,9 +264,12 @@ public class ReflectUtil {
 	 */
 	public static <T> T invoke(Object obj, String methodName, Object... args) throws NoSuchMethodException,
 			InvocationTargetException, IllegalAccessException {
-		Class clazz = ClassUtil.getClass(obj);
-		Method method = getMethod(clazz, methodName, args);
-		return invoke(obj, method, args);
+		Class<?> clazz = ClassUtil.getClass(obj);
+		if (null == clazz || StringUtil.isEmpty(methodName)) {
+			return null;
+		}
+		// 调用器按（类, 方法名, 参数类型）缓存，不再每次查找方法
+		return MemberCache.getDeclaredMethodInvoker(clazz, methodName, ClassUtil.getClasses(args)).invoke(obj, args);
 	}
 
 	/**
@@ -247,8 +285,10 @@ public class ReflectUtil {
 	 * @throws IllegalAccessException    非法访问异常
 	 */
 	public static <T> T invoke(Class<T> clazz, String methodName, Object... args) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-		Method method = getMethod(clazz, methodName, args);
-		return invoke(method, args);
+		if (null == clazz || StringUtil.isEmpty(methodName)) {
+			return null;
+		}
+		return MemberCache.getDeclaredMethodInvoker(clazz, methodName, ClassUtil.getClasses(args)).invoke(null, args);
 	}
 
 	/**
@@ -276,15 +316,11 @@ public class ReflectUtil {
 	 * @throws InvocationTargetException 调用目标异常
 	 * @throws IllegalAccessException    非法访问异常
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T> T invoke(Object obj, Method method, Object... args) throws InvocationTargetException, IllegalAccessException {
 		if (null == method) {
 			return null;
 		}
-		if (!method.isAccessible()) {
-			method.setAccessible(true);
-		}
-		return (T) method.invoke(ModifierUtil.isStatic(method) ? null : obj, args);
+		return Invoker.of(method).invoke(obj, args);
 	}
 
 	public static void main(String[] args) throws ClassNotFoundException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException, IllegalAccessException {
@@ -0,0 +1,243 @@
+package org.bugapi.bugset.base.util.string;
+
+import org.bugapi.bugset.base.constant.SymbolType;
+
+import java.util.Arrays;
+
+/**
+ * 分隔符拼接的字符串去重器【{@link StringUtil#removeRepeatData(String, String)}的单次遍历实现】
+ * <pre>
+ * 1、按字面量分隔符分割，元素是原字符串上的位置，直接按字符计算哈希值，不生成元素的字符串
+ * 2、开放地址的哈希表只保存元素的位置，第一次出现的元素直接从原字符串复制到输出的缓冲区，保持第一次出现的顺序
+ * 3、哈希表和输出的缓冲区在多次调用之间复用，同一个实例重复调用时不再分配内存（返回结果的字符串除外）
+ * 4、由空白符组成的元素跳过，元素本身不去掉空白符（" a"和"a"是不同的元素）
+ * 5、不是线程安全的，每个线程使用自己的实例
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class RepeatDataRemover {
+
+	/**
+	 * 哈希表的初始容量
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * 复用的缓冲区超过该长度时，调用结束后释放，避免一次大的调用长期占用内存
+	 */
+	private static final int MAX_RETAINED_LENGTH = 1 << 16;
+
+	/**
+	 * 分割元素的消费函数
+	 */
+	private final Splitter.TokenConsumer consumer = this::accept;
+
+	/**
+	 * 输出的缓冲区
+	 */
+	private StringBuilder buffer = new StringBuilder();
+
+	/**
+	 * 哈希表，保存元素的序号加1，0表示空位
+	 */
+	private int[] slots = new int[INITIAL_CAPACITY];
+
+	/**
+	 * 元素的开始位置
+	 */
+	private int[] starts = new int[INITIAL_CAPACITY >>> 1];
+
+	/**
+	 * 元素的结束位置
+	 */
+	private int[] ends = new int[INITIAL_CAPACITY >>> 1];
+
+	/**
+	 * 元素的哈希值
+	 */
+	private int[] hashes = new int[INITIAL_CAPACITY >>> 1];
+
+	/**
+	 * 元素在哈希表中的位置，用于调用结束后只清理用过的位置
+	 */
+	private int[] positions = new int[INITIAL_CAPACITY >>> 1];
+
+	/**
+	 * 不重复的元素个数
+	 */
+	private int size;
+
+	/**
+	 * 上一次使用的分隔符
+	 */
+	private String delimiter;
+
+	/**
+	 * 上一次使用的分隔符对应的分割器
+	 */
+	private Splitter splitter;
+
+	/**
+	 * 当前写入的目标
+	 */
+	private StringBuilder target;
+
+	/**
+	 * 将用指定分隔符拼接成的字符串去重
+	 *
+	 * @param dataStr   数据字符串
+	 * @param delimiter 数据字符串中的拼接符，为空时默认为","
+	 * @return 去重后拼接的字符串
+	 */
+	public String remove(CharSequence dataStr, String delimiter) {
+		if (StringUtil.isEmpty(dataStr)) {
+			return SymbolType.EMPTY;
+		}
+		StringBuilder result = buffer;
+		result.setLength(0);
+		removeTo(dataStr, delimiter, result);
+		String value = result.toString();
+		if (result.capacity() > MAX_RETAINED_LENGTH) {
+			buffer = new StringBuilder();
+		}
+		return value;
+	}
+
+	/**
+	 * 将用指定分隔符拼接成的字符串去重，并追加到指定的StringBuilder【不生成中间字符串】
+	 *
+	 * @param dataStr   数据字符串
+	 * @param delimiter 数据字符串中的拼接符，为空时默认为","
+	 * @param out       去重后的字符串追加的目标
+	 */
+	public void removeTo(CharSequence dataStr, String delimiter, StringBuilder out) {
+		if (StringUtil.isEmpty(dataStr)) {
+			return;
+		}
+		delimiter = StringUtil.getDefaultStrSeparator(delimiter);
+		if (!delimiter.equals(this.delimiter)) {
+			this.delimiter = delimiter;
+			this.splitter = Splitter.on(delimiter);
+		}
+		target = out;
+		try {
+			splitter.split(dataStr, consumer);
+		} finally {
+			reset();
+		}
+	}
+
+	/**
+	 * 处理一个元素：空白的元素跳过，第一次出现的元素写入目标
+	 *
+	 * @param str   原字符串
+	 * @param start 开始位置（包含）
+	 * @param end   结束位置（不包含）
+	 */
+	private void accept(CharSequence str, int start, int end) {
+		int hash = 0;
+		boolean blank = true;
+		for (int i = start; i < end; i++) {
+			char c = str.charAt(i);
+			hash = 31 * hash + c;
+			blank &= StringUtil.isBlankChar(c);
+		}
+		if (blank) {
+			return;
+		}
+		int mask = slots.length - 1;
+		int slot = mix(hash) & mask;
+		for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+			int id = entry - 1;
+			if (hashes[id] == hash && regionEquals(str, starts[id], ends[id], start, end)) {
+				return;
+			}
+		}
+		if (size == starts.length) {
+			grow();
+			// 扩容后哈希表的位置变化，重新查找空位
+			mask = slots.length - 1;
+			slot = mix(hash) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+		}
+		starts[size] = start;
+		ends[size] = end;
+		hashes[size] = hash;
+		positions[size] = slot;
+		slots[slot] = ++size;
+		if (size > 1) {
+			target.append(delimiter);
+		}
+		target.append(str, start, end);
+	}
+
+	/**
+	 * 扩容：元素数组和哈希表都扩大为两倍，并重新放入哈希表
+	 */
+	private void grow() {
+		int capacity = starts.length << 1;
+		starts = Arrays.copyOf(starts, capacity);
+		ends = Arrays.copyOf(ends, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+		positions = Arrays.copyOf(positions, capacity);
+		slots = new int[capacity << 1];
+		int mask = slots.length - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = mix(hashes[id]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = id + 1;
+			positions[id] = slot;
+		}
+	}
+
+	/**
+	 * 调用结束后只清理用过的位置，过大的哈希表直接释放
+	 */
+	private void reset() {
+		if (slots.length > MAX_RETAINED_LENGTH) {
+			slots = new int[INITIAL_CAPACITY];
+			starts = new int[INITIAL_CAPACITY >>> 1];
+			ends = new int[INITIAL_CAPACITY >>> 1];
+			hashes = new int[INITIAL_CAPACITY >>> 1];
+			positions = new int[INITIAL_CAPACITY >>> 1];
+		} else {
+			for (int id = 0; id < size; id++) {
+				slots[positions[id]] = 0;
+			}
+		}
+		size = 0;
+		target = null;
+	}
+
+	/**
+	 * 比较原字符串中的两个区域是否相同
+	 */
+	private static boolean regionEquals(CharSequence str, int start, int end, int otherStart, int otherEnd) {
+		if (end - start != otherEnd - otherStart) {
+			return false;
+		}
+		if (str instanceof String) {
+			return ((String) str).regionMatches(start, (String) str, otherStart, end - start);
+		}
+		for (int i = start, j = otherStart; i < end; i++, j++) {
+			if (str.charAt(i) != str.charAt(j)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 打散哈希值的低位，避免String哈希值低位集中时开放地址冲突过多
+	 */
+	private static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,391 @@
+package org.bugapi.bugset.base.util.string;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 字符串分割器
+ * <pre>
+ * 1、分隔符按字面量匹配（不是正则表达式），"."、"|"等字符不需要转义
+ * 2、分割是惰性的：遍历时才查找下一个分隔符，返回的元素是原字符串上的视图（开始位置和结束位置），不复制字符
+ * 3、可以去掉元素两边的空白符（空白符的定义和{@link StringUtil#trim(CharSequence, int)}一致）、跳过空元素
+ * 4、分割器是不可变对象，配置方法返回新的分割器，可以作为常量在多个线程中共享
+ * </pre>
+ * 举例如下：
+ * <pre>
+ * Splitter.on(',').split("a,,b,")                              = [a, , b, ]
+ * Splitter.on(',').omitEmptyStrings().split("a,,b,")           = [a, b]
+ * Splitter.on("|").trimResults().split(" a | b ")              = [a, b]
+ * Splitter.on('.').trimResults().omitEmptyStrings().split(" . ") = []
+ * </pre>
+ *
+ * @author zhangxw
+ * @since 0.0.1
+ */
+public final class Splitter {
+
+	/**
+	 * 分隔符
+	 */
+	private final String separator;
+
+	/**
+	 * 是否去掉元素两边的空白符
+	 */
+	private final boolean trim;
+
+	/**
+	 * 是否跳过空元素（去掉空白符之后判断）
+	 */
+	private final boolean omitEmpty;
+
+	private Splitter(String separator, boolean trim, boolean omitEmpty) {
+		this.separator = separator;
+		this.trim = trim;
+		this.omitEmpty = omitEmpty;
+	}
+
+	/**
+	 * 创建按单个字符分割的分割器
+	 *
+	 * @param separator 分隔符
+	 * @return Splitter 分割器
+	 */
+	public static Splitter on(char separator) {
+		return new Splitter(String.valueOf(separator), false, false);
+	}
+
+	/**
+	 * 创建按字符串分割的分割器
+	 *
+	 * @param separator 分隔符，为空时默认为","{@link StringUtil#getDefaultStrSeparator(String)}
+	 * @return Splitter 分割器
+	 */
+	public static Splitter on(String separator) {
+		return new Splitter(StringUtil.getDefaultStrSeparator(separator), false, false);
+	}
+
+	/**
+	 * 去掉元素两边的空白符
+	 *
+	 * @return Splitter 新的分割器
+	 */
+	public Splitter trimResults() {
+		return new Splitter(separator, true, omitEmpty);
+	}
+
+	/**
+	 * 跳过空元素【设置了去掉空白符时，只由空白符组成的元素也跳过】
+	 *
+	 * @return Splitter 新的分割器
+	 */
+	public Splitter omitEmptyStrings() {
+		return new Splitter(separator, trim, true);
+	}
+
+	/**
+	 * 惰性分割字符串
+	 *
+	 * @param str 被分割的字符串，为null时没有元素
+	 * @return Iterable 元素的视图，每次遍历都重新分割
+	 */
+	public Iterable<Token> split(CharSequence str) {
+		return () -> new TokenIterator(str);
+	}
+
+	/**
+	 * 分割字符串并把每个元素的位置传给消费函数【不创建任何对象】
+	 *
+	 * @param str      被分割的字符串，为null时没有元素
+	 * @param consumer 元素的消费函数
+	 */
+	public void split(CharSequence str, TokenConsumer consumer) {
+		if (null == str) {
+			return;
+		}
+		int length = str.length();
+		int position = 0;
+		while (position <= length) {
+			int end = indexOfSeparator(str, position);
+			int next = end < 0 ? length + 1 : end + separator.length();
+			if (end < 0) {
+				end = length;
+			}
+			int start = position;
+			if (trim) {
+				start = trimStart(str, start, end);
+				end = trimEnd(str, start, end);
+			}
+			if (!omitEmpty || start < end) {
+				consumer.accept(str, start, end);
+			}
+			position = next;
+		}
+	}
+
+	/**
+	 * 分割字符串为List
+	 *
+	 * @param str 被分割的字符串，为null时返回空的List
+	 * @return List 元素
+	 */
+	public List<String> splitToList(CharSequence str) {
+		List<String> result = new ArrayList<>();
+		split(str, (source, start, end) -> result.add(source.subSequence(start, end).toString()));
+		return result;
+	}
+
+	/**
+	 * 分割字符串为数组
+	 *
+	 * @param str 被分割的字符串，为null时返回空数组
+	 * @return String[] 元素
+	 */
+	public String[] splitToArray(CharSequence str) {
+		return splitToList(str).toArray(new String[0]);
+	}
+
+	/**
+	 * 从指定位置开始查找分隔符
+	 *
+	 * @param str  字符串
+	 * @param from 开始位置
+	 * @return int 分隔符的位置，没有找到时返回{@link StringUtil#INDEX_NOT_FOUND}
+	 */
+	private int indexOfSeparator(CharSequence str, int from) {
+		if (str instanceof String) {
+			return ((String) str).indexOf(separator, from);
+		}
+		int separatorLength = separator.length();
+		char first = separator.charAt(0);
+		for (int i = from, last = str.length() - separatorLength; i <= last; i++) {
+			if (str.charAt(i) != first) {
+				continue;
+			}
+			int matched = 1;
+			while (matched < separatorLength && str.charAt(i + matched) == separator.charAt(matched)) {
+				matched++;
+			}
+			if (matched == separatorLength) {
+				return i;
+			}
+		}
+		return StringUtil.INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * 跳过开头的空白符
+	 */
+	private static int trimStart(CharSequence str, int start, int end) {
+		while (start < end && StringUtil.isBlankChar(str.charAt(start))) {
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * 跳过结尾的空白符
+	 */
+	private static int trimEnd(CharSequence str, int start, int end) {
+		while (start < end && StringUtil.isBlankChar(str.charAt(end - 1))) {
+			end--;
+		}
+		return end;
+	}
+
+	@Override
+	public String toString() {
+		return "Splitter[" + separator + (trim ? ", trim" : "") + (omitEmpty ? ", omitEmpty" : "") + "]";
+	}
+
+	/**
+	 * 元素的消费函数
+	 */
+	@FunctionalInterface
+	public interface TokenConsumer {
+		/**
+		 * 消费一个元素
+		 *
+		 * @param source 被分割的字符串
+		 * @param start  元素的开始位置（包含）
+		 * @param end    元素的结束位置（不包含）
+		 */
+		void accept(CharSequence source, int start, int end);
+	}
+
+	/**
+	 * 分割出的元素：原字符串上的视图，不复制字符
+	 * 原字符串是可变的（例如StringBuilder）时，修改原字符串会影响视图的内容
+	 */
+	public static final class Token implements CharSequence {
+		/**
+		 * 原字符串
+		 */
+		private final CharSequence source;
+		/**
+		 * 开始位置（包含）
+		 */
+		private final int start;
+		/**
+		 * 结束位置（不包含）
+		 */
+		private final int end;
+		/**
+		 * 哈希值的缓存，和String的哈希值一致
+		 */
+		private int hash;
+
+		private Token(CharSequence source, int start, int end) {
+			this.source = source;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * 获取原字符串
+		 *
+		 * @return CharSequence 原字符串
+		 */
+		public CharSequence getSource() {
+			return source;
+		}
+
+		/**
+		 * 获取在原字符串中的开始位置
+		 *
+		 * @return int 开始位置（包含）
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * 获取在原字符串中的结束位置
+		 *
+		 * @return int 结束位置（不包含）
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		/**
+		 * 内容是否和指定的字符串相同
+		 *
+		 * @param str 字符串
+		 * @return boolean 【true：内容相同】
+		 */
+		public boolean contentEquals(CharSequence str) {
+			if (null == str || str.length() != length()) {
+				return false;
+			}
+			for (int i = start, j = 0; i < end; i++, j++) {
+				if (source.charAt(i) != str.charAt(j)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= length()) {
+				throw new StringIndexOutOfBoundsException(index);
+			}
+			return source.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if (from < 0 || to > length() || from > to) {
+				throw new StringIndexOutOfBoundsException("from: " + from + ", to: " + to);
+			}
+			return new Token(source, start + from, start + to);
+		}
+
+		/**
+		 * 只和内容相同的Token相等【和String比较内容使用{@link #contentEquals(CharSequence)}】
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			return this == obj || (obj instanceof Token && hashCode() == obj.hashCode() && contentEquals((Token) obj));
+		}
+
+		@Override
+		public int hashCode() {
+			int h = hash;
+			if (h == 0) {
+				for (int i = start; i < end; i++) {
+					h = 31 * h + source.charAt(i);
+				}
+				hash = h;
+			}
+			return h;
+		}
+
+		@Override
+		public String toString() {
+			return source.subSequence(start, end).toString();
+		}
+	}
+
+	/**
+	 * 惰性分割的迭代器
+	 */
+	private final class TokenIterator implements Iterator<Token> {
+		/**
+		 * 被分割的字符串
+		 */
+		private final CharSequence str;
+		/**
+		 * 下一次查找的开始位置，大于字符串长度时表示结束
+		 */
+		private int position;
+		/**
+		 * 已经查找到但还没有返回的元素
+		 */
+		private Token next;
+
+		private TokenIterator(CharSequence str) {
+			this.str = str;
+			this.position = null == str ? 1 : 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			int length = null == str ? 0 : str.length();
+			while (null == next && position <= length) {
+				int end = indexOfSeparator(str, position);
+				int start = position;
+				position = end < 0 ? length + 1 : end + separator.length();
+				if (end < 0) {
+					end = length;
+				}
+				if (trim) {
+					start = trimStart(str, start, end);
+					end = trimEnd(str, start, end);
+				}
+				if (!omitEmpty || start < end) {
+					next = new Token(str, start, end);
+				}
+			}
+			return null != next;
+		}
+
+		@Override
+		public Token next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Token token = next;
+			next = null;
+			return token;
+		}
+	}
+}
@@ -4,7 +4,6 @@ import org.bugapi.bugset.base.constant.SymbolType;
 
 import java.io.File;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 字符串工具类 两边
@@ -58,7 +57,16 @@ public class StringUtil {
 	 * @return boolean 【true：字符串为null、字符串由空白字符组成】
 	 */
 	public static boolean isEmpty(CharSequence str) {
-		return null == str || trim(str, TRIM_LEFT_RIGHT).length() == 0;
+		if (null == str) {
+			return true;
+		}
+		// 逐个字符判断，不生成去掉空白符后的字符串
+		for (int i = 0, length = str.length(); i < length; i++) {
+			if (!isBlankChar(str.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -68,7 +76,7 @@ public class StringUtil {
 	 * @return boolean 【true：字符串为null、字符串由空白字符组成】
 	 */
 	public static boolean isEmpty(String str) {
-		return null == str || trim(str, TRIM_LEFT_RIGHT).length() == 0;
+		return isEmpty((CharSequence) str);
 	}
 
 	/**
@@ -78,7 +86,7 @@ public class StringUtil {
 	 * @return boolean 【false：字符串为null、字符串由空白字符组成】
 	 */
 	public static boolean isNotEmpty(CharSequence str) {
-		return null != str && !SymbolType.EMPTY.equals(trim(str, TRIM_LEFT_RIGHT));
+		return !isEmpty(str);
 	}
 
 	/**
@@ -254,8 +262,8 @@ public class StringUtil {
 		if (StringUtil.isEmpty(dataStr)) {
 			return SymbolType.EMPTY;
 		}
-		delimiter = StringUtil.getDefaultStrSeparator(delimiter);
-		return Arrays.stream(dataStr.split(delimiter)).filter(StringUtil::isNotEmpty).distinct().collect(Collectors.joining(delimiter));
+		// 单次遍历，按元素在原字符串中的位置计算哈希值去重，只复制第一次出现的元素；需要重复调用时直接复用RepeatDataRemover
+		return new RepeatDataRemover().remove(dataStr, delimiter);
 	}
 
 
@@ -395,7 +403,7 @@ public class StringUtil {
 	 * @param ch 空白字符
 	 * @return boolean 【true：空白字符，false：非空白字符】
 	 */
-	private static boolean isBlankChar(char ch) {
+	static boolean isBlankChar(char ch) {
 		// isWhitespace() 方法用于判断指定字符是否为空白字符，空白符包含：空格、tab 键、换行符。
 		// isSpaceChar(char ch) 确定指定的字符是否为 Unicode 空白字符。一个字符被认为是当且仅当它被指定为Unicode标准空格字符空格字符。
 		// 此方法返回true，如果字符是下列任何一般类别类型：SPACE_SEPARATOR、LINE_SEPARATOR、PARAGRAPH_SEPARATOR